@@ -23,3 +23,8 @@ ALTER TABLE user_accounts
     ADD CONSTRAINT pk_user_accounts PRIMARY KEY (id);
 ALTER TABLE user_accounts
     ADD CONSTRAINT fk_user_accounts_users FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE user_accounts
+    ADD CONSTRAINT uq_user_accounts_user_id UNIQUE (user_id);
+
+ALTER TABLE outbox_events
+    ADD CONSTRAINT pk_outbox_events PRIMARY KEY (id);
@@ -8,6 +8,12 @@ CREATE TABLE events
     ticket_price DECIMAL(6, 2) NOT NULL DEFAULT (0)
 );
 
+CREATE INDEX events_title_id_idx ON events (title, id);
+CREATE INDEX events_date_id_idx ON events (date, id);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX events_title_trgm_idx ON events USING gin (lower(title) gin_trgm_ops);
+
 CREATE TABLE users
 (
     id    BIGINT GENERATED ALWAYS AS IDENTITY,
@@ -15,6 +21,8 @@ CREATE TABLE users
     email VARCHAR(50) NOT NULL
 );
 
+CREATE INDEX users_name_id_idx ON users (name, id);
+
 CREATE TABLE tickets
 (
     id       BIGINT GENERATED ALWAYS AS IDENTITY,
@@ -24,9 +32,49 @@ CREATE TABLE tickets
     category VARCHAR(50) NOT NULL
 );
 
+CREATE INDEX tickets_user_id_id_idx ON tickets (user_id, id);
+CREATE INDEX tickets_event_id_id_idx ON tickets (event_id, id);
+
 CREATE TABLE user_accounts
 (
     id      BIGINT GENERATED ALWAYS AS IDENTITY,
     user_id BIGINT,
-    money   DECIMAL(6, 2) NOT NULL
-);
\ No newline at end of file
+    money   DECIMAL(6, 2) NOT NULL,
+    version BIGINT        NOT NULL DEFAULT (0),
+    ledger_txid BIGINT    NOT NULL DEFAULT (0)
+);
+CREATE TABLE waitlist_entries
+(
+    id         BIGINT GENERATED ALWAYS AS IDENTITY,
+    user_id    BIGINT      NOT NULL,
+    event_id   BIGINT      NOT NULL,
+    category   VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX waitlist_entries_event_id_category_id_idx ON waitlist_entries (event_id, category, id);
+
+CREATE TABLE account_ledger_entries
+(
+    id         BIGINT GENERATED ALWAYS AS IDENTITY,
+    user_id    BIGINT        NOT NULL,
+    amount     DECIMAL(6, 2) NOT NULL,
+    kind       VARCHAR(20)   NOT NULL,
+    created_at TIMESTAMP     NOT NULL,
+    txid       BIGINT        NOT NULL DEFAULT txid_current()
+);
+
+CREATE INDEX account_ledger_entries_user_id_txid_idx ON account_ledger_entries (user_id, txid);
+
+CREATE TABLE outbox_events
+(
+    id         BIGINT GENERATED ALWAYS AS IDENTITY,
+    type       VARCHAR(20)   NOT NULL,
+    user_id    BIGINT        NOT NULL,
+    event_id   BIGINT,
+    ticket_id  BIGINT,
+    place      INTEGER,
+    category   VARCHAR(50),
+    amount     DECIMAL(6, 2) NOT NULL,
+    created_at TIMESTAMP     NOT NULL
+);
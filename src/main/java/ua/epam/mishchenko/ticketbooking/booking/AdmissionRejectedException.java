@@ -0,0 +1,33 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+/**
+ * Thrown when a booking is not admitted, because the event is over its booking rate
+ * or too many bookings are already in flight. The booking has not been attempted and can be retried.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    /**
+     * The number of seconds after which the booking is worth retrying.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Instantiates a new Admission rejected exception.
+     *
+     * @param message           the message
+     * @param retryAfterSeconds the number of seconds after which the booking is worth retrying
+     */
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Gets the number of seconds after which the booking is worth retrying.
+     *
+     * @return the retry after seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
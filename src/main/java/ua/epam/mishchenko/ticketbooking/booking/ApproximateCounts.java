@@ -0,0 +1,186 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the totals of the listings for the callers which need a total, while the listings themselves
+ * are read as slices without a count. The first read of a total counts it, the later reads get the cached
+ * total which is counted again in the background every refresh period, so a total may be behind
+ * the listing by up to one period. A total not read for the idle time is forgotten.
+ */
+@Component
+public class ApproximateCounts implements DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(ApproximateCounts.class);
+
+    /**
+     * The max number of cached totals.
+     */
+    private final int maxEntries;
+
+    /**
+     * The time in milliseconds after which a total not read is forgotten.
+     */
+    private final long idleMillis;
+
+    /**
+     * The millisecond clock.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The totals by listing key.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The refresh thread, null if the refresh is not scheduled.
+     */
+    private final ScheduledExecutorService refresher;
+
+    /**
+     * Instantiates new Approximate counts.
+     *
+     * @param refreshMillis the refresh period, the refresh is not scheduled if not positive
+     * @param idleMillis    the idle millis
+     * @param maxEntries    the max entries
+     */
+    @Autowired
+    public ApproximateCounts(@Value("${booking.counts.refresh-millis:30000}") long refreshMillis,
+                             @Value("${booking.counts.idle-millis:600000}") long idleMillis,
+                             @Value("${booking.counts.max-entries:1000}") int maxEntries) {
+        this(idleMillis, maxEntries, System::currentTimeMillis, refreshMillis > 0
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "approximate-counts");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null);
+        if (refresher != null) {
+            refresher.scheduleWithFixedDelay(this::refreshSafely, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Instantiates new Approximate counts.
+     *
+     * @param idleMillis the idle millis
+     * @param maxEntries the max entries
+     * @param clock      the millisecond clock
+     * @param refresher  the refresh thread, null if the refresh is not scheduled
+     */
+    ApproximateCounts(long idleMillis, int maxEntries, LongSupplier clock, ScheduledExecutorService refresher) {
+        this.idleMillis = idleMillis;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clock = clock;
+        this.refresher = refresher;
+    }
+
+    /**
+     * Gets the cached total of the listing, the total is counted if it is not cached.
+     * No total is cached above the max number of totals, the total is counted on every read then.
+     *
+     * @param key     the listing key
+     * @param counter the count query of the listing
+     * @return the total
+     */
+    public long get(String key, LongSupplier counter) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.readAt = now;
+            return entry.total;
+        }
+        long total = counter.getAsLong();
+        if (entries.size() < maxEntries) {
+            entries.putIfAbsent(key, new Entry(counter, total, now));
+        }
+        return total;
+    }
+
+    /**
+     * Counts the cached totals again and forgets the totals not read for the idle time.
+     * A total which fails to be counted keeps its previous value.
+     */
+    public void refresh() {
+        long idleSince = clock.getAsLong() - idleMillis;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (entry.getValue().readAt < idleSince) {
+                iterator.remove();
+                continue;
+            }
+            try {
+                entry.getValue().total = entry.getValue().counter.getAsLong();
+            } catch (RuntimeException e) {
+                log.warn("Can not to count the total of {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Can not to refresh the approximate counts", e);
+        }
+    }
+
+    /**
+     * Forgets the cached totals.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached totals.
+     *
+     * @return the size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * The cached total.
+     */
+    private static final class Entry {
+
+        private final LongSupplier counter;
+
+        private volatile long total;
+
+        private volatile long readAt;
+
+        private Entry(LongSupplier counter, long total, long readAt) {
+            this.counter = counter;
+            this.total = total;
+            this.readAt = readAt;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits the bookings before they reach the database, so a flash sale can not exhaust the connection pool.
+ * Every event has a token bucket refilled at the permitted rate up to the burst, and the number of the bookings
+ * in flight over all the events is bounded. A booking over either limit is rejected at once instead of waiting.
+ */
+@Component
+public class BookingAdmission {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(BookingAdmission.class);
+
+    /**
+     * Whether the bookings are admitted by the limits, every booking is admitted otherwise.
+     */
+    private final boolean enabled;
+
+    /**
+     * The number of tokens added to a bucket per nanosecond.
+     */
+    private final double tokensPerNano;
+
+    /**
+     * The max number of tokens in a bucket.
+     */
+    private final int burst;
+
+    /**
+     * The max number of buckets kept, the full buckets are dropped once there are more.
+     */
+    private final int maxEvents;
+
+    /**
+     * The max number of the bookings in flight.
+     */
+    private final int maxInFlight;
+
+    /**
+     * The permits of the bookings in flight.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * The Booking metrics.
+     */
+    private final BookingMetrics bookingMetrics;
+
+    /**
+     * The nanosecond clock.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The token buckets by event id.
+     */
+    private final ConcurrentMap<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Booking admission.
+     *
+     * @param enabled          whether the bookings are admitted by the limits
+     * @param permitsPerSecond the bookings per second admitted for one event
+     * @param burst            the bookings admitted for one event at once
+     * @param maxInFlight      the max number of the bookings in flight
+     * @param maxEvents        the max number of the events whose buckets are kept
+     * @param bookingMetrics   the booking metrics
+     */
+    @Autowired
+    public BookingAdmission(@Value("${booking.admission.enabled:false}") boolean enabled,
+                            @Value("${booking.admission.permits-per-second:200}") double permitsPerSecond,
+                            @Value("${booking.admission.burst:400}") int burst,
+                            @Value("${booking.admission.max-in-flight:16}") int maxInFlight,
+                            @Value("${booking.admission.max-events:10000}") int maxEvents,
+                            BookingMetrics bookingMetrics) {
+        this(enabled, permitsPerSecond, burst, maxInFlight, maxEvents, bookingMetrics, System::nanoTime);
+        log.info("The booking admission is enabled: {}, {} bookings per second and event, burst {}, " +
+                "max {} bookings in flight", enabled, permitsPerSecond, burst, maxInFlight);
+    }
+
+    /**
+     * Instantiates a new Booking admission.
+     *
+     * @param enabled          whether the bookings are admitted by the limits
+     * @param permitsPerSecond the bookings per second admitted for one event
+     * @param burst            the bookings admitted for one event at once
+     * @param maxInFlight      the max number of the bookings in flight
+     * @param maxEvents        the max number of the events whose buckets are kept
+     * @param bookingMetrics   the booking metrics
+     * @param clock            the nanosecond clock
+     */
+    BookingAdmission(boolean enabled, double permitsPerSecond, int burst, int maxInFlight, int maxEvents,
+                     BookingMetrics bookingMetrics, LongSupplier clock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("The permits per second must be positive: " + permitsPerSecond);
+        }
+        this.enabled = enabled;
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.maxEvents = Math.max(1, maxEvents);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.bookingMetrics = bookingMetrics;
+        this.clock = clock;
+    }
+
+    /**
+     * Admits a booking of the event, the caller must release it once the booking is done.
+     *
+     * @param eventId the event id
+     * @throws AdmissionRejectedException if the booking is not admitted
+     */
+    public void acquire(long eventId) {
+        if (!enabled) {
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            bookingMetrics.countRejected(false);
+            throw new AdmissionRejectedException("Too many bookings in flight, try again", 1);
+        }
+        long now = clock.getAsLong();
+        long waitNanos = getBucket(eventId, now).tryTake(now);
+        if (waitNanos > 0) {
+            inFlight.release();
+            bookingMetrics.countRejected(true);
+            throw new AdmissionRejectedException("Too many bookings of the event with id " + eventId +
+                    ", try again", toRetryAfterSeconds(waitNanos));
+        }
+        bookingMetrics.countAdmitted();
+    }
+
+    private long toRetryAfterSeconds(long waitNanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (waitNanos + second - 1) / second);
+    }
+
+    /**
+     * Releases an admitted booking.
+     */
+    public void release() {
+        if (enabled) {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Gets the number of the bookings in flight.
+     *
+     * @return the in flight
+     */
+    public int getInFlight() {
+        return enabled ? maxInFlight - inFlight.availablePermits() : 0;
+    }
+
+    private TokenBucket getBucket(long eventId, long now) {
+        TokenBucket bucket = buckets.get(eventId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxEvents) {
+            buckets.values().removeIf(idle -> idle.isFull(now));
+        }
+        return buckets.computeIfAbsent(eventId, id -> new TokenBucket(now));
+    }
+
+    /**
+     * The tokens of one event.
+     */
+    private final class TokenBucket {
+
+        private double tokens;
+
+        private long refilledAt;
+
+        private TokenBucket(long now) {
+            this.tokens = burst;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Takes a token.
+         *
+         * @param now the nano time
+         * @return 0 if the token has been taken, the nanoseconds until the next token otherwise
+         */
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
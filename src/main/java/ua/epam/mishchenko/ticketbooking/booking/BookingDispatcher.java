@@ -0,0 +1,252 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches the bookings onto a fixed pool of single-threaded lanes by event id.
+ * All bookings of one event are serialized in memory, so they do not contend on the same rows in the database,
+ * while bookings of different events proceed in parallel.
+ * Every lane queues at most the max number of bookings and a booking waits in the queue at most the timeout,
+ * a booking which is rejected by a full lane or is still queued after the timeout fails without being run.
+ */
+@Component
+public class BookingDispatcher implements DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(BookingDispatcher.class);
+
+    /**
+     * The number of lanes.
+     */
+    private final int laneCount;
+
+    /**
+     * The max number of bookings waiting on one lane.
+     */
+    private final int queueCapacity;
+
+    /**
+     * The max time a booking waits on its lane before it runs in nanoseconds.
+     */
+    private final long timeoutNanos;
+
+    /**
+     * The single-threaded lanes, started once the dispatcher is enabled.
+     */
+    private volatile ExecutorService[] lanes;
+
+    /**
+     * The index of the lane the current thread belongs to.
+     */
+    private final ThreadLocal<Integer> currentLane = new ThreadLocal<>();
+
+    /**
+     * Whether the bookings are dispatched onto the lanes.
+     */
+    private volatile boolean enabled;
+
+    /**
+     * Instantiates a new Booking dispatcher.
+     *
+     * @param enabled       whether the bookings are dispatched onto the lanes
+     * @param laneCount     the number of lanes, the number of processors if not positive
+     * @param queueCapacity the max number of bookings waiting on one lane
+     * @param timeoutMillis the max time a booking waits on its lane before it runs
+     */
+    public BookingDispatcher(@Value("${booking.dispatcher.enabled:false}") boolean enabled,
+                             @Value("${booking.dispatcher.lanes:0}") int laneCount,
+                             @Value("${booking.dispatcher.queue-capacity:1000}") int queueCapacity,
+                             @Value("${booking.dispatcher.timeout-millis:5000}") long timeoutMillis) {
+        this.laneCount = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+        this.enabled = enabled;
+        if (enabled) {
+            startLanes();
+        }
+        log.info("The booking dispatcher has {} lanes, enabled: {}", this.laneCount, enabled);
+    }
+
+    /**
+     * Starts the lanes if they have not been started yet.
+     *
+     * @return the lanes
+     */
+    private synchronized ExecutorService[] startLanes() {
+        if (lanes == null) {
+            ExecutorService[] started = new ExecutorService[laneCount];
+            for (int i = 0; i < laneCount; i++) {
+                int index = i;
+                started[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(() -> {
+                        currentLane.set(index);
+                        runnable.run();
+                    }, "booking-lane-" + index);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            lanes = started;
+        }
+        return lanes;
+    }
+
+    /**
+     * Runs the booking on the lane of the event and waits for its result.
+     * The booking runs on the calling thread if the thread already is the lane of the event.
+     * Once the booking has started it is waited for until it finishes, so a booking is never reported
+     * as failed while it still can succeed.
+     *
+     * @param <T>     the type of the result
+     * @param eventId the event id
+     * @param booking the booking
+     * @param failed  the result of a booking rejected by a full lane or timed out on it
+     * @return the result of the booking
+     */
+    public <T> T dispatch(long eventId, Supplier<T> booking, T failed) {
+        int lane = getLane(eventId);
+        Integer current = currentLane.get();
+        if (current != null && current == lane) {
+            return booking.get();
+        }
+        ExecutorService[] started = lanes;
+        if (started == null) {
+            started = startLanes();
+        }
+        LaneBooking<T> laneBooking = new LaneBooking<>(booking);
+        Future<T> future;
+        try {
+            future = started[lane].submit(laneBooking);
+        } catch (RejectedExecutionException e) {
+            log.warn("Can not to book on the lane {} of event with id {}, the lane is full", lane, eventId);
+            return failed;
+        }
+        try {
+            try {
+                return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (laneBooking.skip()) {
+                    log.warn("Can not to book on the lane {} of event with id {}, the booking has waited too long",
+                            lane, eventId);
+                    return failed;
+                }
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the booking of event with id " + eventId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Gets the lane of the event, the id is mixed so sequential ids spread evenly.
+     *
+     * @param eventId the event id
+     * @return the lane
+     */
+    int getLane(long eventId) {
+        long hash = eventId * 0x9E3779B97F4A7C15L;
+        return (int) ((hash >>> 32) % laneCount);
+    }
+
+    /**
+     * Gets the number of lanes.
+     *
+     * @return the number of lanes
+     */
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    /**
+     * Is enabled boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets enabled, the lanes are started when the dispatcher is enabled for the first time.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled) {
+            startLanes();
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stops the lanes if they have been started.
+     */
+    @Override
+    public synchronized void destroy() {
+        if (lanes == null) {
+            return;
+        }
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    /**
+     * The booking waiting on a lane, it is run by the lane unless the caller has skipped it first.
+     *
+     * @param <T> the type of the result
+     */
+    private static final class LaneBooking<T> implements Callable<T> {
+
+        private final Supplier<T> booking;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private LaneBooking(Supplier<T> booking) {
+            this.booking = booking;
+        }
+
+        @Override
+        public T call() {
+            return claimed.compareAndSet(false, true) ? booking.get() : null;
+        }
+
+        /**
+         * Skips the booking unless the lane has started it.
+         *
+         * @return whether the booking has been skipped
+         */
+        private boolean skip() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
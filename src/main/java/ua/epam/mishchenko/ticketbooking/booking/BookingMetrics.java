@@ -0,0 +1,161 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latency histograms of the booking stages in nanoseconds, the counters of the booking outcomes
+ * and the counters of the admitted and rejected bookings.
+ */
+@Component
+public class BookingMetrics {
+
+    /**
+     * The histograms by stage.
+     */
+    private final Map<BookingStage, LatencyHistogram> histograms = new EnumMap<>(BookingStage.class);
+
+    /**
+     * The number of booked tickets.
+     */
+    private final LongAdder succeeded = new LongAdder();
+
+    /**
+     * The number of failed bookings.
+     */
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * The number of admitted bookings.
+     */
+    private final LongAdder admitted = new LongAdder();
+
+    /**
+     * The number of bookings rejected by the rate of their event.
+     */
+    private final LongAdder rejectedByRate = new LongAdder();
+
+    /**
+     * The number of bookings rejected by the number of bookings in flight.
+     */
+    private final LongAdder rejectedByInFlight = new LongAdder();
+
+    /**
+     * Instantiates a new Booking metrics.
+     */
+    public BookingMetrics() {
+        for (BookingStage stage : BookingStage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Records the time elapsed since the start of the stage.
+     *
+     * @param stage      the stage
+     * @param startNanos the nano time the stage has started at
+     * @return the nano time the stage has ended at, the start of the next stage
+     */
+    public long record(BookingStage stage, long startNanos) {
+        long now = System.nanoTime();
+        histograms.get(stage).record(now - startNanos);
+        return now;
+    }
+
+    /**
+     * Counts the outcome of a booking.
+     *
+     * @param booked whether the ticket has been booked
+     */
+    public void count(boolean booked) {
+        if (booked) {
+            succeeded.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Counts an admitted booking.
+     */
+    public void countAdmitted() {
+        admitted.increment();
+    }
+
+    /**
+     * Counts a rejected booking.
+     *
+     * @param byRate whether the booking has been rejected by the rate of its event
+     */
+    public void countRejected(boolean byRate) {
+        if (byRate) {
+            rejectedByRate.increment();
+        } else {
+            rejectedByInFlight.increment();
+        }
+    }
+
+    /**
+     * Gets histogram.
+     *
+     * @param stage the stage
+     * @return the histogram
+     */
+    public LatencyHistogram getHistogram(BookingStage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Gets the summary of every stage in microseconds with the counters of the outcomes and the admission.
+     *
+     * @return the summary
+     */
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("succeeded", succeeded.sum());
+        summary.put("failed", failed.sum());
+        Map<String, Object> admission = new LinkedHashMap<>();
+        admission.put("admitted", admitted.sum());
+        admission.put("rejectedByRate", rejectedByRate.sum());
+        admission.put("rejectedByInFlight", rejectedByInFlight.sum());
+        summary.put("admission", admission);
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (Map.Entry<BookingStage, LatencyHistogram> histogram : histograms.entrySet()) {
+            stages.put(histogram.getKey().name(), summarize(histogram.getValue()));
+        }
+        summary.put("stagesMicros", stages);
+        return summary;
+    }
+
+    private Map<String, Object> summarize(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("p50", toMicros(histogram.getValueAtPercentile(50)));
+        summary.put("p99", toMicros(histogram.getValueAtPercentile(99)));
+        summary.put("p999", toMicros(histogram.getValueAtPercentile(99.9)));
+        summary.put("max", toMicros(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private double toMicros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    /**
+     * Resets the histograms and the counters.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        succeeded.reset();
+        failed.reset();
+        admitted.reset();
+        rejectedByRate.reset();
+        rejectedByInFlight.reset();
+    }
+}
@@ -0,0 +1,18 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+/**
+ * The concurrency control used by the booking transactions.
+ */
+public enum BookingMode {
+
+    /**
+     * Every booking runs under SERIALIZABLE isolation, a conflict fails the booking.
+     */
+    SERIALIZABLE,
+
+    /**
+     * Every booking runs under READ COMMITTED isolation and relies on the conditional debit of the user account
+     * and the unique place constraint, a conflict is retried.
+     */
+    OPTIMISTIC
+}
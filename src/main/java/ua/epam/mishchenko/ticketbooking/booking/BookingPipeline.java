@@ -0,0 +1,219 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.epam.mishchenko.ticketbooking.dto.BookingRequest;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.service.TicketService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the bookings into micro-batches and books every batch in one transaction.
+ * A batch is closed once it has the max number of bookings or its first booking has waited for the max delay,
+ * so a booking waits at most the max delay plus the time of one batch.
+ */
+@Component
+public class BookingPipeline implements DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(BookingPipeline.class);
+
+    /**
+     * The ticket service.
+     */
+    private final TicketService ticketService;
+
+    /**
+     * The max number of bookings in one batch.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The max time the first booking of a batch waits for other bookings in nanoseconds.
+     */
+    private final long maxDelayNanos;
+
+    /**
+     * The bookings waiting for a batch.
+     */
+    private final BlockingQueue<PendingBooking> queue;
+
+    /**
+     * The thread collecting and booking the batches, started once the pipeline is enabled.
+     */
+    private volatile Thread worker;
+
+    /**
+     * Whether the bookings are sent through the pipeline.
+     */
+    private volatile boolean enabled;
+
+    /**
+     * Whether the worker keeps running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Booking pipeline.
+     *
+     * @param ticketService  the ticket service
+     * @param enabled        whether the bookings are sent through the pipeline
+     * @param maxBatchSize   the max batch size
+     * @param maxDelayMillis the max delay millis
+     * @param queueCapacity  the max number of bookings waiting for a batch
+     */
+    public BookingPipeline(TicketService ticketService,
+                           @Value("${booking.pipeline.enabled:false}") boolean enabled,
+                           @Value("${booking.pipeline.max-batch-size:64}") int maxBatchSize,
+                           @Value("${booking.pipeline.max-delay-millis:5}") long maxDelayMillis,
+                           @Value("${booking.pipeline.queue-capacity:10000}") int queueCapacity) {
+        this.ticketService = ticketService;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMillis));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (enabled) {
+            startWorker();
+        }
+    }
+
+    /**
+     * Starts the worker if it has not been started yet and the pipeline has not been stopped.
+     */
+    private synchronized void startWorker() {
+        if (worker == null && running) {
+            Thread thread = new Thread(this::run, "booking-pipeline");
+            thread.setDaemon(true);
+            thread.start();
+            worker = thread;
+        }
+    }
+
+    /**
+     * Submits the booking to the next batch.
+     *
+     * @param request the booking request
+     * @return the future of the booked ticket, completed with null if the ticket has not been booked
+     */
+    public CompletableFuture<Ticket> submit(BookingRequest request) {
+        if (worker == null) {
+            startWorker();
+        }
+        PendingBooking booking = new PendingBooking(request);
+        if (!running || !queue.offer(booking)) {
+            log.warn("Can not to book a ticket {}, the booking pipeline is full", request);
+            booking.future.complete(null);
+        }
+        return booking.future;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                PendingBooking first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    book(collectBatch(first));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<PendingBooking> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (PendingBooking booking : rest) {
+            booking.future.complete(null);
+        }
+    }
+
+    private List<PendingBooking> collectBatch(PendingBooking first) throws InterruptedException {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingBooking next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void book(List<PendingBooking> batch) {
+        List<BookingRequest> requests = new ArrayList<>(batch.size());
+        for (PendingBooking booking : batch) {
+            requests.add(booking.request);
+        }
+        try {
+            List<Ticket> tickets = ticketService.bookTicketBatch(requests);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(tickets.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Can not to book the batch of {} tickets", batch.size(), e);
+            for (PendingBooking booking : batch) {
+                booking.future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Is enabled boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets enabled, the worker is started when the pipeline is enabled for the first time.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled) {
+            startWorker();
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stops the worker, the bookings still waiting for a batch are completed with null.
+     */
+    @Override
+    public synchronized void destroy() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * The booking waiting for its batch.
+     */
+    private static final class PendingBooking {
+
+        private final BookingRequest request;
+
+        private final CompletableFuture<Ticket> future = new CompletableFuture<>();
+
+        private PendingBooking(BookingRequest request) {
+            this.request = request;
+        }
+    }
+}
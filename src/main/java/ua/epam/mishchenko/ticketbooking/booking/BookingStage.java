@@ -0,0 +1,37 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+/**
+ * The stages of a booking whose latency is measured.
+ */
+public enum BookingStage {
+
+    /**
+     * The check of the place against the seat availability bitmap and the seat holds.
+     */
+    SEAT_CHECK,
+
+    /**
+     * The read of the user account, the event and the taken places.
+     */
+    SNAPSHOT,
+
+    /**
+     * The debit of the user account.
+     */
+    DEBIT,
+
+    /**
+     * The insert of the ticket.
+     */
+    INSERT,
+
+    /**
+     * The commit of the booking transaction.
+     */
+    COMMIT,
+
+    /**
+     * The whole booking as seen by the facade.
+     */
+    FACADE
+}
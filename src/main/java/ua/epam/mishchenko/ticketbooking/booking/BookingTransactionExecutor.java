@@ -0,0 +1,143 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs booking transactions with the configured {@link BookingMode}, the mode is fixed for the life of the executor.
+ */
+@Component
+public class BookingTransactionExecutor {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(BookingTransactionExecutor.class);
+
+    /**
+     * The serializable transaction template.
+     */
+    private final TransactionTemplate serializableTemplate;
+
+    /**
+     * The read committed transaction template.
+     */
+    private final TransactionTemplate readCommittedTemplate;
+
+    /**
+     * The max number of attempts of one booking in the optimistic mode.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The base backoff between two attempts in milliseconds.
+     */
+    private final long backoffMillis;
+
+    /**
+     * The booking mode.
+     */
+    private final BookingMode mode;
+
+    /**
+     * The number of the retried attempts.
+     */
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * Instantiates a new Booking transaction executor.
+     *
+     * @param transactionManager the transaction manager
+     * @param mode               the booking mode
+     * @param maxAttempts        the max attempts
+     * @param backoffMillis      the backoff millis
+     */
+    public BookingTransactionExecutor(PlatformTransactionManager transactionManager,
+                                      @Value("${booking.mode:SERIALIZABLE}") BookingMode mode,
+                                      @Value("${booking.optimistic.max-attempts:5}") int maxAttempts,
+                                      @Value("${booking.optimistic.backoff-millis:5}") long backoffMillis) {
+        this.serializableTemplate = createTemplate(transactionManager, TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.readCommittedTemplate = createTemplate(transactionManager, TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.mode = mode;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = Math.max(0, backoffMillis);
+    }
+
+    private static TransactionTemplate createTemplate(PlatformTransactionManager transactionManager, int isolation) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setIsolationLevel(isolation);
+        return template;
+    }
+
+    /**
+     * Executes the action in a booking transaction.
+     * The transaction is rolled back if the action throws a runtime exception, the exception is rethrown.
+     *
+     * @param <T>    the type of the result
+     * @param action the action
+     * @return the result of the action
+     */
+    public <T> T execute(TransactionCallback<T> action) {
+        if (mode == BookingMode.SERIALIZABLE) {
+            return serializableTemplate.execute(action);
+        }
+        return executeWithRetry(action);
+    }
+
+    private <T> T executeWithRetry(TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return readCommittedTemplate.execute(action);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("The booking transaction failed after {} attempts", attempt);
+                    throw e;
+                }
+                log.debug("The booking transaction conflicted on attempt {}, retrying", attempt);
+                retries.increment();
+                pause(attempt, e);
+            }
+        }
+    }
+
+    private void pause(int attempt, ConcurrencyFailureException cause) {
+        long bound = backoffMillis << Math.min(attempt - 1, 10);
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    /**
+     * Gets the number of the attempts retried after a conflict since the start.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets mode.
+     *
+     * @return the mode
+     */
+    public BookingMode getMode() {
+        return mode;
+    }
+}
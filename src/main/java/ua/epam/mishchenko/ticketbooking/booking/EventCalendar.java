@@ -0,0 +1,200 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The calendar of the upcoming events, the sorted ids of the events of every day from the first day
+ * over the given number of days. A day is read without a lock, its ids are replaced by a copy on every change,
+ * so a reader always gets a consistent day. The events outside of the days are not kept.
+ */
+public class EventCalendar {
+
+    private static final long[] NO_EVENTS = new long[0];
+
+    /**
+     * The first day.
+     */
+    private final LocalDate firstDay;
+
+    /**
+     * The day after the last one.
+     */
+    private final LocalDate endDay;
+
+    /**
+     * The time zone of the days.
+     */
+    private final ZoneId zone;
+
+    /**
+     * The moment the calendar has been built at in milliseconds.
+     */
+    private final long builtAt;
+
+    /**
+     * The sorted event ids by day.
+     */
+    private final Map<LocalDate, long[]> eventIdsByDay = new ConcurrentHashMap<>();
+
+    /**
+     * The days by event id, written under the lock of the calendar.
+     */
+    private final Map<Long, LocalDate> dayByEventId = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new empty Event calendar.
+     *
+     * @param firstDay the first day
+     * @param days     the number of days
+     * @param zone     the time zone of the days
+     * @param builtAt  the moment the calendar is built at in milliseconds
+     */
+    public EventCalendar(LocalDate firstDay, int days, ZoneId zone, long builtAt) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("The number of days must be positive: " + days);
+        }
+        this.firstDay = firstDay;
+        this.endDay = firstDay.plusDays(days);
+        this.zone = zone;
+        this.builtAt = builtAt;
+    }
+
+    /**
+     * Gets the day of the date in the time zone of the calendar.
+     *
+     * @param date the date
+     * @return the day
+     */
+    public LocalDate toDay(Date date) {
+        return toDay(date, zone);
+    }
+
+    /**
+     * Gets the day of the date in the time zone.
+     *
+     * @param date the date
+     * @param zone the time zone
+     * @return the day
+     */
+    public static LocalDate toDay(Date date, ZoneId zone) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(zone).toLocalDate();
+    }
+
+    /**
+     * Gets the start of the day in the time zone of the calendar.
+     *
+     * @param day the day
+     * @return the start of the day
+     */
+    public Date startOf(LocalDate day) {
+        return startOf(day, zone);
+    }
+
+    /**
+     * Gets the start of the day in the time zone.
+     *
+     * @param day  the day
+     * @param zone the time zone
+     * @return the start of the day
+     */
+    public static Date startOf(LocalDate day, ZoneId zone) {
+        return Date.from(day.atStartOfDay(zone).toInstant());
+    }
+
+    /**
+     * Checks whether the day is kept by the calendar.
+     *
+     * @param day the day
+     * @return the boolean
+     */
+    public boolean covers(LocalDate day) {
+        return !day.isBefore(firstDay) && day.isBefore(endDay);
+    }
+
+    /**
+     * Adds the event or moves it to the day of its date, an event on a day not kept by the calendar is removed.
+     *
+     * @param eventId the event id
+     * @param date    the date of the event
+     */
+    public synchronized void add(long eventId, Date date) {
+        remove(eventId);
+        LocalDate day = toDay(date);
+        if (!covers(day)) {
+            return;
+        }
+        long[] eventIds = eventIdsByDay.getOrDefault(day, NO_EVENTS);
+        int index = -Arrays.binarySearch(eventIds, eventId) - 1;
+        long[] added = new long[eventIds.length + 1];
+        System.arraycopy(eventIds, 0, added, 0, index);
+        added[index] = eventId;
+        System.arraycopy(eventIds, index, added, index + 1, eventIds.length - index);
+        eventIdsByDay.put(day, added);
+        dayByEventId.put(eventId, day);
+    }
+
+    /**
+     * Removes the event.
+     *
+     * @param eventId the event id
+     */
+    public synchronized void remove(long eventId) {
+        LocalDate day = dayByEventId.remove(eventId);
+        if (day == null) {
+            return;
+        }
+        long[] eventIds = eventIdsByDay.get(day);
+        int index = Arrays.binarySearch(eventIds, eventId);
+        if (eventIds.length == 1) {
+            eventIdsByDay.remove(day);
+            return;
+        }
+        long[] removed = new long[eventIds.length - 1];
+        System.arraycopy(eventIds, 0, removed, 0, index);
+        System.arraycopy(eventIds, index + 1, removed, index, removed.length - index);
+        eventIdsByDay.put(day, removed);
+    }
+
+    /**
+     * Gets the sorted ids of the events of the day, the array must not be modified.
+     *
+     * @param day the day kept by the calendar
+     * @return the event ids
+     */
+    public long[] getEventIds(LocalDate day) {
+        return eventIdsByDay.getOrDefault(day, NO_EVENTS);
+    }
+
+    /**
+     * Gets the first day.
+     *
+     * @return the first day
+     */
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * Gets the day after the last one.
+     *
+     * @return the end day
+     */
+    public LocalDate getEndDay() {
+        return endDay;
+    }
+
+    /**
+     * Gets the moment the calendar has been built at.
+     *
+     * @return the milliseconds
+     */
+    public long getBuiltAt() {
+        return builtAt;
+    }
+}
@@ -0,0 +1,68 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the outbox events to a local file, one JSON document per line.
+ * A batch is written and flushed with one write, so a failed batch is retried as a whole.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.outbox.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    /**
+     * The Object mapper.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The file path.
+     */
+    private final Path path;
+
+    /**
+     * Instantiates a new File outbox sink.
+     *
+     * @param objectMapper the object mapper
+     * @param path         the file path
+     */
+    public FileOutboxSink(ObjectMapper objectMapper, @Value("${booking.outbox.file.path}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Publish.
+     *
+     * @param events the events
+     */
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (OutboxEvent event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(lines.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not to write the outbox events to " + path, e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the results of the requests by their idempotency keys, so a retried request gets the original result
+ * without running the request again. A retry arriving while the original request still runs waits for its result,
+ * or gets the exception the original request has thrown.
+ * Only the successful results are remembered, a request which has failed, by a null result or an exception,
+ * is forgotten, so a retry of a transient failure runs the request again.
+ * The store keeps at most the max number of keys and forgets a key once its time to live has passed.
+ */
+@Component
+public class IdempotencyStore {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    /**
+     * The max number of remembered keys.
+     */
+    private final int maxEntries;
+
+    /**
+     * The time to live of a key in milliseconds.
+     */
+    private final long ttlMillis;
+
+    /**
+     * The millisecond clock.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The entries in the order of their creation, so the oldest ones are evicted first.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Instantiates a new Idempotency store.
+     *
+     * @param maxEntries the max entries
+     * @param ttlMillis  the ttl millis
+     */
+    @Autowired
+    public IdempotencyStore(@Value("${booking.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${booking.idempotency.ttl-millis:86400000}") long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Instantiates a new Idempotency store.
+     *
+     * @param maxEntries the max entries
+     * @param ttlMillis  the ttl millis
+     * @param clock      the millisecond clock
+     */
+    IdempotencyStore(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the request once per idempotency key and returns its result to every request with the same key.
+     * A request which returns null or throws an exception is forgotten, so it can be retried.
+     *
+     * @param <T>         the type of the result
+     * @param key         the idempotency key
+     * @param fingerprint the parameters of the request, a key can not be reused with other parameters
+     * @param request     the request
+     * @return the result of the request
+     * @throws IllegalArgumentException if the key has been used with other parameters
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String fingerprint, Supplier<T> request) {
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            evictExpired();
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(fingerprint, clock.getAsLong() + ttlMillis);
+                entries.put(key, entry);
+                evictOverflow();
+                owner = true;
+            }
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IllegalArgumentException("The idempotency key " + key + " has been used for another request");
+        }
+        if (!owner) {
+            log.info("Replaying the result of the request with idempotency key {}", key);
+            return (T) await(entry);
+        }
+        try {
+            T result = request.get();
+            if (result == null) {
+                forget(key, entry);
+            }
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            forget(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void forget(String key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private void evictExpired() {
+        long now = clock.getAsLong();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt > now) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Gets the number of remembered keys.
+     *
+     * @return the size
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * The remembered request.
+     */
+    private static final class Entry {
+
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The log-linear latency histogram in the manner of HdrHistogram.
+ * The values below 128 have a bucket each, above that every power of two is split into 64 buckets,
+ * so a percentile is reported with a relative error below 1.6%. Recording is lock-free and allocation-free.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of the exact buckets, the values below are counted exactly.
+     */
+    private static final int SUB_BUCKET_COUNT = 128;
+
+    /**
+     * The number of buckets per power of two above the exact buckets.
+     */
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+    /**
+     * The number of bits of the exact buckets minus one.
+     */
+    private static final int SUB_BUCKET_SHIFT = 6;
+
+    /**
+     * The counts by bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKET_COUNT + 56 * HALF_SUB_BUCKET_COUNT);
+
+    /**
+     * The total count.
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * The max recorded value.
+     */
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records the value, negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        long nonNegative = Math.max(0, value);
+        counts.incrementAndGet(indexOf(nonNegative));
+        totalCount.incrementAndGet();
+        long max = maxValue.get();
+        while (nonNegative > max && !maxValue.compareAndSet(max, nonNegative)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Gets the value at the percentile, the highest value equivalent to the bucket of the percentile.
+     *
+     * @param percentile the percentile from 0 to 100
+     * @return the value at the percentile, 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    /**
+     * Gets total count.
+     *
+     * @return the total count
+     */
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Gets max value.
+     *
+     * @return the max value
+     */
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * Resets the histogram, the values recorded concurrently may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        maxValue.set(0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_SHIFT;
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT
+                + (int) (value >>> shift) - HALF_SUB_BUCKET_COUNT;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,38 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Publishes the outbox events to the in-JVM listeners of {@link OutboxEvent} as application events.
+ */
+@Component
+public class ListenerOutboxSink implements OutboxSink {
+
+    /**
+     * The Event publisher.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Instantiates a new Listener outbox sink.
+     *
+     * @param eventPublisher the event publisher
+     */
+    public ListenerOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Publish.
+     *
+     * @param events the events
+     */
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
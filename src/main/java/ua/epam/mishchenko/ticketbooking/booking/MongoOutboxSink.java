@@ -0,0 +1,59 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Writes the outbox events to a Mongo collection with one bulk operation per batch.
+ * The events are upserted by their id, so a batch published again does not duplicate them.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.outbox.mongo.enabled", havingValue = "true")
+public class MongoOutboxSink implements OutboxSink {
+
+    /**
+     * The Mongo template.
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * The collection name.
+     */
+    private final String collection;
+
+    /**
+     * Instantiates a new Mongo outbox sink.
+     *
+     * @param mongoTemplate the mongo template
+     * @param collection    the collection name
+     */
+    public MongoOutboxSink(MongoTemplate mongoTemplate,
+                           @Value("${booking.outbox.mongo.collection:booking_events}") String collection) {
+        this.mongoTemplate = mongoTemplate;
+        this.collection = collection;
+    }
+
+    /**
+     * Publish.
+     *
+     * @param events the events
+     */
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, collection);
+        for (OutboxEvent event : events) {
+            operations.replaceOne(Query.query(Criteria.where("_id").is(event.getId())), event,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        operations.execute();
+    }
+}
@@ -0,0 +1,20 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import ua.epam.mishchenko.ticketbooking.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * A destination the outbox relay publishes the events to.
+ * The events are delivered at least once: a batch is published again if a sink fails or the relay stops
+ * before deleting it, so a sink should tolerate an event it has already seen, the event id is unique.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes the events, a failure is signalled by a runtime exception.
+     *
+     * @param events the events in the order they have been written
+     */
+    void publish(List<OutboxEvent> events);
+}
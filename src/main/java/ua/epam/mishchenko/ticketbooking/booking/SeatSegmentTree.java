@@ -0,0 +1,164 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+/**
+ * The segment tree over a row of seats, every node keeps the longest run of free seats in its range
+ * together with the free runs touching its borders. Marking a seat and finding the leftmost run of
+ * the given length both take O(log n). Not thread-safe.
+ */
+public class SeatSegmentTree {
+
+    /**
+     * The number of seats.
+     */
+    private final int size;
+
+    /**
+     * The lengths of the free runs starting at the left border of the nodes.
+     */
+    private final int[] prefix;
+
+    /**
+     * The lengths of the free runs ending at the right border of the nodes.
+     */
+    private final int[] suffix;
+
+    /**
+     * The lengths of the longest free runs of the nodes.
+     */
+    private final int[] longest;
+
+    /**
+     * Instantiates a new Seat segment tree with all the seats free.
+     *
+     * @param size the number of seats
+     */
+    public SeatSegmentTree(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The number of seats must be positive: " + size);
+        }
+        this.size = size;
+        this.prefix = new int[4 * size];
+        this.suffix = new int[4 * size];
+        this.longest = new int[4 * size];
+        build(1, 0, size - 1);
+    }
+
+    private void build(int node, int left, int right) {
+        int length = right - left + 1;
+        prefix[node] = length;
+        suffix[node] = length;
+        longest[node] = length;
+        if (left < right) {
+            int middle = (left + right) >>> 1;
+            build(2 * node, left, middle);
+            build(2 * node + 1, middle + 1, right);
+        }
+    }
+
+    /**
+     * Gets the number of seats.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Marks the seat free or taken.
+     *
+     * @param index the seat index from 0
+     * @param free  whether the seat is free
+     */
+    public void set(int index, boolean free) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Seat index: " + index + ", size: " + size);
+        }
+        set(1, 0, size - 1, index, free ? 1 : 0);
+    }
+
+    private void set(int node, int left, int right, int index, int free) {
+        if (left == right) {
+            prefix[node] = free;
+            suffix[node] = free;
+            longest[node] = free;
+            return;
+        }
+        int middle = (left + right) >>> 1;
+        if (index <= middle) {
+            set(2 * node, left, middle, index, free);
+        } else {
+            set(2 * node + 1, middle + 1, right, index, free);
+        }
+        int leftChild = 2 * node;
+        int rightChild = 2 * node + 1;
+        int leftLength = middle - left + 1;
+        int rightLength = right - middle;
+        prefix[node] = prefix[leftChild] == leftLength ? leftLength + prefix[rightChild] : prefix[leftChild];
+        suffix[node] = suffix[rightChild] == rightLength ? rightLength + suffix[leftChild] : suffix[rightChild];
+        longest[node] = Math.max(Math.max(longest[leftChild], longest[rightChild]),
+                suffix[leftChild] + prefix[rightChild]);
+    }
+
+    /**
+     * Checks whether the seat is free.
+     *
+     * @param index the seat index from 0
+     * @return the boolean
+     */
+    public boolean isFree(int index) {
+        int node = 1;
+        int left = 0;
+        int right = size - 1;
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            if (index <= middle) {
+                node = 2 * node;
+                right = middle;
+            } else {
+                node = 2 * node + 1;
+                left = middle + 1;
+            }
+        }
+        return longest[node] == 1;
+    }
+
+    /**
+     * Gets the length of the longest run of free seats.
+     *
+     * @return the longest run
+     */
+    public int getLongestRun() {
+        return longest[1];
+    }
+
+    /**
+     * Finds the leftmost run of free seats of the length.
+     *
+     * @param length the length of the run
+     * @return the index of the first seat of the run, -1 if there is no such run
+     */
+    public int findFirstRun(int length) {
+        if (length <= 0 || longest[1] < length) {
+            return -1;
+        }
+        int node = 1;
+        int left = 0;
+        int right = size - 1;
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            int leftChild = 2 * node;
+            int rightChild = 2 * node + 1;
+            if (longest[leftChild] >= length) {
+                node = leftChild;
+                right = middle;
+            } else if (suffix[leftChild] + prefix[rightChild] >= length) {
+                return middle - suffix[leftChild] + 1;
+            } else {
+                node = rightChild;
+                left = middle + 1;
+            }
+        }
+        return left;
+    }
+}
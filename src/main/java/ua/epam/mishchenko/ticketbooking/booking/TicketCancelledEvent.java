@@ -0,0 +1,78 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+
+/**
+ * Published once a ticket has been cancelled and its place is free again.
+ */
+public class TicketCancelledEvent {
+
+    /**
+     * The Event id.
+     */
+    private final long eventId;
+
+    /**
+     * The Place.
+     */
+    private final int place;
+
+    /**
+     * The Category.
+     */
+    private final Category category;
+
+    /**
+     * Instantiates a new Ticket cancelled event.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    public TicketCancelledEvent(long eventId, int place, Category category) {
+        this.eventId = eventId;
+        this.place = place;
+        this.category = category;
+    }
+
+    /**
+     * Gets event id.
+     *
+     * @return the event id
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets place.
+     *
+     * @return the place
+     */
+    public int getPlace() {
+        return place;
+    }
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'eventId' : " + eventId +
+                ", 'place' : " + place +
+                ", 'category' : '" + category +
+                "'}";
+    }
+}
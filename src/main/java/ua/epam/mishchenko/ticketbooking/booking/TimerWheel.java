@@ -0,0 +1,199 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The hashed timer wheel.
+ * Scheduling only appends to a lock-free queue, the buckets are owned by the single thread advancing the wheel,
+ * so a task costs O(1) to schedule and to expire whatever the number of pending tasks is.
+ * A task runs on the first tick at or after its deadline.
+ */
+public class TimerWheel implements AutoCloseable {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    /**
+     * The duration of one tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The buckets, one per tick of a round.
+     */
+    private final List<LinkedList<Timeout>> buckets;
+
+    /**
+     * The mask of the bucket index, the number of buckets is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * The tasks scheduled since the last tick.
+     */
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The nano time clock.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The nano time the wheel has started at.
+     */
+    private final long startNanos;
+
+    /**
+     * The thread advancing the wheel, null if the wheel is advanced manually.
+     */
+    private final ScheduledExecutorService worker;
+
+    /**
+     * The next tick to expire, only accessed by the thread advancing the wheel.
+     */
+    private long tick;
+
+    /**
+     * Instantiates a new Timer wheel advanced by its own daemon thread.
+     *
+     * @param name       the name of the thread
+     * @param tickMillis the tick millis
+     * @param wheelSize  the number of buckets, rounded up to a power of two
+     */
+    public TimerWheel(String name, long tickMillis, int wheelSize) {
+        this(tickMillis, wheelSize, System::nanoTime, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        }));
+        worker.scheduleAtFixedRate(this::advanceSafely, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Instantiates a new Timer wheel which is advanced manually.
+     *
+     * @param tickMillis the tick millis
+     * @param wheelSize  the number of buckets, rounded up to a power of two
+     * @param clock      the nano time clock
+     */
+    TimerWheel(long tickMillis, int wheelSize, LongSupplier clock) {
+        this(tickMillis, wheelSize, clock, null);
+    }
+
+    private TimerWheel(long tickMillis, int wheelSize, LongSupplier clock, ScheduledExecutorService worker) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("The tick must be positive: " + tickMillis);
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new LinkedList<>());
+        }
+        this.mask = size - 1;
+        this.clock = clock;
+        this.startNanos = clock.getAsLong();
+        this.worker = worker;
+    }
+
+    /**
+     * Schedules the task to run once the delay has elapsed.
+     *
+     * @param task        the task
+     * @param delayMillis the delay millis
+     */
+    public void schedule(Runnable task, long delayMillis) {
+        pending.add(new Timeout(task, clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis))));
+    }
+
+    /**
+     * Expires every tick up to the current time.
+     */
+    void advance() {
+        long currentTick = (clock.getAsLong() - startNanos) / tickNanos;
+        while (tick <= currentTick) {
+            transferPending();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void advanceSafely() {
+        try {
+            advance();
+        } catch (RuntimeException e) {
+            log.warn("Can not to advance the timer wheel", e);
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            long deadlineTick = Math.max(tick, ceilDiv(timeout.deadlineNanos - startNanos, tickNanos));
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private void expire(LinkedList<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            iterator.remove();
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                log.warn("The timer wheel task failed", e);
+            }
+        }
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+
+    /**
+     * Stops the thread advancing the wheel, the pending tasks are dropped.
+     */
+    @Override
+    public void close() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    /**
+     * The scheduled task.
+     */
+    private static final class Timeout {
+
+        private final Runnable task;
+
+        private final long deadlineNanos;
+
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The in-memory search index over the titles of the events. A query of three characters or more is matched
+ * as a substring of the titles, its candidates are the intersection of the postings of its trigrams.
+ * A shorter query is matched as a prefix of the words of the titles by the sorted words.
+ * The matches are ranked: the equal titles first, then the titles starting with the query, then the titles
+ * with a word starting with the query, then the others, the shorter titles and the lower ids first.
+ * Reads do not lock, writes are serialized.
+ */
+public class TitleIndex {
+
+    /**
+     * The length of the grams.
+     */
+    private static final int GRAM = 3;
+
+    /**
+     * The normalized titles by event id.
+     */
+    private final Map<Long, String> titles = new ConcurrentHashMap<>();
+
+    /**
+     * The event ids by trigram of the titles.
+     */
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * The event ids by word of the titles.
+     */
+    private final NavigableMap<String, Set<Long>> words = new ConcurrentSkipListMap<>();
+
+    /**
+     * Normalizes the title or the query.
+     *
+     * @param text the text
+     * @return the normalized text
+     */
+    public static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Puts the title of the event, the previous title of the event is replaced.
+     *
+     * @param eventId the event id
+     * @param title   the title
+     */
+    public synchronized void put(long eventId, String title) {
+        remove(eventId);
+        String normalized = normalize(title);
+        titles.put(eventId, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(eventId);
+        }
+        for (String word : words(normalized)) {
+            words.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(eventId);
+        }
+    }
+
+    /**
+     * Removes the event.
+     *
+     * @param eventId the event id
+     */
+    public synchronized void remove(long eventId) {
+        String title = titles.remove(eventId);
+        if (title == null) {
+            return;
+        }
+        for (String gram : grams(title)) {
+            removeFrom(postings, gram, eventId);
+        }
+        for (String word : words(title)) {
+            removeFrom(words, word, eventId);
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Long>> index, String key, long eventId) {
+        Set<Long> eventIds = index.get(key);
+        if (eventIds != null) {
+            eventIds.remove(eventId);
+            if (eventIds.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the event is indexed.
+     *
+     * @param eventId the event id
+     * @return the boolean
+     */
+    public boolean contains(long eventId) {
+        return titles.containsKey(eventId);
+    }
+
+    /**
+     * Gets the number of indexed events.
+     *
+     * @return the size
+     */
+    public int size() {
+        return titles.size();
+    }
+
+    /**
+     * Searches the events matching the query.
+     *
+     * @param query the query
+     * @return the ids of the matching events in the order of their rank
+     */
+    public List<Long> search(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Match> matches = new ArrayList<>();
+        for (Long eventId : candidates(normalized)) {
+            String title = titles.get(eventId);
+            int rank = title == null ? -1 : rank(title, normalized);
+            if (rank >= 0) {
+                matches.add(new Match(eventId, rank, title.length()));
+            }
+        }
+        matches.sort(Comparator.comparingInt((Match match) -> match.rank)
+                .thenComparingInt(match -> match.length)
+                .thenComparingLong(match -> match.eventId));
+        List<Long> eventIds = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            eventIds.add(match.eventId);
+        }
+        return eventIds;
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            Set<Long> candidates = new HashSet<>();
+            for (Set<Long> eventIds : words.subMap(query, true, query + Character.MAX_VALUE, true).values()) {
+                candidates.addAll(eventIds);
+            }
+            return candidates;
+        }
+        Set<Long> smallest = null;
+        List<Set<Long>> others = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> eventIds = postings.get(gram);
+            if (eventIds == null) {
+                return new ArrayList<>();
+            }
+            if (smallest == null || eventIds.size() < smallest.size()) {
+                if (smallest != null) {
+                    others.add(smallest);
+                }
+                smallest = eventIds;
+            } else {
+                others.add(eventIds);
+            }
+        }
+        List<Long> candidates = new ArrayList<>();
+        for (Long eventId : smallest) {
+            boolean inAll = true;
+            for (Set<Long> eventIds : others) {
+                if (!eventIds.contains(eventId)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                candidates.add(eventId);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Ranks the title for the query, a short query matches the starts of the words only.
+     *
+     * @param title the normalized title
+     * @param query the normalized query
+     * @return the rank, the lower the better, negative if the title does not match
+     */
+    private static int rank(String title, String query) {
+        if (title.equals(query)) {
+            return 0;
+        }
+        if (title.startsWith(query)) {
+            return 1;
+        }
+        if (title.contains(" " + query)) {
+            return 2;
+        }
+        return query.length() >= GRAM && title.contains(query) ? 3 : -1;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new HashSet<>();
+        for (String word : text.split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * The matching event.
+     */
+    private static final class Match {
+
+        private final long eventId;
+
+        private final int rank;
+
+        private final int length;
+
+        private Match(long eventId, int rank, int length) {
+            this.eventId = eventId;
+            this.rank = rank;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ua.epam.mishchenko.ticketbooking.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * The refill of the account of one user.
+ */
+public class AccountRefill {
+
+    /**
+     * The User id.
+     */
+    private final long userId;
+
+    /**
+     * The Amount.
+     */
+    private final BigDecimal amount;
+
+    /**
+     * Instantiates a new Account refill.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     */
+    @JsonCreator
+    public AccountRefill(@JsonProperty("userId") long userId, @JsonProperty("amount") BigDecimal amount) {
+        this.userId = userId;
+        this.amount = amount;
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets amount.
+     *
+     * @return the amount
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'userId' : " + userId +
+                ", 'amount' : " + amount +
+                "}";
+    }
+}
@@ -0,0 +1,95 @@
+package ua.epam.mishchenko.ticketbooking.dto;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+
+/**
+ * The booking of one place on behalf of a user.
+ */
+public class BookingRequest {
+
+    /**
+     * The User id.
+     */
+    private final long userId;
+
+    /**
+     * The Event id.
+     */
+    private final long eventId;
+
+    /**
+     * The Place.
+     */
+    private final int place;
+
+    /**
+     * The Category.
+     */
+    private final Category category;
+
+    /**
+     * Instantiates a new Booking request.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    public BookingRequest(long userId, long eventId, int place, Category category) {
+        this.userId = userId;
+        this.eventId = eventId;
+        this.place = place;
+        this.category = category;
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets event id.
+     *
+     * @return the event id
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets place.
+     *
+     * @return the place
+     */
+    public int getPlace() {
+        return place;
+    }
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'userId' : " + userId +
+                ", 'eventId' : " + eventId +
+                ", 'place' : " + place +
+                ", 'category' : '" + category +
+                "'}";
+    }
+}
@@ -0,0 +1,122 @@
+package ua.epam.mishchenko.ticketbooking.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * A page of a keyset pagination ordered by id together with the cursor of the next page.
+ * The cursor is opaque to the clients, it encodes the id of the last item of the page,
+ * so the next page is read by the index from that id on instead of skipping the previous pages.
+ *
+ * @param <T> the type of the items
+ */
+public class CursorPage<T> {
+
+    /**
+     * The Content.
+     */
+    private final List<T> content;
+
+    /**
+     * The cursor of the next page, null if this page is the last one.
+     */
+    private final String nextCursor;
+
+    /**
+     * Instantiates a new Cursor page.
+     *
+     * @param content    the content
+     * @param nextCursor the cursor of the next page
+     */
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = Collections.unmodifiableList(content);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Creates the page of the slice.
+     *
+     * @param <T>   the type of the items
+     * @param slice the slice ordered by id
+     * @param id    the id of an item
+     * @return the cursor page
+     */
+    public static <T> CursorPage<T> of(Slice<T> slice, ToLongFunction<T> id) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? encode(id.applyAsLong(content.get(content.size() - 1)))
+                : null;
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    /**
+     * Creates an empty last page.
+     *
+     * @param <T> the type of the items
+     * @return the cursor page
+     */
+    public static <T> CursorPage<T> empty() {
+        return new CursorPage<>(Collections.emptyList(), null);
+    }
+
+    /**
+     * Encodes the id of the last item of a page to the cursor of the next page.
+     *
+     * @param id the id
+     * @return the cursor
+     */
+    public static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes the cursor to the id the next page starts after.
+     *
+     * @param cursor the cursor, null or empty for the first page
+     * @return the id, 0 for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The cursor " + cursor + " is malformed", e);
+        }
+    }
+
+    /**
+     * Gets content.
+     *
+     * @return the content
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the cursor of the next page.
+     *
+     * @return the next cursor, null if this page is the last one
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether there is a next page.
+     *
+     * @return the boolean
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
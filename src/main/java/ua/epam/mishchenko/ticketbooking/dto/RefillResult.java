@@ -0,0 +1,93 @@
+package ua.epam.mishchenko.ticketbooking.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * The outcome of one refill of a bulk refill.
+ */
+public class RefillResult {
+
+    /**
+     * The User id.
+     */
+    private final long userId;
+
+    /**
+     * The Amount.
+     */
+    private final BigDecimal amount;
+
+    /**
+     * Whether the account has been refilled.
+     */
+    private final boolean refilled;
+
+    /**
+     * The reason the account has not been refilled, null if it has.
+     */
+    private final String message;
+
+    private RefillResult(long userId, BigDecimal amount, boolean refilled, String message) {
+        this.userId = userId;
+        this.amount = amount;
+        this.refilled = refilled;
+        this.message = message;
+    }
+
+    /**
+     * Creates the result of a successful refill.
+     *
+     * @param refill the refill
+     * @return the refill result
+     */
+    public static RefillResult refilled(AccountRefill refill) {
+        return new RefillResult(refill.getUserId(), refill.getAmount(), true, null);
+    }
+
+    /**
+     * Creates the result of a failed refill.
+     *
+     * @param refill  the refill
+     * @param message the reason
+     * @return the refill result
+     */
+    public static RefillResult failed(AccountRefill refill, String message) {
+        return new RefillResult(refill.getUserId(), refill.getAmount(), false, message);
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets amount.
+     *
+     * @return the amount
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Is refilled boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isRefilled() {
+        return refilled;
+    }
+
+    /**
+     * Gets message.
+     *
+     * @return the message
+     */
+    public String getMessage() {
+        return message;
+    }
+}
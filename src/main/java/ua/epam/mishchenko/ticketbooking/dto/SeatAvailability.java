@@ -0,0 +1,90 @@
+package ua.epam.mishchenko.ticketbooking.dto;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The booked places of an event per category.
+ * The places of a category are encoded as a bitset, bit n of the little-endian byte array is set
+ * if place n is booked, and the byte array is Base64 encoded. A category without booked places is omitted.
+ */
+public class SeatAvailability {
+
+    /**
+     * The Event id.
+     */
+    private final long eventId;
+
+    /**
+     * The Base64 encoded bitsets of the booked places by category.
+     */
+    private final Map<Category, String> booked;
+
+    /**
+     * The numbers of the booked places by category.
+     */
+    private final Map<Category, Integer> bookedCount;
+
+    /**
+     * Instantiates a new Seat availability.
+     *
+     * @param eventId the event id
+     * @param places  the booked places by category
+     */
+    public SeatAvailability(long eventId, Map<Category, BitSet> places) {
+        Map<Category, String> encoded = new EnumMap<>(Category.class);
+        Map<Category, Integer> counts = new EnumMap<>(Category.class);
+        for (Map.Entry<Category, BitSet> entry : places.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                encoded.put(entry.getKey(), Base64.getEncoder().encodeToString(entry.getValue().toByteArray()));
+                counts.put(entry.getKey(), entry.getValue().cardinality());
+            }
+        }
+        this.eventId = eventId;
+        this.booked = Collections.unmodifiableMap(encoded);
+        this.bookedCount = Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Gets event id.
+     *
+     * @return the event id
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the Base64 encoded bitsets of the booked places by category.
+     *
+     * @return the booked places
+     */
+    public Map<Category, String> getBooked() {
+        return booked;
+    }
+
+    /**
+     * Gets the numbers of the booked places by category.
+     *
+     * @return the booked count
+     */
+    public Map<Category, Integer> getBookedCount() {
+        return bookedCount;
+    }
+
+    /**
+     * Decodes the booked places of the category.
+     *
+     * @param category the category
+     * @return the booked places
+     */
+    public BitSet decode(Category category) {
+        String places = booked.get(category);
+        return places == null ? new BitSet() : BitSet.valueOf(Base64.getDecoder().decode(places));
+    }
+}
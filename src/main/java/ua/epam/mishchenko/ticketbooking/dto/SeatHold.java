@@ -0,0 +1,114 @@
+package ua.epam.mishchenko.ticketbooking.dto;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The seats held for a user until they are confirmed or the hold expires.
+ */
+public class SeatHold {
+
+    /**
+     * The hold id.
+     */
+    private final long id;
+
+    /**
+     * The User id.
+     */
+    private final long userId;
+
+    /**
+     * The Event id.
+     */
+    private final long eventId;
+
+    /**
+     * The held seats.
+     */
+    private final List<SeatRequest> seats;
+
+    /**
+     * The time the hold expires at.
+     */
+    private final Date expiresAt;
+
+    /**
+     * Instantiates a new Seat hold.
+     *
+     * @param id        the id
+     * @param userId    the user id
+     * @param eventId   the event id
+     * @param seats     the seats
+     * @param expiresAt the expires at
+     */
+    public SeatHold(long id, long userId, long eventId, List<SeatRequest> seats, Date expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.eventId = eventId;
+        this.seats = Collections.unmodifiableList(seats);
+        this.expiresAt = new Date(expiresAt.getTime());
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets event id.
+     *
+     * @return the event id
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets seats.
+     *
+     * @return the seats
+     */
+    public List<SeatRequest> getSeats() {
+        return seats;
+    }
+
+    /**
+     * Gets expires at.
+     *
+     * @return the expires at
+     */
+    public Date getExpiresAt() {
+        return new Date(expiresAt.getTime());
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'id' : " + id +
+                ", 'userId' : " + userId +
+                ", 'eventId' : " + eventId +
+                ", 'seats' : " + seats +
+                ", 'expiresAt' : '" + expiresAt +
+                "'}";
+    }
+}
@@ -0,0 +1,87 @@
+package ua.epam.mishchenko.ticketbooking.dto;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+
+import java.util.Objects;
+
+/**
+ * The place and the category requested for booking.
+ */
+public class SeatRequest {
+
+    /**
+     * The Place.
+     */
+    private final int place;
+
+    /**
+     * The Category.
+     */
+    private final Category category;
+
+    /**
+     * Instantiates a new Seat request.
+     *
+     * @param place    the place
+     * @param category the category
+     */
+    public SeatRequest(int place, Category category) {
+        this.place = place;
+        this.category = category;
+    }
+
+    /**
+     * Gets place.
+     *
+     * @return the place
+     */
+    public int getPlace() {
+        return place;
+    }
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Equals boolean.
+     *
+     * @param o the o
+     * @return the boolean
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SeatRequest that = (SeatRequest) o;
+        return place == that.place && category == that.category;
+    }
+
+    /**
+     * Hash code int.
+     *
+     * @return the int
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(place, category);
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'place' : " + place +
+                ", 'category' : '" + category +
+                "'}";
+    }
+}
@@ -1,9 +1,17 @@
 package ua.epam.mishchenko.ticketbooking.facade;
 
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.SeatAvailability;
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Event;
 import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.model.WaitlistEntry;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
+import ua.epam.mishchenko.ticketbooking.repository.projection.TicketView;
+import ua.epam.mishchenko.ticketbooking.repository.projection.UserView;
 
 import java.util.Date;
 import java.util.List;
@@ -20,6 +28,13 @@ public interface BookingFacade {
      */
     Event getEventById(long eventId);
 
+    /**
+     * Gets booked places of specified event per category, encoded as bitsets.
+     * @param eventId Event Id.
+     * @return Seat availability. In case the event does not exist, null is returned.
+     */
+    SeatAvailability getSeatAvailability(long eventId);
+
     /**
      * Get list of events by matching title. Title is matched using 'contains' approach.
      * In case nothing was found, empty list is returned.
@@ -30,6 +45,24 @@ public interface BookingFacade {
      */
     List<Event> getEventsByTitle(String title, int pageSize, int pageNum);
 
+    /**
+     * Get page of events by matching title ordered by id, read by keyset instead of offset.
+     * In case nothing was found, empty page is returned.
+     * @param title Event title or it's part.
+     * @param pageSize Pagination param. Number of events to return on a page.
+     * @param after Pagination param. Cursor of the page returned with the previous page, null for the first page.
+     * @return Page of read-only event views with the cursor of the next page.
+     */
+    CursorPage<EventView> getEventsByTitle(String title, int pageSize, String after);
+
+    /**
+     * Get approximate number of events by matching title, without reading them.
+     * The number is cached and may be behind the list by up to the refresh period of the counts.
+     * @param title Event title.
+     * @return Number of events, null if it can not be counted.
+     */
+    Long countEventsByTitle(String title);
+
     /**
      * Get list of events for specified day.
      * In case nothing was found, empty list is returned.
@@ -40,6 +73,47 @@ public interface BookingFacade {
      */
     List<Event> getEventsForDay(Date day, int pageSize, int pageNum);
 
+    /**
+     * Get page of events for specified day ordered by id, read by keyset instead of offset.
+     * In case nothing was found, empty page is returned.
+     * @param day Date object from which day information is extracted.
+     * @param pageSize Pagination param. Number of events to return on a page.
+     * @param after Pagination param. Cursor of the page returned with the previous page, null for the first page.
+     * @return Page of read-only event views with the cursor of the next page.
+     */
+    CursorPage<EventView> getEventsForDay(Date day, int pageSize, String after);
+
+    /**
+     * Get approximate number of events for specified day, without reading them.
+     * The number is cached and may be behind the list by up to the refresh period of the counts.
+     * @param day Date object from which day information is extracted.
+     * @return Number of events, null if it can not be counted.
+     */
+    Long countEventsForDay(Date day);
+
+    /**
+     * Get list of events starting between the moments, ordered by date.
+     * In case nothing was found, empty list is returned.
+     * @param from Moment to start from, inclusive.
+     * @param to Moment to end at, exclusive.
+     * @param pageSize Pagination param. Number of events to return on a page.
+     * @param pageNum Pagination param. Number of the page to return. Starts from 1.
+     * @return List of events.
+     */
+    List<Event> getEventsBetween(Date from, Date to, int pageSize, int pageNum);
+
+    /**
+     * Get list of events with the title starting with or containing the query, the best matches first:
+     * the equal titles, the titles starting with the query, the titles with a word starting with the query,
+     * then the others. A query shorter than three characters matches the starts of the words only.
+     * In case nothing was found, empty list is returned.
+     * @param query Prefix or part of the title, case insensitive.
+     * @param pageSize Pagination param. Number of events to return on a page.
+     * @param pageNum Pagination param. Number of the page to return. Starts from 1.
+     * @return List of events.
+     */
+    List<Event> searchEventsByTitle(String query, int pageSize, int pageNum);
+
     /**
      * Creates new event. Event id should be auto-generated.
      * @param event Event data.
@@ -83,6 +157,24 @@ public interface BookingFacade {
      */
     List<User> getUsersByName(String name, int pageSize, int pageNum);
 
+    /**
+     * Get page of users by matching name ordered by id, read by keyset instead of offset.
+     * In case nothing was found, empty page is returned.
+     * @param name Users name or it's part.
+     * @param pageSize Pagination param. Number of users to return on a page.
+     * @param after Pagination param. Cursor of the page returned with the previous page, null for the first page.
+     * @return Page of read-only user views with the cursor of the next page.
+     */
+    CursorPage<UserView> getUsersByName(String name, int pageSize, String after);
+
+    /**
+     * Get approximate number of users by matching name, without reading them.
+     * The number is cached and may be behind the list by up to the refresh period of the counts.
+     * @param name Users name.
+     * @return Number of users, null if it can not be counted.
+     */
+    Long countUsersByName(String name);
+
     /**
      * Creates new user. User id should be auto-generated.
      * @param user User data.
@@ -112,9 +204,74 @@ public interface BookingFacade {
      * @param category Service category.
      * @return Booked ticket object.
      * @throws IllegalStateException if this place has already been booked.
+     * @throws ua.epam.mishchenko.ticketbooking.booking.AdmissionRejectedException if the booking is not admitted.
      */
     Ticket bookTicket(long userId, long eventId, int place, Category category);
 
+    /**
+     * Book several tickets for a specified event on behalf of specified user in one go.
+     * Either all of the places are booked or none of them.
+     * @param userId User Id.
+     * @param eventId Event Id.
+     * @param seats Place numbers with service categories.
+     * @return List of booked tickets. In case nothing was booked, empty list is returned.
+     */
+    List<Ticket> bookTickets(long userId, long eventId, List<SeatRequest> seats);
+
+    /**
+     * Hold several places for a specified event on behalf of specified user until they are confirmed
+     * or the hold expires. Held places can not be booked by other users.
+     * @param userId User Id.
+     * @param eventId Event Id.
+     * @param seats Place numbers with service categories.
+     * @return Seat hold. In case the places can not be held, null is returned.
+     */
+    SeatHold holdSeats(long userId, long eventId, List<SeatRequest> seats);
+
+    /**
+     * Book the best available places for a specified event on behalf of specified user. The places are
+     * contiguous if possible, otherwise the nearest free ones. Either all the places are booked or none.
+     * @param userId User Id.
+     * @param eventId Event Id.
+     * @param category Service category.
+     * @param count Number of places.
+     * @return List of booked tickets. In case nothing was booked, empty list is returned.
+     */
+    List<Ticket> bookBestAvailable(long userId, long eventId, Category category, int count);
+
+    /**
+     * Book the places held by specified user.
+     * @param holdId Hold Id.
+     * @param userId User Id.
+     * @return List of booked tickets. In case nothing was booked, empty list is returned.
+     */
+    List<Ticket> confirmHold(long holdId, long userId);
+
+    /**
+     * Release the places held by specified user.
+     * @param holdId Hold Id.
+     * @param userId User Id.
+     * @return Flag whether anything has been released.
+     */
+    boolean releaseHold(long holdId, long userId);
+
+    /**
+     * Put specified user on the waitlist of specified event and category. When a ticket of the event and
+     * the category is cancelled, its place is booked for the first waiting user who can pay for it.
+     * @param userId User Id.
+     * @param eventId Event Id.
+     * @param category Service category.
+     * @return Waitlist entry. In case the user can not join the waitlist, null is returned.
+     */
+    WaitlistEntry joinWaitlist(long userId, long eventId, Category category);
+
+    /**
+     * Remove the entry from its waitlist.
+     * @param entryId Waitlist entry Id.
+     * @return Flag whether anything has been removed.
+     */
+    boolean leaveWaitlist(long entryId);
+
     /**
      * Get all booked tickets for specified user. Tickets should be sorted by event date in descending order.
      * @param user User
@@ -124,6 +281,23 @@ public interface BookingFacade {
      */
     List<Ticket> getBookedTickets(User user, int pageSize, int pageNum);
 
+    /**
+     * Get page of booked tickets for specified user ordered by id, read by keyset instead of offset.
+     * @param user User
+     * @param pageSize Pagination param. Number of tickets to return on a page.
+     * @param after Pagination param. Cursor of the page returned with the previous page, null for the first page.
+     * @return Page of read-only ticket views with the cursor of the next page.
+     */
+    CursorPage<TicketView> getBookedTickets(User user, int pageSize, String after);
+
+    /**
+     * Get approximate number of tickets booked by specified user, without reading them.
+     * The number is cached and may be behind the list by up to the refresh period of the counts.
+     * @param user User
+     * @return Number of tickets, null if it can not be counted.
+     */
+    Long countBookedTickets(User user);
+
     /**
      * Get all booked tickets for specified event. Tickets should be sorted in by user email in ascending order.
      * @param event Event
@@ -133,6 +307,23 @@ public interface BookingFacade {
      */
     List<Ticket> getBookedTickets(Event event, int pageSize, int pageNum);
 
+    /**
+     * Get page of booked tickets for specified event ordered by id, read by keyset instead of offset.
+     * @param event Event
+     * @param pageSize Pagination param. Number of tickets to return on a page.
+     * @param after Pagination param. Cursor of the page returned with the previous page, null for the first page.
+     * @return Page of read-only ticket views with the cursor of the next page.
+     */
+    CursorPage<TicketView> getBookedTickets(Event event, int pageSize, String after);
+
+    /**
+     * Get approximate number of tickets booked for specified event, without reading them.
+     * The number is cached and may be behind the list by up to the refresh period of the counts.
+     * @param event Event
+     * @return Number of tickets, null if it can not be counted.
+     */
+    Long countBookedTickets(Event event);
+
     /**
      * Cancel ticket with a specified id.
      * @param ticketId Ticket id.
@@ -140,4 +331,18 @@ public interface BookingFacade {
      */
     boolean cancelTicket(long ticketId);
 
+    /**
+     * Cancel all tickets of specified event. The price of every ticket is refunded to its user account.
+     * @param eventId Event Id.
+     * @return List of cancelled tickets. In case nothing was cancelled, empty list is returned.
+     */
+    List<Ticket> cancelTicketsByEvent(long eventId);
+
+    /**
+     * Cancel all tickets of specified user. The price of every ticket is refunded to the user account.
+     * @param userId User Id.
+     * @return List of cancelled tickets. In case nothing was cancelled, empty list is returned.
+     */
+    List<Ticket> cancelTicketsByUser(long userId);
+
 }
@@ -1,18 +1,38 @@
 package ua.epam.mishchenko.ticketbooking.facade.impl;
 
 import org.springframework.stereotype.Component;
+import ua.epam.mishchenko.ticketbooking.booking.BookingAdmission;
+import ua.epam.mishchenko.ticketbooking.booking.BookingDispatcher;
+import ua.epam.mishchenko.ticketbooking.booking.BookingMetrics;
+import ua.epam.mishchenko.ticketbooking.booking.BookingPipeline;
+import ua.epam.mishchenko.ticketbooking.booking.BookingStage;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.dto.BookingRequest;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.RefillResult;
+import ua.epam.mishchenko.ticketbooking.dto.SeatAvailability;
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
 import ua.epam.mishchenko.ticketbooking.facade.BookingFacade;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Event;
 import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.model.User;
 import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+import ua.epam.mishchenko.ticketbooking.model.WaitlistEntry;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
+import ua.epam.mishchenko.ticketbooking.repository.projection.TicketView;
+import ua.epam.mishchenko.ticketbooking.repository.projection.UserView;
+import ua.epam.mishchenko.ticketbooking.service.EventSearchService;
 import ua.epam.mishchenko.ticketbooking.service.EventService;
+import ua.epam.mishchenko.ticketbooking.service.SeatHoldService;
 import ua.epam.mishchenko.ticketbooking.service.TicketService;
 import ua.epam.mishchenko.ticketbooking.service.UserAccountService;
 import ua.epam.mishchenko.ticketbooking.service.UserService;
+import ua.epam.mishchenko.ticketbooking.service.WaitlistService;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -42,6 +62,41 @@ public class BookingFacadeImpl implements BookingFacade {
      */
     private final UserAccountService userAccountService;
 
+    /**
+     * The Seat hold service.
+     */
+    private final SeatHoldService seatHoldService;
+
+    /**
+     * The Booking dispatcher.
+     */
+    private final BookingDispatcher bookingDispatcher;
+
+    /**
+     * The Booking pipeline.
+     */
+    private final BookingPipeline bookingPipeline;
+
+    /**
+     * The Booking metrics.
+     */
+    private final BookingMetrics bookingMetrics;
+
+    /**
+     * The Waitlist service.
+     */
+    private final WaitlistService waitlistService;
+
+    /**
+     * The Booking admission.
+     */
+    private final BookingAdmission bookingAdmission;
+
+    /**
+     * The Event search service.
+     */
+    private final EventSearchService eventSearchService;
+
     /**
      * Instantiates a new Booking facade.
      *
@@ -49,13 +104,30 @@ public class BookingFacadeImpl implements BookingFacade {
      * @param userService        the user service
      * @param ticketService      the ticket service
      * @param userAccountService the user account service
+     * @param seatHoldService    the seat hold service
+     * @param bookingDispatcher  the booking dispatcher
+     * @param bookingPipeline    the booking pipeline
+     * @param bookingMetrics     the booking metrics
+     * @param waitlistService    the waitlist service
+     * @param bookingAdmission   the booking admission
+     * @param eventSearchService the event search service
      */
     public BookingFacadeImpl(EventService eventService, UserService userService, TicketService ticketService,
-                             UserAccountService userAccountService) {
+                             UserAccountService userAccountService, SeatHoldService seatHoldService,
+                             BookingDispatcher bookingDispatcher, BookingPipeline bookingPipeline,
+                             BookingMetrics bookingMetrics, WaitlistService waitlistService,
+                             BookingAdmission bookingAdmission, EventSearchService eventSearchService) {
         this.eventService = eventService;
         this.ticketService = ticketService;
         this.userService = userService;
         this.userAccountService = userAccountService;
+        this.seatHoldService = seatHoldService;
+        this.bookingDispatcher = bookingDispatcher;
+        this.bookingPipeline = bookingPipeline;
+        this.bookingMetrics = bookingMetrics;
+        this.waitlistService = waitlistService;
+        this.bookingAdmission = bookingAdmission;
+        this.eventSearchService = eventSearchService;
     }
 
     /**
@@ -69,6 +141,17 @@ public class BookingFacadeImpl implements BookingFacade {
         return eventService.getEventById(eventId);
     }
 
+    /**
+     * Gets seat availability.
+     *
+     * @param eventId the event id
+     * @return the seat availability
+     */
+    @Override
+    public SeatAvailability getSeatAvailability(long eventId) {
+        return eventService.getSeatAvailability(eventId);
+    }
+
     /**
      * Gets events by title.
      *
@@ -82,6 +165,30 @@ public class BookingFacadeImpl implements BookingFacade {
         return eventService.getEventsByTitle(title, pageSize, pageNum);
     }
 
+    /**
+     * Gets events by title.
+     *
+     * @param title    the title
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the events by title
+     */
+    @Override
+    public CursorPage<EventView> getEventsByTitle(String title, int pageSize, String after) {
+        return eventService.getEventsByTitle(title, pageSize, after);
+    }
+
+    /**
+     * Count events by title.
+     *
+     * @param title the title
+     * @return the approximate number
+     */
+    @Override
+    public Long countEventsByTitle(String title) {
+        return eventService.countEventsByTitle(title);
+    }
+
     /**
      * Gets events for day.
      *
@@ -95,6 +202,57 @@ public class BookingFacadeImpl implements BookingFacade {
         return eventService.getEventsForDay(day, pageSize, pageNum);
     }
 
+    /**
+     * Gets events for day.
+     *
+     * @param day      the day
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the events for day
+     */
+    @Override
+    public CursorPage<EventView> getEventsForDay(Date day, int pageSize, String after) {
+        return eventService.getEventsForDay(day, pageSize, after);
+    }
+
+    /**
+     * Count events for day.
+     *
+     * @param day the day
+     * @return the approximate number
+     */
+    @Override
+    public Long countEventsForDay(Date day) {
+        return eventService.countEventsForDay(day);
+    }
+
+    /**
+     * Gets events between.
+     *
+     * @param from     the moment to start from
+     * @param to       the moment to end at
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the events between the moments
+     */
+    @Override
+    public List<Event> getEventsBetween(Date from, Date to, int pageSize, int pageNum) {
+        return eventService.getEventsBetween(from, to, pageSize, pageNum);
+    }
+
+    /**
+     * Search events by title.
+     *
+     * @param query    the prefix or the part of the title
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the matching events
+     */
+    @Override
+    public List<Event> searchEventsByTitle(String query, int pageSize, int pageNum) {
+        return eventSearchService.searchEvents(query, pageSize, pageNum);
+    }
+
     /**
      * Create event.
      *
@@ -163,6 +321,30 @@ public class BookingFacadeImpl implements BookingFacade {
         return userService.getUsersByName(name, pageSize, pageNum);
     }
 
+    /**
+     * Gets users by name.
+     *
+     * @param name     the name
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the users by name
+     */
+    @Override
+    public CursorPage<UserView> getUsersByName(String name, int pageSize, String after) {
+        return userService.getUsersByName(name, pageSize, after);
+    }
+
+    /**
+     * Count users by name.
+     *
+     * @param name the name
+     * @return the approximate number
+     */
+    @Override
+    public Long countUsersByName(String name) {
+        return userService.countUsersByName(name);
+    }
+
     /**
      * Create user.
      *
@@ -197,19 +379,134 @@ public class BookingFacadeImpl implements BookingFacade {
     }
 
     /**
-     * Book ticket.
+     * Book ticket, in the next batch of the booking pipeline if it is enabled,
+     * otherwise on the lane of the event if the booking dispatcher is enabled.
+     * The booking is admitted by the booking admission first.
      *
      * @param userId   the user id
      * @param eventId  the event id
      * @param place    the place
      * @param category the category
      * @return the ticket
+     * @throws ua.epam.mishchenko.ticketbooking.booking.AdmissionRejectedException if the booking is not admitted
      */
     @Override
     public Ticket bookTicket(long userId, long eventId, int place, Category category) {
+        bookingAdmission.acquire(eventId);
+        try {
+            long start = System.nanoTime();
+            Ticket ticket = routeBookTicket(userId, eventId, place, category);
+            bookingMetrics.record(BookingStage.FACADE, start);
+            bookingMetrics.count(ticket != null);
+            return ticket;
+        } finally {
+            bookingAdmission.release();
+        }
+    }
+
+    private Ticket routeBookTicket(long userId, long eventId, int place, Category category) {
+        if (bookingPipeline.isEnabled()) {
+            return bookingPipeline.submit(new BookingRequest(userId, eventId, place, category)).join();
+        }
+        if (bookingDispatcher.isEnabled()) {
+            return bookingDispatcher.dispatch(eventId,
+                    () -> ticketService.bookTicket(userId, eventId, place, category), null);
+        }
         return ticketService.bookTicket(userId, eventId, place, category);
     }
 
+    /**
+     * Book tickets, on the lane of the event if the booking dispatcher is enabled.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param seats   the seats
+     * @return the tickets
+     */
+    @Override
+    public List<Ticket> bookTickets(long userId, long eventId, List<SeatRequest> seats) {
+        if (bookingDispatcher.isEnabled()) {
+            return bookingDispatcher.dispatch(eventId,
+                    () -> ticketService.bookTickets(userId, eventId, seats), new ArrayList<>());
+        }
+        return ticketService.bookTickets(userId, eventId, seats);
+    }
+
+    /**
+     * Hold seats.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param seats   the seats
+     * @return the seat hold
+     */
+    @Override
+    public SeatHold holdSeats(long userId, long eventId, List<SeatRequest> seats) {
+        return seatHoldService.hold(userId, eventId, seats);
+    }
+
+    /**
+     * Book best available list.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @param count    the count
+     * @return the booked tickets
+     */
+    @Override
+    public List<Ticket> bookBestAvailable(long userId, long eventId, Category category, int count) {
+        return ticketService.bookBestAvailable(userId, eventId, category, count);
+    }
+
+    /**
+     * Confirm hold.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the tickets
+     */
+    @Override
+    public List<Ticket> confirmHold(long holdId, long userId) {
+        return ticketService.bookHeldTickets(holdId, userId);
+    }
+
+    /**
+     * Release hold boolean.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the boolean
+     */
+    @Override
+    public boolean releaseHold(long holdId, long userId) {
+        return seatHoldService.release(holdId, userId);
+    }
+
+    /**
+     * Join waitlist.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @return the waitlist entry
+     */
+    @Override
+    public WaitlistEntry joinWaitlist(long userId, long eventId, Category category) {
+        return waitlistService.join(userId, eventId, category);
+    }
+
+    /**
+     * Leave waitlist boolean.
+     *
+     * @param entryId the entry id
+     * @return the boolean
+     */
+    @Override
+    public boolean leaveWaitlist(long entryId) {
+        return waitlistService.leave(entryId);
+    }
+
     /**
      * Gets booked tickets.
      *
@@ -223,6 +520,30 @@ public class BookingFacadeImpl implements BookingFacade {
         return ticketService.getBookedTickets(user, pageSize, pageNum);
     }
 
+    /**
+     * Gets booked tickets.
+     *
+     * @param user     the user
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the booked tickets
+     */
+    @Override
+    public CursorPage<TicketView> getBookedTickets(User user, int pageSize, String after) {
+        return ticketService.getBookedTickets(user, pageSize, after);
+    }
+
+    /**
+     * Count booked tickets.
+     *
+     * @param user the user
+     * @return the approximate number
+     */
+    @Override
+    public Long countBookedTickets(User user) {
+        return ticketService.countBookedTickets(user);
+    }
+
     /**
      * Gets booked tickets.
      *
@@ -236,6 +557,30 @@ public class BookingFacadeImpl implements BookingFacade {
         return ticketService.getBookedTickets(event, pageSize, pageNum);
     }
 
+    /**
+     * Gets booked tickets.
+     *
+     * @param event    the event
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the booked tickets
+     */
+    @Override
+    public CursorPage<TicketView> getBookedTickets(Event event, int pageSize, String after) {
+        return ticketService.getBookedTickets(event, pageSize, after);
+    }
+
+    /**
+     * Count booked tickets.
+     *
+     * @param event the event
+     * @return the approximate number
+     */
+    @Override
+    public Long countBookedTickets(Event event) {
+        return ticketService.countBookedTickets(event);
+    }
+
     /**
      * Cancel ticket boolean.
      *
@@ -247,7 +592,33 @@ public class BookingFacadeImpl implements BookingFacade {
         return ticketService.cancelTicket(ticketId);
     }
 
+    /**
+     * Cancel tickets by event list.
+     *
+     * @param eventId the event id
+     * @return the cancelled tickets
+     */
+    @Override
+    public List<Ticket> cancelTicketsByEvent(long eventId) {
+        return ticketService.cancelTicketsByEvent(eventId);
+    }
+
+    /**
+     * Cancel tickets by user list.
+     *
+     * @param userId the user id
+     * @return the cancelled tickets
+     */
+    @Override
+    public List<Ticket> cancelTicketsByUser(long userId) {
+        return ticketService.cancelTicketsByUser(userId);
+    }
+
     public UserAccount refillUserAccount(long userId, BigDecimal money) {
         return userAccountService.refillAccount(userId, money);
     }
+
+    public List<RefillResult> refillUserAccounts(List<AccountRefill> refills) {
+        return userAccountService.refillAccounts(refills);
+    }
 }
@@ -0,0 +1,181 @@
+package ua.epam.mishchenko.ticketbooking.model;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * The type Ledger entry.
+ * An immutable change of the money of a user account, the debits are negative.
+ * The balance of an account is its money plus the entries written since the account has been compacted,
+ * the entries are never updated nor deleted, so they keep the whole money history.
+ */
+@Entity
+@Immutable
+@Table(name = "account_ledger_entries",
+        indexes = @Index(name = "account_ledger_entries_user_id_txid_idx", columnList = "user_id, txid"))
+public class LedgerEntry {
+
+    /**
+     * The Id.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The User id.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The Amount.
+     */
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    /**
+     * The Kind.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 20)
+    private LedgerEntryKind kind;
+
+    /**
+     * The time the entry has been written at.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    /**
+     * The id of the transaction which has written the entry.
+     */
+    @Column(name = "txid", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT txid_current()")
+    private Long txid;
+
+    /**
+     * Instantiates a new Ledger entry.
+     */
+    public LedgerEntry() {
+    }
+
+    /**
+     * Instantiates a new Ledger entry.
+     *
+     * @param id        the id
+     * @param userId    the user id
+     * @param amount    the amount
+     * @param kind      the kind
+     * @param createdAt the created at
+     * @param txid      the id of the transaction which has written the entry
+     */
+    public LedgerEntry(Long id, Long userId, BigDecimal amount, LedgerEntryKind kind, Date createdAt, Long txid) {
+        this.id = id;
+        this.userId = userId;
+        this.amount = amount;
+        this.kind = kind;
+        this.createdAt = createdAt;
+        this.txid = txid;
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets amount.
+     *
+     * @return the amount
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Gets kind.
+     *
+     * @return the kind
+     */
+    public LedgerEntryKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets created at.
+     *
+     * @return the created at
+     */
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the id of the transaction which has written the entry.
+     *
+     * @return the txid
+     */
+    public Long getTxid() {
+        return txid;
+    }
+
+    /**
+     * Equals boolean.
+     *
+     * @param o the o
+     * @return the boolean
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LedgerEntry that = (LedgerEntry) o;
+        return Objects.equals(id, that.id) && Objects.equals(userId, that.userId)
+                && Objects.equals(amount, that.amount) && kind == that.kind;
+    }
+
+    /**
+     * Hash code int.
+     *
+     * @return the int
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, userId, amount, kind);
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'id' : " + id +
+                ", 'userId' : " + userId +
+                ", 'amount' : " + amount +
+                ", 'kind' : '" + kind +
+                "', 'createdAt' : '" + createdAt +
+                "'}";
+    }
+}
@@ -0,0 +1,7 @@
+package ua.epam.mishchenko.ticketbooking.model;
+
+public enum LedgerEntryKind {
+    REFILL,
+    DEBIT,
+    REFUND
+}
@@ -0,0 +1,260 @@
+package ua.epam.mishchenko.ticketbooking.model;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * The type Outbox event.
+ * A booking, a cancellation or a refill written to the outbox in the transaction of the change itself,
+ * the relay publishes the events to the sinks and deletes them afterwards.
+ * The ticket fields are null for a refill.
+ */
+@Entity
+@Immutable
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    /**
+     * The Id, the consumers may deduplicate the events by it.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The Type.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private OutboxEventType type;
+
+    /**
+     * The User id.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The Event id.
+     */
+    @Column(name = "event_id")
+    private Long eventId;
+
+    /**
+     * The Ticket id.
+     */
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    /**
+     * The Place.
+     */
+    @Column(name = "place")
+    private Integer place;
+
+    /**
+     * The Category.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 50)
+    private Category category;
+
+    /**
+     * The ticket price or the refilled amount.
+     */
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    /**
+     * The time the event has been written at.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    /**
+     * Instantiates a new Outbox event.
+     */
+    public OutboxEvent() {
+    }
+
+    /**
+     * Instantiates a new Outbox event.
+     *
+     * @param id        the id
+     * @param type      the type
+     * @param userId    the user id
+     * @param eventId   the event id
+     * @param ticketId  the ticket id
+     * @param place     the place
+     * @param category  the category
+     * @param amount    the amount
+     * @param createdAt the created at
+     */
+    public OutboxEvent(Long id, OutboxEventType type, Long userId, Long eventId, Long ticketId, Integer place,
+                       Category category, BigDecimal amount, Date createdAt) {
+        this.id = id;
+        this.type = type;
+        this.userId = userId;
+        this.eventId = eventId;
+        this.ticketId = ticketId;
+        this.place = place;
+        this.category = category;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Creates the event of a booked ticket, not written yet.
+     *
+     * @param ticket the ticket
+     * @return the outbox event
+     */
+    public static OutboxEvent booked(Ticket ticket) {
+        return new OutboxEvent(null, OutboxEventType.TICKET_BOOKED, ticket.getUser().getId(),
+                ticket.getEvent().getId(), ticket.getId(), ticket.getPlace(), ticket.getCategory(),
+                ticket.getEvent().getTicketPrice(), null);
+    }
+
+    /**
+     * Creates the event of a refilled account, not written yet.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     * @return the outbox event
+     */
+    public static OutboxEvent refilled(long userId, BigDecimal amount) {
+        return new OutboxEvent(null, OutboxEventType.ACCOUNT_REFILLED, userId, null, null, null, null,
+                amount, null);
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets type.
+     *
+     * @return the type
+     */
+    public OutboxEventType getType() {
+        return type;
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets event id.
+     *
+     * @return the event id
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets ticket id.
+     *
+     * @return the ticket id
+     */
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    /**
+     * Gets place.
+     *
+     * @return the place
+     */
+    public Integer getPlace() {
+        return place;
+    }
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets amount.
+     *
+     * @return the amount
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Gets created at.
+     *
+     * @return the created at
+     */
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Equals boolean.
+     *
+     * @param o the o
+     * @return the boolean
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(id, that.id) && type == that.type && Objects.equals(userId, that.userId)
+                && Objects.equals(ticketId, that.ticketId);
+    }
+
+    /**
+     * Hash code int.
+     *
+     * @return the int
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, type, userId, ticketId);
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'id' : " + id +
+                ", 'type' : '" + type +
+                "', 'userId' : " + userId +
+                ", 'eventId' : " + eventId +
+                ", 'ticketId' : " + ticketId +
+                ", 'place' : " + place +
+                ", 'category' : '" + category +
+                "', 'amount' : " + amount +
+                ", 'createdAt' : '" + createdAt +
+                "'}";
+    }
+}
@@ -0,0 +1,7 @@
+package ua.epam.mishchenko.ticketbooking.model;
+
+public enum OutboxEventType {
+    TICKET_BOOKED,
+    TICKET_CANCELLED,
+    ACCOUNT_REFILLED
+}
@@ -23,16 +23,16 @@ public class Ticket {
     private Long id;
 
     /**
-     * The User entity.
+     * The User entity, fetched with the listing queries.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
     /**
-     * The Event entity.
+     * The Event entity, fetched with the listing queries.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 
@@ -105,6 +105,24 @@ public class Ticket {
         this.id = id;
     }
 
+    /**
+     * Gets user id, the lazy user is not loaded.
+     *
+     * @return the user id
+     */
+    public Long getUserId() {
+        return user == null ? null : user.getId();
+    }
+
+    /**
+     * Gets event id, the lazy event is not loaded.
+     *
+     * @return the event id
+     */
+    public Long getEventId() {
+        return event == null ? null : event.getId();
+    }
+
     /**
      * Gets event entity.
      *
@@ -22,7 +22,7 @@ public class UserAccount {
      * The user entity.
      */
     @OneToOne
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", unique = true)
     private User user;
 
     /**
@@ -31,6 +31,24 @@ public class UserAccount {
     @Column(name = "money", nullable = false)
     private BigDecimal money;
 
+    /**
+     * The version used for optimistic locking.
+     * The bookings do not need it, their conditional debit can not overdraw the account. The refill without
+     * the ledger still reads the money and writes it back through this entity, so every bulk statement changing
+     * the money bumps the version too, otherwise such a refill would silently overwrite a concurrent debit.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * The transaction id the money has been compacted up to, in the ledger mode the ledger entries
+     * written by this and the later transactions are added to the money.
+     */
+    @Column(name = "ledger_txid", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long ledgerTxid;
+
     public UserAccount() {
     }
 
@@ -68,4 +86,16 @@ public class UserAccount {
     public void setMoney(BigDecimal money) {
         this.money = money;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getLedgerTxid() {
+        return ledgerTxid;
+    }
 }
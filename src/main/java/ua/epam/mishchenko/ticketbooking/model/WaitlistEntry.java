@@ -0,0 +1,198 @@
+package ua.epam.mishchenko.ticketbooking.model;
+
+import javax.persistence.*;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * The type Waitlist entry.
+ */
+@Entity
+@Table(name = "waitlist_entries")
+public class WaitlistEntry {
+
+    /**
+     * The Id.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The User id.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The Event id.
+     */
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    /**
+     * The Category.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private Category category;
+
+    /**
+     * The time the user has joined the waitlist at.
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    /**
+     * Instantiates a new Waitlist entry.
+     */
+    public WaitlistEntry() {
+    }
+
+    /**
+     * Instantiates a new Waitlist entry.
+     *
+     * @param userId    the user id
+     * @param eventId   the event id
+     * @param category  the category
+     * @param createdAt the created at
+     */
+    public WaitlistEntry(Long userId, Long eventId, Category category, Date createdAt) {
+        this.userId = userId;
+        this.eventId = eventId;
+        this.category = category;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets id.
+     *
+     * @param id the id
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets user id.
+     *
+     * @param userId the user id
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets event id.
+     *
+     * @return the event id
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Sets event id.
+     *
+     * @param eventId the event id
+     */
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Sets category.
+     *
+     * @param category the category
+     */
+    public void setCategory(Category category) {
+        this.category = category;
+    }
+
+    /**
+     * Gets created at.
+     *
+     * @return the created at
+     */
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets created at.
+     *
+     * @param createdAt the created at
+     */
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Equals boolean.
+     *
+     * @param o the o
+     * @return the boolean
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WaitlistEntry that = (WaitlistEntry) o;
+        return Objects.equals(id, that.id) && Objects.equals(userId, that.userId)
+                && Objects.equals(eventId, that.eventId) && category == that.category;
+    }
+
+    /**
+     * Hash code int.
+     *
+     * @return the int
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, userId, eventId, category);
+    }
+
+    /**
+     * To string string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "{" +
+                "'id' : " + id +
+                ", 'userId' : " + userId +
+                ", 'eventId' : " + eventId +
+                ", 'category' : '" + category +
+                "', 'createdAt' : '" + createdAt +
+                "'}";
+    }
+}
@@ -0,0 +1,92 @@
+package ua.epam.mishchenko.ticketbooking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.model.User;
+
+import java.util.List;
+
+/**
+ * The repository deleting the events and the users together with their dependent rows by set-based statements,
+ * so the dependent entities are never loaded into the persistence context.
+ * Joins the transaction of the calling service. The statements bypass Hibernate, the caller evicts
+ * the deleted entities from the second level cache.
+ */
+@Repository
+public class BulkDeleteRepository {
+
+    private static final String DELETE_TICKETS_BY_EVENT = "DELETE FROM tickets WHERE event_id = ? RETURNING id";
+
+    private static final String DELETE_TICKETS_BY_USER =
+            "DELETE FROM tickets WHERE user_id = ? RETURNING id, event_id, place, category";
+
+    private static final String DELETE_ACCOUNTS_BY_USER = "DELETE FROM user_accounts WHERE user_id = ? RETURNING id";
+
+    private static final String DELETE_EVENT = "DELETE FROM events WHERE id = ?";
+
+    private static final String DELETE_USER = "DELETE FROM users WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkDeleteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Deletes all the tickets of the event.
+     *
+     * @param eventId the event id
+     * @return the ids of the deleted tickets
+     */
+    public List<Long> deleteTicketsByEventId(long eventId) {
+        return jdbcTemplate.queryForList(DELETE_TICKETS_BY_EVENT, Long.class, eventId);
+    }
+
+    /**
+     * Deletes all the tickets of the user.
+     *
+     * @param userId the user id
+     * @return the deleted tickets with their event id, place and category
+     */
+    public List<Ticket> deleteTicketsByUserId(long userId) {
+        return jdbcTemplate.query(DELETE_TICKETS_BY_USER, (resultSet, rowNum) -> {
+            Event event = new Event();
+            event.setId(resultSet.getLong("event_id"));
+            return new Ticket(resultSet.getLong("id"), new User(), event, resultSet.getInt("place"),
+                    Category.valueOf(resultSet.getString("category")));
+        }, userId);
+    }
+
+    /**
+     * Deletes the accounts of the user.
+     *
+     * @param userId the user id
+     * @return the ids of the deleted accounts
+     */
+    public List<Long> deleteAccountsByUserId(long userId) {
+        return jdbcTemplate.queryForList(DELETE_ACCOUNTS_BY_USER, Long.class, userId);
+    }
+
+    /**
+     * Deletes the event.
+     *
+     * @param eventId the event id
+     * @return whether the event has been deleted
+     */
+    public boolean deleteEvent(long eventId) {
+        return jdbcTemplate.update(DELETE_EVENT, eventId) > 0;
+    }
+
+    /**
+     * Deletes the user.
+     *
+     * @param userId the user id
+     * @return whether the user has been deleted
+     */
+    public boolean deleteUser(long userId) {
+        return jdbcTemplate.update(DELETE_USER, userId) > 0;
+    }
+}
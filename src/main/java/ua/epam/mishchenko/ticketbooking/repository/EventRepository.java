@@ -1,19 +1,60 @@
 package ua.epam.mishchenko.ticketbooking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface EventRepository extends CrudRepository<Event, Long> {
 
-    Page<Event> getAllByTitle(Pageable pageable, String title);
+    Slice<Event> getAllByTitle(Pageable pageable, String title);
 
-    Page<Event> getAllByDate(Pageable pageable, Date day);
+    Slice<Event> getAllByDateGreaterThanEqualAndDateLessThanOrderById(Date from, Date to, Pageable pageable);
+
+    Slice<Event> getAllByDateGreaterThanEqualAndDateLessThanOrderByDateAscIdAsc(Date from, Date to,
+                                                                               Pageable pageable);
+
+    @Query("select e.id as id, e.title as title, e.date as date, e.ticketPrice as ticketPrice from Event e " +
+            "where e.title = :title and e.id > :afterId order by e.id")
+    Slice<EventView> findViewsByTitleAfter(@Param("title") String title, @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @Query("select e.id as id, e.title as title, e.date as date, e.ticketPrice as ticketPrice from Event e " +
+            "where e.date >= :from and e.date < :to and e.id > :afterId order by e.id")
+    Slice<EventView> findViewsBetweenAfter(@Param("from") Date from, @Param("to") Date to,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select e.id as id, e.title as title, e.date as date, e.ticketPrice as ticketPrice from Event e " +
+            "where e.id in :ids order by e.id")
+    List<EventView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.id as id, e.title as title, e.date as date, e.ticketPrice as ticketPrice from Event e " +
+            "where e.date >= :from and e.date < :to")
+    List<EventView> findViewsBetween(@Param("from") Date from, @Param("to") Date to);
+
+    @Query("select e.id as id, e.title as title, e.date as date, e.ticketPrice as ticketPrice from Event e")
+    List<EventView> findAllViews();
+
+    @Query(value = "SELECT * FROM events WHERE lower(title) LIKE :pattern OR lower(title) LIKE :wordPrefix " +
+            "ORDER BY CASE WHEN lower(title) = :query THEN 0 WHEN lower(title) LIKE :prefix THEN 1 " +
+            "WHEN lower(title) LIKE :wordPrefix THEN 2 ELSE 3 END, length(title), id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Event> searchByTitle(@Param("query") String query, @Param("pattern") String pattern,
+                              @Param("prefix") String prefix, @Param("wordPrefix") String wordPrefix,
+                              @Param("limit") int limit, @Param("offset") long offset);
+
+    long countByTitle(String title);
+
+    long countByDateGreaterThanEqualAndDateLessThan(Date from, Date to);
 
     Boolean existsByTitleAndDate(String title, Date date);
 }
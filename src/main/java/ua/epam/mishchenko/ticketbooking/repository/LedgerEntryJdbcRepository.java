@@ -0,0 +1,181 @@
+package ua.epam.mishchenko.ticketbooking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.model.LedgerEntry;
+import ua.epam.mishchenko.ticketbooking.model.LedgerEntryKind;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The repository of the account ledger, the entries are only ever inserted.
+ * An entry records the id of its transaction, the compaction adds the entries of the finished transactions
+ * to the money of the account and remembers the transaction id it has compacted up to, so an entry
+ * of a transaction still running during the compaction is never skipped however its id is ordered.
+ * Joins the transaction of the calling service.
+ */
+@Repository
+public class LedgerEntryJdbcRepository {
+
+    /**
+     * The balance of the user account aliased as ua: the compacted money plus the entries written since.
+     */
+    public static final String BALANCE = "(ua.money + COALESCE((SELECT SUM(l.amount) FROM account_ledger_entries l " +
+            "WHERE l.user_id = ua.user_id AND l.txid >= ua.ledger_txid), 0))";
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO account_ledger_entries (user_id, amount, kind, created_at) VALUES (?, ?, ?, now())";
+
+    private static final String LOCK_ACCOUNT = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String INSERT_DEBIT =
+            "INSERT INTO account_ledger_entries (user_id, amount, kind, created_at) " +
+                    "SELECT ua.user_id, ?, 'DEBIT', now() FROM user_accounts ua " +
+                    "WHERE ua.user_id = ? AND " + BALANCE + " >= ?";
+
+    private static final String SELECT_BALANCE = "SELECT " + BALANCE + " FROM user_accounts ua WHERE ua.user_id = ?";
+
+    private static final String SELECT_ENTRIES =
+            "SELECT id, user_id, amount, kind, created_at, txid FROM account_ledger_entries " +
+                    "WHERE user_id = ? ORDER BY id";
+
+    private static final String SELECT_USERS_TO_COMPACT =
+            "SELECT l.user_id FROM account_ledger_entries l JOIN user_accounts ua ON ua.user_id = l.user_id " +
+                    "WHERE l.txid >= ua.ledger_txid GROUP BY l.user_id HAVING COUNT(*) >= ? LIMIT ?";
+
+    /**
+     * Adds the entries of the transactions finished before the statement to the money.
+     * The account is skipped if another compaction has moved its transaction id meanwhile.
+     */
+    private static final String COMPACT_ACCOUNTS =
+            "UPDATE user_accounts ua SET money = ua.money + s.amount, ledger_txid = s.compacted_txid, " +
+                    "version = ua.version + 1 " +
+                    "FROM (SELECT a.user_id, a.ledger_txid, SUM(l.amount) AS amount, " +
+                    "txid_snapshot_xmin(txid_current_snapshot()) AS compacted_txid " +
+                    "FROM user_accounts a JOIN account_ledger_entries l ON l.user_id = a.user_id " +
+                    "WHERE a.user_id IN (:userIds) AND l.txid >= a.ledger_txid " +
+                    "AND l.txid < txid_snapshot_xmin(txid_current_snapshot()) " +
+                    "GROUP BY a.user_id, a.ledger_txid) s " +
+                    "WHERE ua.user_id = s.user_id AND ua.ledger_txid = s.ledger_txid RETURNING ua.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public LedgerEntryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Appends the entry.
+     *
+     * @param userId the user id
+     * @param amount the amount, negative for a debit
+     * @param kind   the kind
+     */
+    public void append(long userId, BigDecimal amount, LedgerEntryKind kind) {
+        jdbcTemplate.update(INSERT_ENTRY, userId, amount, kind.name());
+    }
+
+    /**
+     * Appends an entry per refill with one JDBC batch.
+     *
+     * @param refills the refills
+     * @param kind    the kind
+     */
+    public void appendAll(List<AccountRefill> refills, LedgerEntryKind kind) {
+        List<Object[]> arguments = new ArrayList<>(refills.size());
+        for (AccountRefill refill : refills) {
+            arguments.add(new Object[]{refill.getUserId(), refill.getAmount(), kind.name()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, arguments);
+    }
+
+    /**
+     * Appends a debit entry if the balance of the user account covers the amount.
+     * The debits of one account are serialized by a transaction-scoped advisory lock on the user id,
+     * which keeps the balance non-negative without updating the account row.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     * @return whether the account has been debited
+     */
+    public boolean debit(long userId, BigDecimal amount) {
+        jdbcTemplate.query(LOCK_ACCOUNT, resultSet -> null, userId);
+        return jdbcTemplate.update(INSERT_DEBIT, amount.negate(), userId, amount) > 0;
+    }
+
+    /**
+     * Appends the debit entries in the order of the user ids, so concurrent batches lock the accounts
+     * in the same order.
+     *
+     * @param amountsByUserId the amounts by user id
+     * @return whether every account has been debited
+     */
+    public boolean debitAll(Map<Long, BigDecimal> amountsByUserId) {
+        for (Map.Entry<Long, BigDecimal> amount : new TreeMap<>(amountsByUserId).entrySet()) {
+            if (!debit(amount.getKey(), amount.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the balance of the user account.
+     *
+     * @param userId the user id
+     * @return the balance, null if the account does not exist
+     */
+    public BigDecimal getBalance(long userId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(SELECT_BALANCE, BigDecimal.class, userId);
+        return balances.isEmpty() ? null : balances.get(0);
+    }
+
+    /**
+     * Finds all the entries of the user in the order they have been written.
+     *
+     * @param userId the user id
+     * @return the entries
+     */
+    public List<LedgerEntry> findAllByUserId(long userId) {
+        return jdbcTemplate.query(SELECT_ENTRIES, (resultSet, rowNum) -> new LedgerEntry(resultSet.getLong("id"),
+                resultSet.getLong("user_id"), resultSet.getBigDecimal("amount"),
+                LedgerEntryKind.valueOf(resultSet.getString("kind")), resultSet.getTimestamp("created_at"),
+                resultSet.getLong("txid")), userId);
+    }
+
+    /**
+     * Finds the users with at least the given number of entries written since their accounts have been compacted.
+     *
+     * @param minEntries the min number of entries
+     * @param limit      the max number of users
+     * @return the user ids
+     */
+    public List<Long> findUserIdsToCompact(int minEntries, int limit) {
+        return jdbcTemplate.queryForList(SELECT_USERS_TO_COMPACT, Long.class, minEntries, limit);
+    }
+
+    /**
+     * Compacts the accounts of the users.
+     *
+     * @param userIds the user ids
+     * @return the ids of the compacted accounts
+     */
+    public List<Long> compact(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return namedParameterJdbcTemplate.queryForList(COMPACT_ACCOUNTS,
+                new MapSqlParameterSource("userIds", userIds), Long.class);
+    }
+}
@@ -0,0 +1,99 @@
+package ua.epam.mishchenko.ticketbooking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEvent;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEventType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The repository of the outbox events.
+ * Joins the transaction of the calling service, so an event is written if and only if its change commits.
+ */
+@Repository
+public class OutboxJdbcRepository {
+
+    /**
+     * Writes the cancellation events of the tickets selected as cancelled, to be used as a part of the statement
+     * cancelling the tickets.
+     */
+    public static final String INSERT_CANCELLED =
+            "INSERT INTO outbox_events (type, user_id, event_id, ticket_id, place, category, amount, created_at) " +
+                    "SELECT 'TICKET_CANCELLED', c.user_id, c.event_id, c.id, c.place, c.category, c.ticket_price, " +
+                    "now() FROM cancelled c";
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO outbox_events (type, user_id, event_id, ticket_id, place, category, amount, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, now())";
+
+    /**
+     * Locks the oldest events, the events locked by another relay are skipped.
+     */
+    private static final String SELECT_NEXT_EVENTS =
+            "SELECT id, type, user_id, event_id, ticket_id, place, category, amount, created_at " +
+                    "FROM outbox_events ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_EVENTS = "DELETE FROM outbox_events WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public OutboxJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Writes the events with one JDBC batch.
+     *
+     * @param events the events
+     */
+    public void appendAll(List<OutboxEvent> events) {
+        List<Object[]> arguments = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            arguments.add(new Object[]{event.getType().name(), event.getUserId(), event.getEventId(),
+                    event.getTicketId(), event.getPlace(),
+                    event.getCategory() == null ? null : event.getCategory().name(), event.getAmount()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, arguments);
+    }
+
+    /**
+     * Locks the oldest events not locked by another transaction until the end of the transaction.
+     *
+     * @param limit the max number of events
+     * @return the events in the order they have been written
+     */
+    public List<OutboxEvent> lockNext(int limit) {
+        return jdbcTemplate.query(SELECT_NEXT_EVENTS, this::mapEvent, limit);
+    }
+
+    /**
+     * Deletes the events.
+     *
+     * @param ids the event ids
+     */
+    public void deleteAll(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            namedParameterJdbcTemplate.update(DELETE_EVENTS, new MapSqlParameterSource("ids", ids));
+        }
+    }
+
+    private OutboxEvent mapEvent(ResultSet resultSet, int rowNum) throws SQLException {
+        String category = resultSet.getString("category");
+        return new OutboxEvent(resultSet.getLong("id"), OutboxEventType.valueOf(resultSet.getString("type")),
+                resultSet.getLong("user_id"), resultSet.getObject("event_id", Long.class),
+                resultSet.getObject("ticket_id", Long.class), resultSet.getObject("place", Integer.class),
+                category == null ? null : Category.valueOf(category), resultSet.getBigDecimal("amount"),
+                resultSet.getTimestamp("created_at"));
+    }
+}
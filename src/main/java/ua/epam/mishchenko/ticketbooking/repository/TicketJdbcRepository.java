@@ -0,0 +1,280 @@
+package ua.epam.mishchenko.ticketbooking.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.epam.mishchenko.ticketbooking.dto.BookingRequest;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The ticket repository for set-based statements which are not expressible through Spring Data.
+ * Joins the transaction of the calling service.
+ */
+@Repository
+public class TicketJdbcRepository {
+
+    private static final String INSERT_TICKET =
+            "INSERT INTO tickets (user_id, event_id, place, category) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_ACCOUNTS =
+            "SELECT u.id, u.name, u.email, ua.id AS account_id, " +
+                    LedgerEntryJdbcRepository.BALANCE + " AS money " +
+                    "FROM user_accounts ua JOIN users u ON u.id = ua.user_id WHERE ua.user_id IN (:userIds)";
+
+    private static final String SELECT_EVENTS =
+            "SELECT id, title, date, ticket_price FROM events WHERE id IN (:eventIds)";
+
+    private static final String SELECT_TAKEN_PLACES =
+            "SELECT event_id, place FROM tickets WHERE event_id IN (:eventIds) AND place IN (:places)";
+
+    private static final String DEBIT_ACCOUNT =
+            "UPDATE user_accounts SET money = money - ?, version = version + 1 WHERE user_id = ? AND money >= ?";
+
+    private static final String REFUND_ACCOUNTS =
+            "UPDATE user_accounts ua SET money = ua.money + r.amount, version = ua.version + 1 " +
+                    "FROM (SELECT user_id, SUM(ticket_price) AS amount FROM cancelled GROUP BY user_id) r " +
+                    "WHERE ua.user_id = r.user_id";
+
+    private static final String REFUND_LEDGER =
+            "INSERT INTO account_ledger_entries (user_id, amount, kind, created_at) " +
+                    "SELECT c.user_id, SUM(c.ticket_price), 'REFUND', now() FROM cancelled c " +
+                    "WHERE EXISTS (SELECT 1 FROM user_accounts ua WHERE ua.user_id = c.user_id) GROUP BY c.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final String cancelTicket;
+
+    private final String cancelTicketsByEvent;
+
+    private final String cancelTicketsByUser;
+
+    /**
+     * Instantiates a new Ticket jdbc repository.
+     *
+     * @param jdbcTemplate  the jdbc template
+     * @param ledgerEnabled whether the refunds are appended to the account ledger instead of updating the accounts
+     * @param outboxEnabled whether the cancellations are written to the outbox
+     */
+    public TicketJdbcRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${booking.ledger.enabled:false}") boolean ledgerEnabled,
+                                @Value("${booking.outbox.enabled:false}") boolean outboxEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        String writes = "refunds AS (" + (ledgerEnabled ? REFUND_LEDGER : REFUND_ACCOUNTS) + ")";
+        if (outboxEnabled) {
+            writes += ", outbox AS (" + OutboxJdbcRepository.INSERT_CANCELLED + ")";
+        }
+        this.cancelTicket = cancelTickets("t.id = ?", writes);
+        this.cancelTicketsByEvent = cancelTickets("t.event_id = ?", writes);
+        this.cancelTicketsByUser = cancelTickets("t.user_id = ?", writes);
+    }
+
+    /**
+     * Builds the statement deleting the matching tickets and refunding their price to the user accounts.
+     * The refunds are summed up per user, so every account is refunded once however many tickets it loses.
+     *
+     * @param condition the condition on the tickets aliased as t
+     * @param writes    the queries refunding the tickets selected as cancelled and writing their events
+     * @return the statement returning the deleted tickets with their price
+     */
+    private static String cancelTickets(String condition, String writes) {
+        return "WITH cancelled AS (" +
+                "DELETE FROM tickets t USING events e WHERE e.id = t.event_id AND " + condition + " " +
+                "RETURNING t.id, t.user_id, t.event_id, t.place, t.category, e.ticket_price), " +
+                writes + " " +
+                "SELECT id, user_id, event_id, place, category, ticket_price FROM cancelled";
+    }
+
+    /**
+     * Inserts the tickets with one JDBC batch.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param seats   the seats
+     * @return the generated ticket ids in the order of the seats
+     */
+    public List<Long> saveAll(long userId, long eventId, List<SeatRequest> seats) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TICKET, new String[]{"id"})) {
+                for (SeatRequest seat : seats) {
+                    statement.setLong(1, userId);
+                    statement.setLong(2, eventId);
+                    statement.setInt(3, seat.getPlace());
+                    statement.setString(4, seat.getCategory().name());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                List<Long> ids = new ArrayList<>(seats.size());
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    while (generatedKeys.next()) {
+                        ids.add(generatedKeys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Inserts the tickets of several users and events with one JDBC batch.
+     *
+     * @param requests the booking requests
+     * @return the generated ticket ids in the order of the requests
+     */
+    public List<Long> saveAll(List<BookingRequest> requests) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TICKET, new String[]{"id"})) {
+                for (BookingRequest request : requests) {
+                    statement.setLong(1, request.getUserId());
+                    statement.setLong(2, request.getEventId());
+                    statement.setInt(3, request.getPlace());
+                    statement.setString(4, request.getCategory().name());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                List<Long> ids = new ArrayList<>(requests.size());
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    while (generatedKeys.next()) {
+                        ids.add(generatedKeys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Finds the user accounts together with their users.
+     *
+     * @param userIds the user ids
+     * @return the user accounts by user id
+     */
+    public Map<Long, UserAccount> findAccountsByUserIds(Collection<Long> userIds) {
+        Map<Long, UserAccount> accounts = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_ACCOUNTS, new MapSqlParameterSource("userIds", userIds),
+                (ResultSet resultSet) -> {
+                    User user = new User(resultSet.getLong("id"), resultSet.getString("name"),
+                            resultSet.getString("email"));
+                    accounts.put(user.getId(), new UserAccount(resultSet.getLong("account_id"), user,
+                            resultSet.getBigDecimal("money")));
+                });
+        return accounts;
+    }
+
+    /**
+     * Finds the events.
+     *
+     * @param eventIds the event ids
+     * @return the events by id
+     */
+    public Map<Long, Event> findEventsByIds(Collection<Long> eventIds) {
+        Map<Long, Event> events = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_EVENTS, new MapSqlParameterSource("eventIds", eventIds),
+                (ResultSet resultSet) -> {
+                    Event event = new Event(resultSet.getLong("id"), resultSet.getString("title"),
+                            resultSet.getTimestamp("date"), resultSet.getBigDecimal("ticket_price"));
+                    events.put(event.getId(), event);
+                });
+        return events;
+    }
+
+    /**
+     * Finds the booked places among the places of the events.
+     *
+     * @param eventIds the event ids
+     * @param places   the places
+     * @return the booked places by event id
+     */
+    public Map<Long, Set<Integer>> findTakenPlaces(Collection<Long> eventIds, Collection<Integer> places) {
+        Map<Long, Set<Integer>> takenPlaces = new HashMap<>();
+        MapSqlParameterSource parameters = new MapSqlParameterSource("eventIds", eventIds)
+                .addValue("places", places);
+        namedParameterJdbcTemplate.query(SELECT_TAKEN_PLACES, parameters, (ResultSet resultSet) -> {
+            takenPlaces.computeIfAbsent(resultSet.getLong("event_id"), eventId -> new HashSet<>())
+                    .add(resultSet.getInt("place"));
+        });
+        return takenPlaces;
+    }
+
+    /**
+     * Debits the user accounts with one JDBC batch, an account is only debited if it has enough money.
+     *
+     * @param amountsByUserId the amounts by user id
+     * @return whether every account has been debited
+     */
+    public boolean debitAll(Map<Long, BigDecimal> amountsByUserId) {
+        List<Object[]> arguments = new ArrayList<>(amountsByUserId.size());
+        for (Map.Entry<Long, BigDecimal> amount : amountsByUserId.entrySet()) {
+            arguments.add(new Object[]{amount.getValue(), amount.getKey(), amount.getValue()});
+        }
+        for (int updated : jdbcTemplate.batchUpdate(DEBIT_ACCOUNT, arguments)) {
+            if (updated == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the ticket and refunds its price to the user account with one statement.
+     *
+     * @param ticketId the ticket id
+     * @return the cancelled ticket, empty if there is no such ticket
+     */
+    public Optional<Ticket> cancel(long ticketId) {
+        return jdbcTemplate.query(cancelTicket, this::mapCancelledTicket, ticketId).stream().findFirst();
+    }
+
+    /**
+     * Deletes all the tickets of the event and refunds their price to the user accounts with one statement.
+     *
+     * @param eventId the event id
+     * @return the cancelled tickets
+     */
+    public List<Ticket> cancelAllByEventId(long eventId) {
+        return jdbcTemplate.query(cancelTicketsByEvent, this::mapCancelledTicket, eventId);
+    }
+
+    /**
+     * Deletes all the tickets of the user and refunds their price to the user account with one statement.
+     *
+     * @param userId the user id
+     * @return the cancelled tickets
+     */
+    public List<Ticket> cancelAllByUserId(long userId) {
+        return jdbcTemplate.query(cancelTicketsByUser, this::mapCancelledTicket, userId);
+    }
+
+    private Ticket mapCancelledTicket(ResultSet resultSet, int rowNum) throws SQLException {
+        User user = new User();
+        user.setId(resultSet.getLong("user_id"));
+        Event event = new Event();
+        event.setId(resultSet.getLong("event_id"));
+        event.setTicketPrice(resultSet.getBigDecimal("ticket_price"));
+        return new Ticket(resultSet.getLong("id"), user, event, resultSet.getInt("place"),
+                Category.valueOf(resultSet.getString("category")));
+    }
+}
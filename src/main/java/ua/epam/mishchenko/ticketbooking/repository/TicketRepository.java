@@ -1,18 +1,65 @@
 package ua.epam.mishchenko.ticketbooking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.repository.projection.BookingSnapshot;
+import ua.epam.mishchenko.ticketbooking.repository.projection.SeatView;
+import ua.epam.mishchenko.ticketbooking.repository.projection.TicketView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TicketRepository extends CrudRepository<Ticket, Long> {
 
-    Page<Ticket> getAllByUserId(Pageable pageable, Long userId);
+    @EntityGraph(attributePaths = {"user", "user.userAccount", "event"})
+    @Query("select t from Ticket t where t.user.id = :userId")
+    Slice<Ticket> getAllByUserId(Pageable pageable, @Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = {"user", "user.userAccount", "event"})
+    @Query("select t from Ticket t where t.event.id = :eventId")
+    Slice<Ticket> getAllByEventId(Pageable pageable, @Param("eventId") Long eventId);
+
+    @Query("select t.id as id, t.user.id as userId, t.event.id as eventId, t.place as place, " +
+            "t.category as category from Ticket t where t.user.id = :userId and t.id > :afterId order by t.id")
+    Slice<TicketView> findViewsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    @Query("select t.id as id, t.user.id as userId, t.event.id as eventId, t.place as place, " +
+            "t.category as category from Ticket t where t.event.id = :eventId and t.id > :afterId order by t.id")
+    Slice<TicketView> findViewsByEventIdAfter(@Param("eventId") Long eventId, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    @Query("select count(t) from Ticket t where t.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+
+    @Query("select count(t) from Ticket t where t.event.id = :eventId")
+    long countByEventId(@Param("eventId") Long eventId);
+
+    @Query("select case when count(t) > 0 then true else false end from Ticket t " +
+            "where t.event.id = :eventId and t.place = :place and t.category = :category")
+    Boolean existsByEventIdAndPlaceAndCategory(@Param("eventId") Long eventId, @Param("place") Integer place,
+                                               @Param("category") Category category);
 
-    Page<Ticket> getAllByEventId(Pageable pageable, Long eventId);
+    @Query("select t.place as place, t.category as category from Ticket t where t.event.id = :eventId")
+    List<SeatView> findSeatsByEventId(@Param("eventId") Long eventId);
 
-    Boolean existsByEventIdAndPlaceAndCategory(Long eventId, Integer place, Category category);
+    @Query(value = "SELECT ua.id AS \"accountId\", " + LedgerEntryJdbcRepository.BALANCE + " AS \"money\", " +
+            "u.name AS \"userName\", u.email AS \"userEmail\", " +
+            "e.title AS \"eventTitle\", e.date AS \"eventDate\", e.ticket_price AS \"ticketPrice\", " +
+            "EXISTS (SELECT 1 FROM tickets t WHERE t.event_id = e.id AND t.place IN (:places)) AS \"placeTaken\" " +
+            "FROM user_accounts ua JOIN users u ON u.id = ua.user_id CROSS JOIN events e " +
+            "WHERE ua.user_id = :userId AND e.id = :eventId",
+            nativeQuery = true)
+    Optional<BookingSnapshot> findBookingSnapshot(@Param("userId") Long userId,
+                                                  @Param("eventId") Long eventId,
+                                                  @Param("places") Collection<Integer> places);
 }
@@ -0,0 +1,88 @@
+package ua.epam.mishchenko.ticketbooking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The user account repository for the bulk refills, the statements of a bulk are sent as JDBC batches.
+ * The upserts rely on the unique constraint on the user id of the accounts.
+ * Joins the transaction of the calling service.
+ */
+@Repository
+public class UserAccountJdbcRepository {
+
+    /**
+     * The max number of ids bound to one IN list, well below the limit of bind parameters of a statement.
+     */
+    private static final int MAX_IN_LIST = 10_000;
+
+    private static final String SELECT_USER_IDS = "SELECT id FROM users WHERE id IN (:userIds)";
+
+    private static final String UPSERT_ACCOUNT =
+            "INSERT INTO user_accounts (user_id, money, version) VALUES (?, ?, 0) ON CONFLICT (user_id) " +
+                    "DO UPDATE SET money = user_accounts.money + EXCLUDED.money, version = user_accounts.version + 1";
+
+    private static final String INSERT_EMPTY_ACCOUNT =
+            "INSERT INTO user_accounts (user_id, money, version) VALUES (?, 0, 0) ON CONFLICT (user_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public UserAccountJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Finds which of the users exist.
+     *
+     * @param userIds the user ids
+     * @return the ids of the existing users
+     */
+    public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+        Set<Long> existing = new HashSet<>();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IN_LIST));
+            existing.addAll(namedParameterJdbcTemplate.queryForList(SELECT_USER_IDS,
+                    new MapSqlParameterSource("userIds", chunk), Long.class));
+        }
+        return existing;
+    }
+
+    /**
+     * Adds the amounts to the accounts, creating the missing ones, with one JDBC batch.
+     *
+     * @param refills the refills
+     */
+    public void refillAll(List<AccountRefill> refills) {
+        List<Object[]> arguments = new ArrayList<>(refills.size());
+        for (AccountRefill refill : refills) {
+            arguments.add(new Object[]{refill.getUserId(), refill.getAmount()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_ACCOUNT, arguments);
+    }
+
+    /**
+     * Creates the missing accounts with no money with one JDBC batch.
+     *
+     * @param userIds the user ids
+     */
+    public void createMissing(Collection<Long> userIds) {
+        List<Object[]> arguments = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            arguments.add(new Object[]{userId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EMPTY_ACCOUNT, arguments);
+    }
+}
@@ -1,13 +1,30 @@
 package ua.epam.mishchenko.ticketbooking.repository;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ua.epam.mishchenko.ticketbooking.model.UserAccount;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
 public interface UserAccountRepository extends CrudRepository<UserAccount, Long> {
 
     Optional<UserAccount> findByUserId(Long userId);
+
+    /**
+     * Debits the user account in one statement, the account is only debited if it has enough money.
+     * The version is bumped, so a concurrent refill through the entity fails instead of losing the debit.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     * @return the number of debited accounts, 0 if the account does not exist or does not have enough money
+     */
+    @Modifying
+    @Query("update UserAccount a set a.money = a.money - :amount, a.version = a.version + 1 " +
+            "where a.user.id = :userId and a.money >= :amount")
+    int debit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
 }
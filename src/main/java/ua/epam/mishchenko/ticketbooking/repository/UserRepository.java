@@ -1,10 +1,13 @@
 package ua.epam.mishchenko.ticketbooking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.repository.projection.UserView;
 
 import java.util.Optional;
 
@@ -13,7 +16,14 @@ public interface UserRepository extends CrudRepository<User, Long> {
 
     Optional<User> getByEmail(String email);
 
-    Page<User> getAllByName(Pageable pageable, String name);
+    Slice<User> getAllByName(Pageable pageable, String name);
+
+    @Query("select u.id as id, u.name as name, u.email as email from User u " +
+            "where u.name = :name and u.id > :afterId order by u.id")
+    Slice<UserView> findViewsByNameAfter(@Param("name") String name, @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    long countByName(String name);
 
     Boolean existsByEmail(String email);
 }
@@ -0,0 +1,14 @@
+package ua.epam.mishchenko.ticketbooking.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.WaitlistEntry;
+
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends CrudRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findAllByEventIdAndCategoryOrderByIdAsc(Long eventId, Category category);
+}
@@ -0,0 +1,27 @@
+package ua.epam.mishchenko.ticketbooking.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * The projection of everything a booking needs to know about the user account, the event and the places,
+ * fetched with one statement.
+ */
+public interface BookingSnapshot {
+
+    Long getAccountId();
+
+    BigDecimal getMoney();
+
+    String getUserName();
+
+    String getUserEmail();
+
+    String getEventTitle();
+
+    Date getEventDate();
+
+    BigDecimal getTicketPrice();
+
+    Boolean getPlaceTaken();
+}
@@ -0,0 +1,38 @@
+package ua.epam.mishchenko.ticketbooking.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * The read-only projection of an event for the list views.
+ */
+public interface EventView {
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    Long getId();
+
+    /**
+     * Gets title.
+     *
+     * @return the title
+     */
+    String getTitle();
+
+    /**
+     * Gets date.
+     *
+     * @return the date
+     */
+    Date getDate();
+
+    /**
+     * Gets ticket price.
+     *
+     * @return the ticket price
+     */
+    BigDecimal getTicketPrice();
+}
@@ -0,0 +1,23 @@
+package ua.epam.mishchenko.ticketbooking.repository.projection;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+
+/**
+ * The projection of a booked seat.
+ */
+public interface SeatView {
+
+    /**
+     * Gets place.
+     *
+     * @return the place
+     */
+    Integer getPlace();
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    Category getCategory();
+}
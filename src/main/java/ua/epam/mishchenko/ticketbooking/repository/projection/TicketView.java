@@ -0,0 +1,44 @@
+package ua.epam.mishchenko.ticketbooking.repository.projection;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+
+/**
+ * The read-only projection of a ticket for the list views, the user and the event are referenced by id.
+ */
+public interface TicketView {
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    Long getId();
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    Long getUserId();
+
+    /**
+     * Gets event id.
+     *
+     * @return the event id
+     */
+    Long getEventId();
+
+    /**
+     * Gets place.
+     *
+     * @return the place
+     */
+    Integer getPlace();
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    Category getCategory();
+}
@@ -0,0 +1,28 @@
+package ua.epam.mishchenko.ticketbooking.repository.projection;
+
+/**
+ * The read-only projection of a user for the list views.
+ */
+public interface UserView {
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    Long getId();
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Gets email.
+     *
+     * @return the email
+     */
+    String getEmail();
+}
@@ -0,0 +1,70 @@
+package ua.epam.mishchenko.ticketbooking.service;
+
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The interface Account ledger service.
+ * In the ledger mode the refills and the debits of the user accounts append immutable ledger entries
+ * instead of updating the account rows, and the entries are compacted into the accounts in the background.
+ */
+public interface AccountLedgerService {
+
+    /**
+     * Checks whether the ledger mode is enabled.
+     *
+     * @return the boolean
+     */
+    boolean isEnabled();
+
+    /**
+     * Appends a refill entry to the existing account of the user.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     * @return the balance after the refill
+     */
+    BigDecimal refill(long userId, BigDecimal amount);
+
+    /**
+     * Appends a refill entry per refill to the existing accounts of the users.
+     *
+     * @param refills the refills
+     */
+    void refillAll(List<AccountRefill> refills);
+
+    /**
+     * Appends a debit entry if the balance of the user account covers the amount.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     * @return whether the account has been debited
+     */
+    boolean debit(long userId, BigDecimal amount);
+
+    /**
+     * Appends the debit entries if the balances of all the user accounts cover their amounts.
+     *
+     * @param amountsByUserId the amounts by user id
+     * @return whether every account has been debited, the caller rolls the transaction back otherwise
+     */
+    boolean debitAll(Map<Long, BigDecimal> amountsByUserId);
+
+    /**
+     * Gets the balance of the user account.
+     *
+     * @param userId the user id
+     * @return the balance, null if the account does not exist
+     */
+    BigDecimal getBalance(long userId);
+
+    /**
+     * Compacts the ledger entries of the accounts having enough of them into the accounts.
+     *
+     * @return the number of compacted accounts
+     */
+    int compact();
+}
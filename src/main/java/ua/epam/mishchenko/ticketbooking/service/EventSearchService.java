@@ -0,0 +1,50 @@
+package ua.epam.mishchenko.ticketbooking.service;
+
+import ua.epam.mishchenko.ticketbooking.model.Event;
+
+import java.util.List;
+
+/**
+ * The interface Event search service.
+ * The events are searched by a prefix or a part of their titles in the in-memory title index,
+ * the index is built from the events on the start and updated by the writes of the events.
+ * Until the index is built the events are searched in the database.
+ */
+public interface EventSearchService {
+
+    /**
+     * Searches the events by the title, the best matches first.
+     *
+     * @param query    the prefix or the part of the title
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the matching events
+     */
+    List<Event> searchEvents(String query, int pageSize, int pageNum);
+
+    /**
+     * Puts the event into the index or replaces its title there.
+     *
+     * @param event the saved event
+     */
+    void indexEvent(Event event);
+
+    /**
+     * Removes the event from the index.
+     *
+     * @param eventId the event id
+     */
+    void removeEvent(long eventId);
+
+    /**
+     * Builds the index from the events again.
+     */
+    void rebuild();
+
+    /**
+     * Checks whether the index is built, the events are searched in the database otherwise.
+     *
+     * @return the boolean
+     */
+    boolean isReady();
+}
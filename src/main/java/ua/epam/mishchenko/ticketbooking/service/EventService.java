@@ -1,6 +1,9 @@
 package ua.epam.mishchenko.ticketbooking.service;
 
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.SeatAvailability;
 import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
 
 import java.util.Date;
 import java.util.List;
@@ -18,6 +21,14 @@ public interface EventService {
      */
     Event getEventById(long eventId);
 
+    /**
+     * Gets seat availability.
+     *
+     * @param eventId the event id
+     * @return the seat availability, null if there is no such event
+     */
+    SeatAvailability getSeatAvailability(long eventId);
+
     /**
      * Gets events by title.
      *
@@ -28,6 +39,24 @@ public interface EventService {
      */
     List<Event> getEventsByTitle(String title, int pageSize, int pageNum);
 
+    /**
+     * Gets events by title ordered by id, a page after the cursor.
+     *
+     * @param title    the title
+     * @param pageSize the page size
+     * @param after    the cursor of the page, null for the first page
+     * @return the events by title
+     */
+    CursorPage<EventView> getEventsByTitle(String title, int pageSize, String after);
+
+    /**
+     * Count events by title, the total may be behind the listing by up to the refresh period of the counts.
+     *
+     * @param title the title
+     * @return the approximate number of the events
+     */
+    Long countEventsByTitle(String title);
+
     /**
      * Gets events for day.
      *
@@ -38,6 +67,35 @@ public interface EventService {
      */
     List<Event> getEventsForDay(Date day, int pageSize, int pageNum);
 
+    /**
+     * Gets events for day ordered by id, a page after the cursor.
+     *
+     * @param day      the day
+     * @param pageSize the page size
+     * @param after    the cursor of the page, null for the first page
+     * @return the events for day
+     */
+    CursorPage<EventView> getEventsForDay(Date day, int pageSize, String after);
+
+    /**
+     * Count events for day, the total may be behind the listing by up to the refresh period of the counts.
+     *
+     * @param day the day
+     * @return the approximate number of the events
+     */
+    Long countEventsForDay(Date day);
+
+    /**
+     * Gets events between the moments ordered by date and id.
+     *
+     * @param from     the moment to start from, inclusive
+     * @param to       the moment to end at, exclusive
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the events between the moments
+     */
+    List<Event> getEventsBetween(Date from, Date to, int pageSize, int pageNum);
+
     /**
      * Create event event.
      *
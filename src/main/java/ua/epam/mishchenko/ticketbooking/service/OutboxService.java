@@ -0,0 +1,42 @@
+package ua.epam.mishchenko.ticketbooking.service;
+
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+
+import java.util.List;
+
+/**
+ * The interface Outbox service.
+ * The bookings, the cancellations and the refills are written to the outbox in their own transactions
+ * and relayed to the outbox sinks in the background, so the downstream systems do not poll the tickets.
+ */
+public interface OutboxService {
+
+    /**
+     * Checks whether the outbox is enabled, the events are neither written nor relayed otherwise.
+     *
+     * @return the boolean
+     */
+    boolean isEnabled();
+
+    /**
+     * Writes a booking event per ticket in the transaction of the caller.
+     *
+     * @param tickets the booked tickets
+     */
+    void recordBooked(List<Ticket> tickets);
+
+    /**
+     * Writes a refill event per refill in the transaction of the caller.
+     *
+     * @param refills the refills
+     */
+    void recordRefilled(List<AccountRefill> refills);
+
+    /**
+     * Publishes the written events to the sinks in batches and deletes them.
+     *
+     * @return the number of published events
+     */
+    int relay();
+}
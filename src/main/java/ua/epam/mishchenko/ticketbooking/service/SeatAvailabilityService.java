@@ -0,0 +1,80 @@
+package ua.epam.mishchenko.ticketbooking.service;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * The interface Seat availability service.
+ */
+public interface SeatAvailabilityService {
+
+    /**
+     * Checks whether the place is already booked.
+     * A negative answer is not a guarantee, the database stays the source of truth.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     * @return the boolean
+     */
+    boolean isTaken(long eventId, int place, Category category);
+
+    /**
+     * Checks whether the place is one of the places an event can have, from 0 below the configured max number
+     * of places, so the places kept in memory are bounded.
+     *
+     * @param place the place
+     * @return the boolean
+     */
+    boolean isValidPlace(int place);
+
+    /**
+     * Marks the place as booked once the current transaction commits.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    void markBooked(long eventId, int place, Category category);
+
+    /**
+     * Marks the place as free once the current transaction commits.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    void markFree(long eventId, int place, Category category);
+
+    /**
+     * Gets a copy of the booked places of the event by category.
+     *
+     * @param eventId the event id
+     * @return the booked places
+     */
+    Map<Category, BitSet> getBookedPlaces(long eventId);
+
+    /**
+     * Finds the free places to book together, the leftmost contiguous run of places if there is one,
+     * otherwise the free places spanning the fewest seats. A place booked in any category is not free,
+     * as the booking checks the place numbers of an event regardless of the category.
+     * The places are numbered from 1 to the configured number of places.
+     *
+     * @param eventId  the event id
+     * @param count    the number of places
+     * @param excluded the free places which can not be booked, such as the places held by other users
+     * @return the places in ascending order, empty if there are not enough free places
+     */
+    List<Integer> findBestAvailable(long eventId, int count, IntPredicate excluded);
+
+    /**
+     * Drops the seats of the event, they will be hydrated again on the next access.
+     *
+     * @param eventId the event id
+     */
+    void evict(long eventId);
+}
@@ -0,0 +1,67 @@
+package ua.epam.mishchenko.ticketbooking.service;
+
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
+
+import java.util.List;
+
+/**
+ * The interface Seat hold service.
+ * Holds live in memory only, holding a seat never touches the database.
+ */
+public interface SeatHoldService {
+
+    /**
+     * Holds the seats for the user until the hold is confirmed, released or expired.
+     * Either all of the seats are held or none of them.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param seats   the seats
+     * @return the seat hold, null if the seats can not be held
+     */
+    SeatHold hold(long userId, long eventId, List<SeatRequest> seats);
+
+    /**
+     * Claims the hold for confirmation, the claimed hold does not expire until it is completed or restored.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the seat hold
+     * @throws RuntimeException if the hold does not exist, belongs to another user, has expired or is claimed
+     */
+    SeatHold claim(long holdId, long userId);
+
+    /**
+     * Completes the claimed hold and frees its seats.
+     *
+     * @param holdId the hold id
+     */
+    void complete(long holdId);
+
+    /**
+     * Returns the claimed hold to the held state, so the user can try to confirm it again before it expires.
+     *
+     * @param holdId the hold id
+     */
+    void restore(long holdId);
+
+    /**
+     * Releases the hold of the user.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the boolean
+     */
+    boolean release(long holdId, long userId);
+
+    /**
+     * Checks whether the place is held by another user.
+     *
+     * @param eventId the event id
+     * @param place   the place
+     * @param userId  the user id
+     * @return the boolean
+     */
+    boolean isHeldByAnotherUser(long eventId, int place, long userId);
+}
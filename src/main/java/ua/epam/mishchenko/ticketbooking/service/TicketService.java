@@ -1,9 +1,13 @@
 package ua.epam.mishchenko.ticketbooking.service;
 
+import ua.epam.mishchenko.ticketbooking.dto.BookingRequest;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Event;
 import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.repository.projection.TicketView;
 
 import java.util.List;
 
@@ -23,6 +27,47 @@ public interface TicketService {
      */
     Ticket bookTicket(long userId, long eventId, int place, Category category);
 
+    /**
+     * Book tickets. Either all of the seats are booked or none of them.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param seats   the seats
+     * @return the booked tickets, empty list if nothing has been booked
+     */
+    List<Ticket> bookTickets(long userId, long eventId, List<SeatRequest> seats);
+
+    /**
+     * Books the tickets of several users and events in one transaction.
+     * Every request is booked or rejected on its own, a rejected request does not fail the others.
+     *
+     * @param requests the booking requests
+     * @return the booked tickets in the order of the requests, null for every request which has not been booked
+     */
+    List<Ticket> bookTicketBatch(List<BookingRequest> requests);
+
+    /**
+     * Books the seats held by the user. The hold is completed once the tickets are booked,
+     * otherwise it stays held until it expires.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the booked tickets, empty list if nothing has been booked
+     */
+    List<Ticket> bookHeldTickets(long holdId, long userId);
+
+    /**
+     * Books the best available places of the category, contiguous if possible, otherwise the nearest ones.
+     * The places are booked all at once or not at all.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @param count    the number of places
+     * @return the booked tickets, empty list if nothing has been booked
+     */
+    List<Ticket> bookBestAvailable(long userId, long eventId, Category category, int count);
+
     /**
      * Gets booked tickets.
      *
@@ -33,6 +78,24 @@ public interface TicketService {
      */
     List<Ticket> getBookedTickets(User user, int pageSize, int pageNum);
 
+    /**
+     * Gets booked tickets ordered by id, a page after the cursor.
+     *
+     * @param user     the user
+     * @param pageSize the page size
+     * @param after    the cursor of the page, null for the first page
+     * @return the booked tickets
+     */
+    CursorPage<TicketView> getBookedTickets(User user, int pageSize, String after);
+
+    /**
+     * Count booked tickets, the total may be behind the listing by up to the refresh period of the counts.
+     *
+     * @param user the user
+     * @return the approximate number of the booked tickets
+     */
+    Long countBookedTickets(User user);
+
     /**
      * Gets booked tickets.
      *
@@ -43,6 +106,24 @@ public interface TicketService {
      */
     List<Ticket> getBookedTickets(Event event, int pageSize, int pageNum);
 
+    /**
+     * Gets booked tickets ordered by id, a page after the cursor.
+     *
+     * @param event    the event
+     * @param pageSize the page size
+     * @param after    the cursor of the page, null for the first page
+     * @return the booked tickets
+     */
+    CursorPage<TicketView> getBookedTickets(Event event, int pageSize, String after);
+
+    /**
+     * Count booked tickets, the total may be behind the listing by up to the refresh period of the counts.
+     *
+     * @param event the event
+     * @return the approximate number of the booked tickets
+     */
+    Long countBookedTickets(Event event);
+
     /**
      * Cancel ticket boolean.
      *
@@ -50,4 +131,20 @@ public interface TicketService {
      * @return the boolean
      */
     boolean cancelTicket(long ticketId);
+
+    /**
+     * Cancel tickets by event list.
+     *
+     * @param eventId the event id
+     * @return the cancelled tickets
+     */
+    List<Ticket> cancelTicketsByEvent(long eventId);
+
+    /**
+     * Cancel tickets by user list.
+     *
+     * @param userId the user id
+     * @return the cancelled tickets
+     */
+    List<Ticket> cancelTicketsByUser(long userId);
 }
\ No newline at end of file
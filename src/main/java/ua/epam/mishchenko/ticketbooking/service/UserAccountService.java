@@ -1,10 +1,15 @@
 package ua.epam.mishchenko.ticketbooking.service;
 
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.dto.RefillResult;
 import ua.epam.mishchenko.ticketbooking.model.UserAccount;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface UserAccountService {
 
     UserAccount refillAccount(long userId, BigDecimal money);
+
+    List<RefillResult> refillAccounts(List<AccountRefill> refills);
 }
@@ -1,6 +1,8 @@
 package ua.epam.mishchenko.ticketbooking.service;
 
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.repository.projection.UserView;
 
 import java.util.List;
 
@@ -35,6 +37,24 @@ public interface UserService {
      */
     List<User> getUsersByName(String name, int pageSize, int pageNum);
 
+    /**
+     * Gets users by name ordered by id, a page after the cursor.
+     *
+     * @param name     the name
+     * @param pageSize the page size
+     * @param after    the cursor of the page, null for the first page
+     * @return the users by name
+     */
+    CursorPage<UserView> getUsersByName(String name, int pageSize, String after);
+
+    /**
+     * Count users by name, the total may be behind the listing by up to the refresh period of the counts.
+     *
+     * @param name the name
+     * @return the approximate number of the users
+     */
+    Long countUsersByName(String name);
+
     /**
      * Create user user.
      *
@@ -0,0 +1,39 @@
+package ua.epam.mishchenko.ticketbooking.service;
+
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.WaitlistEntry;
+
+/**
+ * The interface Waitlist service.
+ * Every event and category has its own first in, first out waitlist. A freed place is offered to the waiting users
+ * in order and booked for the first one who can pay for it.
+ */
+public interface WaitlistService {
+
+    /**
+     * Puts the user at the end of the waitlist of the event and the category.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @return the waitlist entry, null if the user can not join the waitlist
+     */
+    WaitlistEntry join(long userId, long eventId, Category category);
+
+    /**
+     * Removes the entry from its waitlist.
+     *
+     * @param entryId the entry id
+     * @return the boolean
+     */
+    boolean leave(long entryId);
+
+    /**
+     * Offers the freed place to the waitlist of its event and category asynchronously.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    void offer(long eventId, int place, Category category);
+}
@@ -0,0 +1,204 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.model.LedgerEntryKind;
+import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+import ua.epam.mishchenko.ticketbooking.repository.LedgerEntryJdbcRepository;
+import ua.epam.mishchenko.ticketbooking.service.AccountLedgerService;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Account ledger service.
+ * The compaction runs on a background thread every compaction period and folds the accounts
+ * with at least the min number of pending entries, a batch of accounts per statement.
+ */
+@Service
+public class AccountLedgerServiceImpl implements AccountLedgerService, DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(AccountLedgerServiceImpl.class);
+
+    private final LedgerEntryJdbcRepository ledgerEntryJdbcRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Whether the ledger mode is enabled.
+     */
+    private final boolean enabled;
+
+    /**
+     * The min number of pending entries of an account worth compacting.
+     */
+    private final int compactionMinEntries;
+
+    /**
+     * The max number of accounts compacted by one statement.
+     */
+    private final int compactionBatchSize;
+
+    /**
+     * The compaction thread, null if the compaction is not scheduled.
+     */
+    private final ScheduledExecutorService compactor;
+
+    /**
+     * Instantiates a new Account ledger service.
+     *
+     * @param ledgerEntryJdbcRepository the ledger entry jdbc repository
+     * @param entityManagerFactory      the entity manager factory
+     * @param enabled                   whether the ledger mode is enabled
+     * @param compactionMillis          the compaction period, the compaction is not scheduled if not positive
+     * @param compactionMinEntries      the min number of pending entries of an account worth compacting
+     * @param compactionBatchSize       the max number of accounts compacted by one statement
+     */
+    public AccountLedgerServiceImpl(LedgerEntryJdbcRepository ledgerEntryJdbcRepository,
+                                    EntityManagerFactory entityManagerFactory,
+                                    @Value("${booking.ledger.enabled:false}") boolean enabled,
+                                    @Value("${booking.ledger.compaction-millis:60000}") long compactionMillis,
+                                    @Value("${booking.ledger.compaction-min-entries:50}") int compactionMinEntries,
+                                    @Value("${booking.ledger.compaction-batch-size:500}") int compactionBatchSize) {
+        this.ledgerEntryJdbcRepository = ledgerEntryJdbcRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        this.compactionMinEntries = Math.max(1, compactionMinEntries);
+        this.compactionBatchSize = Math.max(1, compactionBatchSize);
+        if (enabled && compactionMillis > 0) {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ledger-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compactSafely, compactionMillis, compactionMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.compactor = null;
+        }
+        log.info("The account ledger is enabled: {}, compaction every {} ms", enabled, compactionMillis);
+    }
+
+    /**
+     * Is enabled boolean.
+     *
+     * @return the boolean
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Refill big decimal.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     * @return the balance
+     */
+    @Override
+    public BigDecimal refill(long userId, BigDecimal amount) {
+        ledgerEntryJdbcRepository.append(userId, amount, LedgerEntryKind.REFILL);
+        return ledgerEntryJdbcRepository.getBalance(userId);
+    }
+
+    /**
+     * Refill all.
+     *
+     * @param refills the refills
+     */
+    @Override
+    public void refillAll(List<AccountRefill> refills) {
+        ledgerEntryJdbcRepository.appendAll(refills, LedgerEntryKind.REFILL);
+    }
+
+    /**
+     * Debit boolean.
+     *
+     * @param userId the user id
+     * @param amount the amount
+     * @return the boolean
+     */
+    @Override
+    public boolean debit(long userId, BigDecimal amount) {
+        return ledgerEntryJdbcRepository.debit(userId, amount);
+    }
+
+    /**
+     * Debit all boolean.
+     *
+     * @param amountsByUserId the amounts by user id
+     * @return the boolean
+     */
+    @Override
+    public boolean debitAll(Map<Long, BigDecimal> amountsByUserId) {
+        return ledgerEntryJdbcRepository.debitAll(amountsByUserId);
+    }
+
+    /**
+     * Gets balance.
+     *
+     * @param userId the user id
+     * @return the balance
+     */
+    @Override
+    public BigDecimal getBalance(long userId) {
+        return ledgerEntryJdbcRepository.getBalance(userId);
+    }
+
+    /**
+     * Compact int.
+     *
+     * @return the number of compacted accounts
+     */
+    @Override
+    public int compact() {
+        int compacted = 0;
+        List<Long> userIds;
+        List<Long> accountIds;
+        do {
+            userIds = ledgerEntryJdbcRepository.findUserIdsToCompact(compactionMinEntries, compactionBatchSize);
+            accountIds = ledgerEntryJdbcRepository.compact(userIds);
+            Cache cache = entityManagerFactory.getCache();
+            for (Long accountId : accountIds) {
+                cache.evict(UserAccount.class, accountId);
+            }
+            compacted += accountIds.size();
+        } while (userIds.size() == compactionBatchSize && !accountIds.isEmpty());
+        if (compacted > 0) {
+            log.info("{} user accounts compacted", compacted);
+        }
+        return compacted;
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.warn("Can not to compact the account ledger", e);
+        }
+    }
+
+    /**
+     * Stops the compaction.
+     */
+    @Override
+    public void destroy() {
+        if (compactor != null) {
+            compactor.shutdown();
+        }
+    }
+}
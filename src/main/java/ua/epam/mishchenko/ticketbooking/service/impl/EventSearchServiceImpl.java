@@ -0,0 +1,258 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.epam.mishchenko.ticketbooking.booking.TitleIndex;
+import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
+import ua.epam.mishchenko.ticketbooking.service.EventSearchService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Event search service.
+ * The index is built on a background thread on the start and then every rebuild period, so the events
+ * written by other instances get into it. The writes of the events during a build go to both the current
+ * and the building index, the events removed during a build are not taken from the loaded events.
+ * Until the first build the events are searched by the trigram index of the titles in the database.
+ */
+@Service
+public class EventSearchServiceImpl implements EventSearchService, DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(EventSearchServiceImpl.class);
+
+    /**
+     * The event repository.
+     */
+    private final EventRepository eventRepository;
+
+    /**
+     * The lock of the writes of the indexes.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The rebuild thread, null if the rebuild is not scheduled.
+     */
+    private final ScheduledExecutorService rebuilder;
+
+    /**
+     * The built index, null until the first build.
+     */
+    private volatile TitleIndex index;
+
+    /**
+     * The index being built, null if no build is running, guarded by the lock.
+     */
+    private TitleIndex building;
+
+    /**
+     * The ids of the events removed during the running build, guarded by the lock.
+     */
+    private Set<Long> removedWhileBuilding;
+
+    /**
+     * Instantiates a new Event search service.
+     *
+     * @param eventRepository the event repository
+     * @param rebuildMillis   the rebuild period, the index is built on demand only if not positive
+     */
+    public EventSearchServiceImpl(EventRepository eventRepository,
+                                  @Value("${booking.search.rebuild-millis:600000}") long rebuildMillis) {
+        this.eventRepository = eventRepository;
+        if (rebuildMillis > 0) {
+            this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-search-index");
+                thread.setDaemon(true);
+                return thread;
+            });
+            rebuilder.scheduleWithFixedDelay(this::rebuildSafely, 0, rebuildMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.rebuilder = null;
+        }
+    }
+
+    /**
+     * Searches the events by the title, the best matches first.
+     * The ids of a page are taken from the index and the events of the page are read by id.
+     *
+     * @param query    the prefix or the part of the title
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the matching events
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> searchEvents(String query, int pageSize, int pageNum) {
+        log.info("Searching events by the title {} with page size {} and number of page {}",
+                query, pageSize, pageNum);
+        try {
+            if (query == null || query.trim().isEmpty() || pageSize <= 0 || pageNum <= 0) {
+                log.warn("The search of the title {} with page size {} and number of page {} is not valid",
+                        query, pageSize, pageNum);
+                return new ArrayList<>();
+            }
+            long offset = (long) (pageNum - 1) * pageSize;
+            TitleIndex current = index;
+            List<Event> events = current == null
+                    ? searchInDatabase(TitleIndex.normalize(query), pageSize, offset)
+                    : searchInIndex(current, query, pageSize, offset);
+            log.info("{} events found by the title {} with page size {} and number of page {}",
+                    events.size(), query, pageSize, pageNum);
+            return events;
+        } catch (RuntimeException e) {
+            log.warn("Can not to search events by the title {}", query, e);
+            return new ArrayList<>();
+        }
+    }
+
+    private List<Event> searchInIndex(TitleIndex current, String query, int pageSize, long offset) {
+        List<Long> eventIds = current.search(query);
+        if (offset >= eventIds.size()) {
+            return new ArrayList<>();
+        }
+        List<Long> pageIds = eventIds.subList((int) offset, (int) Math.min(eventIds.size(), offset + pageSize));
+        Map<Long, Event> eventsById = new HashMap<>();
+        for (Event event : eventRepository.findAllById(pageIds)) {
+            eventsById.put(event.getId(), event);
+        }
+        List<Event> events = new ArrayList<>(pageIds.size());
+        for (Long eventId : pageIds) {
+            Event event = eventsById.get(eventId);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Searches the events in the database with the ranking of the index.
+     * A query shorter than a trigram matches the starts of the words only, as in the index.
+     *
+     * @param query    the normalized query
+     * @param pageSize the page size
+     * @param offset   the number of the skipped events
+     * @return the matching events
+     */
+    private List<Event> searchInDatabase(String query, int pageSize, long offset) {
+        String escaped = query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        String prefix = escaped + "%";
+        String pattern = query.length() < 3 ? prefix : "%" + escaped + "%";
+        return eventRepository.searchByTitle(query, pattern, prefix, "% " + prefix, pageSize, offset);
+    }
+
+    /**
+     * Puts the event into the index or replaces its title there.
+     *
+     * @param event the saved event
+     */
+    @Override
+    public void indexEvent(Event event) {
+        if (event == null || event.getId() == null || event.getTitle() == null) {
+            return;
+        }
+        synchronized (lock) {
+            TitleIndex current = index;
+            if (current != null) {
+                current.put(event.getId(), event.getTitle());
+            }
+            if (building != null) {
+                building.put(event.getId(), event.getTitle());
+                removedWhileBuilding.remove(event.getId());
+            }
+        }
+    }
+
+    /**
+     * Removes the event from the index.
+     *
+     * @param eventId the event id
+     */
+    @Override
+    public void removeEvent(long eventId) {
+        synchronized (lock) {
+            TitleIndex current = index;
+            if (current != null) {
+                current.remove(eventId);
+            }
+            if (building != null) {
+                building.remove(eventId);
+                removedWhileBuilding.add(eventId);
+            }
+        }
+    }
+
+    /**
+     * Builds the index from the events again and replaces the current one.
+     * The loaded events written or removed during the build are skipped, their writes are already applied.
+     */
+    @Override
+    public synchronized void rebuild() {
+        TitleIndex built = new TitleIndex();
+        synchronized (lock) {
+            building = built;
+            removedWhileBuilding = new HashSet<>();
+        }
+        try {
+            List<EventView> events = eventRepository.findAllViews();
+            synchronized (lock) {
+                for (EventView event : events) {
+                    if (!removedWhileBuilding.contains(event.getId()) && !built.contains(event.getId())) {
+                        built.put(event.getId(), event.getTitle());
+                    }
+                }
+                index = built;
+            }
+            log.info("The title index of {} events is built", built.size());
+        } finally {
+            synchronized (lock) {
+                if (building == built) {
+                    building = null;
+                    removedWhileBuilding = null;
+                }
+            }
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Can not to build the title index", e);
+        }
+    }
+
+    /**
+     * Checks whether the index is built.
+     *
+     * @return the boolean
+     */
+    @Override
+    public boolean isReady() {
+        return index != null;
+    }
+
+    @Override
+    public void destroy() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+}
@@ -2,22 +2,51 @@ package ua.epam.mishchenko.ticketbooking.service.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.epam.mishchenko.ticketbooking.booking.ApproximateCounts;
+import ua.epam.mishchenko.ticketbooking.booking.EventCalendar;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.SeatAvailability;
 import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.repository.BulkDeleteRepository;
 import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
+import ua.epam.mishchenko.ticketbooking.service.EventSearchService;
 import ua.epam.mishchenko.ticketbooking.service.EventService;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The type Event service.
+ * The calendar of the upcoming events is built on a background thread, the listings read the events
+ * by the index on the date until it is built. The writes of the events during a build go to both the current
+ * and the building calendar, the events written or removed during a build are not taken from the loaded events.
  */
 @Service
-public class EventServiceImpl implements EventService {
+public class EventServiceImpl implements EventService, DisposableBean {
 
     /**
      * The constant log.
@@ -29,13 +58,121 @@ public class EventServiceImpl implements EventService {
      */
     private final EventRepository eventRepository;
 
+    /**
+     * The seat availability service.
+     */
+    private final SeatAvailabilityService seatAvailabilityService;
+
+    /**
+     * The bulk delete repository.
+     */
+    private final BulkDeleteRepository bulkDeleteRepository;
+
+    /**
+     * The transaction template.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The second level cache.
+     */
+    private final Cache cache;
+
+    /**
+     * The approximate counts.
+     */
+    private final ApproximateCounts approximateCounts;
+
+    /**
+     * The event search service.
+     */
+    private final EventSearchService eventSearchService;
+
+    /**
+     * The time zone of the days.
+     */
+    private final ZoneId zone;
+
+    /**
+     * The number of upcoming days kept by the calendar, the calendar is disabled if not positive.
+     */
+    private final int calendarDays;
+
+    /**
+     * The period the calendar is built again after in milliseconds.
+     */
+    private final long calendarRefreshMillis;
+
+    /**
+     * The calendar build thread, null if the calendar is disabled.
+     */
+    private final ExecutorService calendarBuilder;
+
+    /**
+     * Whether a build of the calendar is submitted and has not finished yet.
+     */
+    private final AtomicBoolean calendarBuildPending = new AtomicBoolean();
+
+    /**
+     * The lock of the writes of the calendars.
+     */
+    private final Object calendarLock = new Object();
+
+    /**
+     * The calendar of the upcoming events, null until the first build.
+     */
+    private volatile EventCalendar calendar;
+
+    /**
+     * The calendar being built, null if no build is running, guarded by the calendar lock.
+     */
+    private EventCalendar building;
+
+    /**
+     * The ids of the events written or removed during the running build, guarded by the calendar lock.
+     */
+    private Set<Long> changedWhileBuilding;
+
     /**
      * Instantiates a new EventServiceImpl.
      *
-     * @param eventRepository the event repository
+     * @param eventRepository         the event repository
+     * @param seatAvailabilityService the seat availability service
+     * @param bulkDeleteRepository    the bulk delete repository
+     * @param transactionManager      the transaction manager
+     * @param entityManagerFactory    the entity manager factory
+     * @param approximateCounts       the approximate counts
+     * @param eventSearchService      the event search service
+     * @param zone                    the time zone of the days, the system one if empty
+     * @param calendarDays            the number of upcoming days kept by the calendar
+     * @param calendarRefreshMillis   the period the calendar is built again after
      */
-    public EventServiceImpl(EventRepository eventRepository) {
+    public EventServiceImpl(EventRepository eventRepository, SeatAvailabilityService seatAvailabilityService,
+                            BulkDeleteRepository bulkDeleteRepository, PlatformTransactionManager transactionManager,
+                            EntityManagerFactory entityManagerFactory, ApproximateCounts approximateCounts,
+                            EventSearchService eventSearchService,
+                            @Value("${booking.calendar.zone:}") String zone,
+                            @Value("${booking.calendar.days:90}") int calendarDays,
+                            @Value("${booking.calendar.refresh-millis:60000}") long calendarRefreshMillis) {
         this.eventRepository = eventRepository;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.bulkDeleteRepository = bulkDeleteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = entityManagerFactory.getCache();
+        this.approximateCounts = approximateCounts;
+        this.eventSearchService = eventSearchService;
+        this.zone = zone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.calendarDays = calendarDays;
+        this.calendarRefreshMillis = calendarRefreshMillis;
+        if (calendarDays > 0) {
+            this.calendarBuilder = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-calendar");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.calendarBuilder = null;
+        }
     }
 
     /**
@@ -58,6 +195,31 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * Gets seat availability.
+     * The booked places are served from the cached seat bitsets, which are updated on every booking
+     * and cancellation, so no ticket is loaded.
+     *
+     * @param eventId the event id
+     * @return the seat availability
+     */
+    @Override
+    public SeatAvailability getSeatAvailability(long eventId) {
+        log.info("Finding the seat availability of the event with id: {}", eventId);
+        try {
+            if (!eventRepository.existsById(eventId)) {
+                throw new RuntimeException("Can not to find an event by id: " + eventId);
+            }
+            SeatAvailability availability = new SeatAvailability(eventId,
+                    seatAvailabilityService.getBookedPlaces(eventId));
+            log.info("The seat availability of the event with id {} successfully found", eventId);
+            return availability;
+        } catch (RuntimeException e) {
+            log.warn("Can not to find the seat availability of the event with id: {}", eventId, e);
+            return null;
+        }
+    }
+
     /**
      * Gets events by title.
      *
@@ -67,6 +229,7 @@ public class EventServiceImpl implements EventService {
      * @return the events by title
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Event> getEventsByTitle(String title, int pageSize, int pageNum) {
         log.warn("Finding all events by title {} with page size {} and number of page {}",
                 title, pageSize, pageNum);
@@ -75,7 +238,7 @@ public class EventServiceImpl implements EventService {
                 log.warn("The title can not be empty");
                 return new ArrayList<>();
             }
-            Page<Event> eventsByTitle = eventRepository.getAllByTitle(PageRequest.of(pageNum - 1, pageSize), title);
+            Slice<Event> eventsByTitle = eventRepository.getAllByTitle(PageRequest.of(pageNum - 1, pageSize), title);
             if (!eventsByTitle.hasContent()) {
                 throw new RuntimeException("Can not to find a list of events by title: " + title);
             }
@@ -88,15 +251,68 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * Gets events by title.
+     * The page is read by the index on the title and the id from the cursor on, without a count,
+     * and projected to the views without loading the entities.
+     *
+     * @param title    the title
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the events by title
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EventView> getEventsByTitle(String title, int pageSize, String after) {
+        log.info("Finding events by title {} with page size {} after cursor {}", title, pageSize, after);
+        try {
+            if (title.isEmpty()) {
+                log.warn("The title can not be empty");
+                return CursorPage.empty();
+            }
+            Slice<EventView> eventsByTitle = eventRepository.findViewsByTitleAfter(
+                    title, CursorPage.decode(after), PageRequest.of(0, pageSize));
+            log.info("{} events found by title {} after cursor {}", eventsByTitle.getNumberOfElements(), title, after);
+            return CursorPage.of(eventsByTitle, EventView::getId);
+        } catch (RuntimeException e) {
+            log.warn("Can not to find a list of events by title {} after cursor {}", title, after, e);
+            return CursorPage.empty();
+        }
+    }
+
+    /**
+     * Count events by title.
+     * The total is cached and counted again in the background, so it may be behind the listing.
+     *
+     * @param title the title
+     * @return the approximate number of the events, null if it can not be counted
+     */
+    @Override
+    public Long countEventsByTitle(String title) {
+        try {
+            if (title.isEmpty()) {
+                log.warn("The title can not be empty");
+                return null;
+            }
+            return approximateCounts.get("events.title:" + title, () -> eventRepository.countByTitle(title));
+        } catch (RuntimeException e) {
+            log.warn("Can not to count events by title {}", title, e);
+            return null;
+        }
+    }
+
     /**
      * Gets events for day.
+     * The events of an upcoming day are paged by the ids of the calendar and read by the primary key,
+     * the events of another day are read by the index on the date. The events are ordered by id.
      *
-     * @param day      the day
+     * @param day      a moment of the day in the time zone of the calendar
      * @param pageSize the page size
      * @param pageNum  the page num
      * @return the events for day
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Event> getEventsForDay(Date day, int pageSize, int pageNum) {
         log.info("Finding all events for day {} with page size {} and number of page {}",
                 day, pageSize, pageNum);
@@ -105,20 +321,261 @@ public class EventServiceImpl implements EventService {
                 log.warn("The day can not be null");
                 return new ArrayList<>();
             }
-            Page<Event> eventsByTitle = eventRepository.getAllByDate(PageRequest.of(pageNum - 1, pageSize), day);
-            if (!eventsByTitle.hasContent()) {
+            List<Event> eventsForDay;
+            EventCalendar calendar = getCalendar();
+            LocalDate localDay = EventCalendar.toDay(day, zone);
+            if (calendar != null && calendar.covers(localDay)) {
+                long[] eventIds = calendar.getEventIds(localDay);
+                int from = (int) Math.min((long) (pageNum - 1) * pageSize, eventIds.length);
+                eventsForDay = findAllByIds(eventIds, from, Math.min(from + pageSize, eventIds.length));
+            } else {
+                eventsForDay = eventRepository.getAllByDateGreaterThanEqualAndDateLessThanOrderById(
+                        EventCalendar.startOf(localDay, zone), EventCalendar.startOf(localDay.plusDays(1), zone),
+                        PageRequest.of(pageNum - 1, pageSize)).getContent();
+            }
+            if (eventsForDay.isEmpty()) {
                 throw new RuntimeException("Can not to find a list of events for day: " + day);
             }
             log.info("All events successfully found for day {} with page size {} and number of page {}",
                     day, pageSize, pageNum);
 
-            return eventsByTitle.getContent();
+            return eventsForDay;
         } catch (RuntimeException e) {
             log.warn("Can not to find a list of events for day {}", day, e);
             return new ArrayList<>();
         }
     }
 
+    private List<Event> findAllByIds(long[] eventIds, int from, int to) {
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(eventIds[i]);
+        }
+        List<Event> events = new ArrayList<>(ids.size());
+        eventRepository.findAllById(ids).forEach(events::add);
+        events.sort(Comparator.comparing(Event::getId));
+        return events;
+    }
+
+    /**
+     * Gets events for day.
+     * The events of an upcoming day are paged by the ids of the calendar, the events of another day
+     * are read by the index on the date and the id from the cursor on. The page is read without a count
+     * and projected to the views without loading the entities.
+     *
+     * @param day      a moment of the day in the time zone of the calendar
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the events for day
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EventView> getEventsForDay(Date day, int pageSize, String after) {
+        log.info("Finding events for day {} with page size {} after cursor {}", day, pageSize, after);
+        try {
+            if (day == null) {
+                log.warn("The day can not be null");
+                return CursorPage.empty();
+            }
+            long afterId = CursorPage.decode(after);
+            Slice<EventView> eventsForDay;
+            EventCalendar calendar = getCalendar();
+            LocalDate localDay = EventCalendar.toDay(day, zone);
+            if (calendar != null && calendar.covers(localDay)) {
+                long[] eventIds = calendar.getEventIds(localDay);
+                int from = Arrays.binarySearch(eventIds, afterId);
+                from = from < 0 ? -from - 1 : from + 1;
+                int to = Math.min(from + pageSize, eventIds.length);
+                List<Long> ids = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    ids.add(eventIds[i]);
+                }
+                List<EventView> views = ids.isEmpty() ? new ArrayList<>() : eventRepository.findViewsByIds(ids);
+                eventsForDay = new SliceImpl<>(views, PageRequest.of(0, pageSize), to < eventIds.length);
+            } else {
+                eventsForDay = eventRepository.findViewsBetweenAfter(EventCalendar.startOf(localDay, zone),
+                        EventCalendar.startOf(localDay.plusDays(1), zone), afterId, PageRequest.of(0, pageSize));
+            }
+            log.info("{} events found for day {} after cursor {}", eventsForDay.getNumberOfElements(), day, after);
+            return CursorPage.of(eventsForDay, EventView::getId);
+        } catch (RuntimeException e) {
+            log.warn("Can not to find a list of events for day {} after cursor {}", day, after, e);
+            return CursorPage.empty();
+        }
+    }
+
+    /**
+     * Count events for day.
+     * The events of an upcoming day are counted by the calendar, the total of another day is cached
+     * and counted again in the background, so it may be behind the listing.
+     *
+     * @param day a moment of the day in the time zone of the calendar
+     * @return the approximate number of the events, null if it can not be counted
+     */
+    @Override
+    public Long countEventsForDay(Date day) {
+        try {
+            if (day == null) {
+                log.warn("The day can not be null");
+                return null;
+            }
+            EventCalendar calendar = getCalendar();
+            LocalDate localDay = EventCalendar.toDay(day, zone);
+            if (calendar != null && calendar.covers(localDay)) {
+                return (long) calendar.getEventIds(localDay).length;
+            }
+            Date from = EventCalendar.startOf(localDay, zone);
+            Date to = EventCalendar.startOf(localDay.plusDays(1), zone);
+            return approximateCounts.get("events.day:" + from.getTime(),
+                    () -> eventRepository.countByDateGreaterThanEqualAndDateLessThan(from, to));
+        } catch (RuntimeException e) {
+            log.warn("Can not to count events for day {}", day, e);
+            return null;
+        }
+    }
+
+    /**
+     * Gets events between the moments, ordered by date and id.
+     * The events are read by the index on the date.
+     *
+     * @param from     the moment to start from, inclusive
+     * @param to       the moment to end at, exclusive
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the events between the moments
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> getEventsBetween(Date from, Date to, int pageSize, int pageNum) {
+        log.info("Finding all events from {} to {} with page size {} and number of page {}",
+                from, to, pageSize, pageNum);
+        try {
+            if (from == null || to == null || !from.before(to)) {
+                log.warn("The range from {} to {} is not valid", from, to);
+                return new ArrayList<>();
+            }
+            Slice<Event> eventsBetween = eventRepository.getAllByDateGreaterThanEqualAndDateLessThanOrderByDateAscIdAsc(
+                    from, to, PageRequest.of(pageNum - 1, pageSize));
+            log.info("{} events found from {} to {} with page size {} and number of page {}",
+                    eventsBetween.getNumberOfElements(), from, to, pageSize, pageNum);
+            return eventsBetween.getContent();
+        } catch (RuntimeException e) {
+            log.warn("Can not to find a list of events from {} to {}", from, to, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Gets the calendar of the upcoming events. A build is submitted to the background thread
+     * once the day has changed or the refresh period has passed, so the events written by other instances
+     * get into it, and the current calendar is used until the build has finished.
+     *
+     * @return the calendar, null if it is disabled or has not been built for the current day yet
+     */
+    private EventCalendar getCalendar() {
+        if (calendarDays <= 0) {
+            return null;
+        }
+        EventCalendar current = calendar;
+        boolean today = current != null && current.getFirstDay().equals(LocalDate.now(zone));
+        if (!today || System.currentTimeMillis() - current.getBuiltAt() >= calendarRefreshMillis) {
+            submitCalendarBuild();
+        }
+        return today ? current : null;
+    }
+
+    private void submitCalendarBuild() {
+        if (!calendarBuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            calendarBuilder.execute(() -> {
+                try {
+                    rebuildCalendar();
+                } catch (RuntimeException e) {
+                    log.warn("Can not to build the calendar of the upcoming events", e);
+                } finally {
+                    calendarBuildPending.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            calendarBuildPending.set(false);
+            log.warn("Can not to submit the build of the calendar of the upcoming events", e);
+        }
+    }
+
+    /**
+     * Builds the calendar from the upcoming events again and replaces the current one.
+     * The loaded events written or removed during the build are skipped, their writes are already applied.
+     */
+    synchronized void rebuildCalendar() {
+        EventCalendar built = new EventCalendar(LocalDate.now(zone), calendarDays, zone, System.currentTimeMillis());
+        synchronized (calendarLock) {
+            building = built;
+            changedWhileBuilding = new HashSet<>();
+        }
+        try {
+            List<EventView> upcoming = eventRepository.findViewsBetween(
+                    built.startOf(built.getFirstDay()), built.startOf(built.getEndDay()));
+            synchronized (calendarLock) {
+                for (EventView event : upcoming) {
+                    if (!changedWhileBuilding.contains(event.getId())) {
+                        built.add(event.getId(), event.getDate());
+                    }
+                }
+                calendar = built;
+            }
+            log.info("The calendar of {} upcoming events from {} to {} is built",
+                    upcoming.size(), built.getFirstDay(), built.getEndDay());
+        } finally {
+            synchronized (calendarLock) {
+                if (building == built) {
+                    building = null;
+                    changedWhileBuilding = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the event in the calendars if they have been built or are being built.
+     *
+     * @param event the event
+     */
+    private void updateCalendar(Event event) {
+        if (event.getId() == null || event.getDate() == null) {
+            return;
+        }
+        synchronized (calendarLock) {
+            EventCalendar current = calendar;
+            if (current != null) {
+                current.add(event.getId(), event.getDate());
+            }
+            if (building != null) {
+                building.add(event.getId(), event.getDate());
+                changedWhileBuilding.add(event.getId());
+            }
+        }
+    }
+
+    /**
+     * Removes the event from the calendars if they have been built or are being built.
+     *
+     * @param eventId the event id
+     */
+    private void removeFromCalendar(long eventId) {
+        synchronized (calendarLock) {
+            EventCalendar current = calendar;
+            if (current != null) {
+                current.remove(eventId);
+            }
+            if (building != null) {
+                building.remove(eventId);
+                changedWhileBuilding.add(eventId);
+            }
+        }
+    }
+
     /**
      * Create event.
      *
@@ -138,6 +595,8 @@ public class EventServiceImpl implements EventService {
                 return null;
             }
             event = eventRepository.save(event);
+            updateCalendar(event);
+            eventSearchService.indexEvent(event);
             log.info("Successfully creation of the event: {}", event);
             return event;
         } catch (RuntimeException e) {
@@ -180,6 +639,8 @@ public class EventServiceImpl implements EventService {
                 throw new RuntimeException("These title and day are already exists for one event");
             }
             event = eventRepository.save(event);
+            updateCalendar(event);
+            eventSearchService.indexEvent(event);
             log.info("Successfully updating of the event: {}", event);
             return event;
         } catch (RuntimeException e) {
@@ -194,6 +655,7 @@ public class EventServiceImpl implements EventService {
 
     /**
      * Delete event boolean.
+     * The tickets of the event are deleted by one statement in the same transaction instead of being cascaded.
      *
      * @param eventId the event id
      * @return the boolean
@@ -202,12 +664,32 @@ public class EventServiceImpl implements EventService {
     public boolean deleteEvent(long eventId) {
         log.info("Start deleting an event with id: {}", eventId);
         try {
-            eventRepository.deleteById(eventId);
-            log.info("Successfully deletion of the event with id: {}", eventId);
+            List<Long> ticketIds = transactionTemplate.execute(status -> {
+                List<Long> deletedTicketIds = bulkDeleteRepository.deleteTicketsByEventId(eventId);
+                if (!bulkDeleteRepository.deleteEvent(eventId)) {
+                    throw new RuntimeException("Can not to find an event with id: " + eventId);
+                }
+                return deletedTicketIds;
+            });
+            cache.evict(Event.class, eventId);
+            for (Long ticketId : ticketIds) {
+                cache.evict(Ticket.class, ticketId);
+            }
+            seatAvailabilityService.evict(eventId);
+            removeFromCalendar(eventId);
+            eventSearchService.removeEvent(eventId);
+            log.info("Successfully deletion of the event with id: {} and its {} tickets", eventId, ticketIds.size());
             return true;
         } catch (RuntimeException e) {
             log.warn("Can not to delete an event with id: {}", eventId, e);
             return false;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void destroy() {
+        if (calendarBuilder != null) {
+            calendarBuilder.shutdownNow();
+        }
+    }
+}
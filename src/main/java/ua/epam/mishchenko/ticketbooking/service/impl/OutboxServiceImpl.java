@@ -0,0 +1,187 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.epam.mishchenko.ticketbooking.booking.OutboxSink;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEvent;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.repository.OutboxJdbcRepository;
+import ua.epam.mishchenko.ticketbooking.service.OutboxService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Outbox service.
+ * The relay runs on a background thread every relay period. A batch of the oldest events is locked,
+ * published to every sink and deleted in one transaction, so a batch is published again if a sink fails.
+ * The events locked by a relay of another instance are skipped, the instances relay different batches.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService, DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    private final OutboxJdbcRepository outboxJdbcRepository;
+
+    private final List<OutboxSink> sinks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Whether the outbox is enabled.
+     */
+    private final boolean enabled;
+
+    /**
+     * The max number of events published at once.
+     */
+    private final int batchSize;
+
+    /**
+     * The relay thread, null if the relay is not scheduled.
+     */
+    private final ScheduledExecutorService relay;
+
+    /**
+     * Instantiates a new Outbox service.
+     *
+     * @param outboxJdbcRepository the outbox jdbc repository
+     * @param sinks                the sinks
+     * @param transactionManager   the transaction manager
+     * @param enabled              whether the outbox is enabled
+     * @param relayMillis          the relay period, the relay is not scheduled if not positive
+     * @param batchSize            the max number of events published at once
+     */
+    public OutboxServiceImpl(OutboxJdbcRepository outboxJdbcRepository, List<OutboxSink> sinks,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${booking.outbox.enabled:false}") boolean enabled,
+                             @Value("${booking.outbox.relay-millis:1000}") long relayMillis,
+                             @Value("${booking.outbox.batch-size:500}") int batchSize) {
+        this.outboxJdbcRepository = outboxJdbcRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        if (enabled && relayMillis > 0) {
+            this.relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "outbox-relay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            relay.scheduleWithFixedDelay(this::relaySafely, relayMillis, relayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.relay = null;
+        }
+        log.info("The outbox is enabled: {}, relay every {} ms to {} sinks", enabled, relayMillis, sinks.size());
+    }
+
+    /**
+     * Is enabled boolean.
+     *
+     * @return the boolean
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record booked.
+     *
+     * @param tickets the tickets
+     */
+    @Override
+    public void recordBooked(List<Ticket> tickets) {
+        if (!enabled || tickets.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            events.add(OutboxEvent.booked(ticket));
+        }
+        outboxJdbcRepository.appendAll(events);
+    }
+
+    /**
+     * Record refilled.
+     *
+     * @param refills the refills
+     */
+    @Override
+    public void recordRefilled(List<AccountRefill> refills) {
+        if (!enabled || refills.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(refills.size());
+        for (AccountRefill refill : refills) {
+            events.add(OutboxEvent.refilled(refill.getUserId(), refill.getAmount()));
+        }
+        outboxJdbcRepository.appendAll(events);
+    }
+
+    /**
+     * Relay int.
+     *
+     * @return the number of published events
+     */
+    @Override
+    public int relay() {
+        int relayed = 0;
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> relayBatch());
+            relayed += published;
+        } while (published == batchSize);
+        if (relayed > 0) {
+            log.info("{} outbox events relayed", relayed);
+        }
+        return relayed;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxJdbcRepository.lockNext(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        for (OutboxSink sink : sinks) {
+            sink.publish(events);
+        }
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            ids.add(event.getId());
+        }
+        outboxJdbcRepository.deleteAll(ids);
+        return events.size();
+    }
+
+    private void relaySafely() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.warn("Can not to relay the outbox events", e);
+        }
+    }
+
+    /**
+     * Stops the relay.
+     */
+    @Override
+    public void destroy() {
+        if (relay != null) {
+            relay.shutdown();
+        }
+    }
+}
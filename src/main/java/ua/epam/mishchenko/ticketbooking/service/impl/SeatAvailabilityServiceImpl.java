@@ -0,0 +1,376 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.epam.mishchenko.ticketbooking.booking.SeatSegmentTree;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.repository.TicketRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.SeatView;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntPredicate;
+
+/**
+ * The type Seat availability service.
+ * Keeps a bitset of booked places per event and category, hydrated lazily from the tickets table.
+ * The free places searched for the best available booking are indexed by a segment tree per event,
+ * built on the first search and kept in step with the bitsets.
+ */
+@Service
+public class SeatAvailabilityServiceImpl implements SeatAvailabilityService {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityServiceImpl.class);
+
+    /**
+     * The ticket repository.
+     */
+    private final TicketRepository ticketRepository;
+
+    /**
+     * The booked seats by event id.
+     */
+    private final ConcurrentMap<Long, EventSeats> seatsByEvent = new ConcurrentHashMap<>();
+
+    /**
+     * The number of places of an event available to the best available booking.
+     */
+    private final int places;
+
+    /**
+     * The max number of places of an event, the places are numbered from 0 below it.
+     */
+    private final int maxPlaces;
+
+    /**
+     * Instantiates a new Seat availability service.
+     *
+     * @param ticketRepository the ticket repository
+     */
+    public SeatAvailabilityServiceImpl(TicketRepository ticketRepository) {
+        this(ticketRepository, 1000, 100_000);
+    }
+
+    /**
+     * Instantiates a new Seat availability service.
+     *
+     * @param ticketRepository the ticket repository
+     * @param places           the number of places of an event
+     */
+    public SeatAvailabilityServiceImpl(TicketRepository ticketRepository, int places) {
+        this(ticketRepository, places, 100_000);
+    }
+
+    /**
+     * Instantiates a new Seat availability service.
+     *
+     * @param ticketRepository the ticket repository
+     * @param places           the number of places of an event
+     * @param maxPlaces        the max number of places of an event
+     */
+    @Autowired
+    public SeatAvailabilityServiceImpl(TicketRepository ticketRepository,
+                                       @Value("${booking.best-available.places:1000}") int places,
+                                       @Value("${booking.max-places:100000}") int maxPlaces) {
+        this.ticketRepository = ticketRepository;
+        this.places = places;
+        this.maxPlaces = maxPlaces;
+    }
+
+    /**
+     * Is taken boolean.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     * @return the boolean
+     */
+    @Override
+    public boolean isTaken(long eventId, int place, Category category) {
+        if (!isValidPlace(place) || category == null) {
+            return false;
+        }
+        return getOrHydrate(eventId).isTaken(place, category);
+    }
+
+    /**
+     * Is valid place boolean.
+     *
+     * @param place the place
+     * @return the boolean
+     */
+    @Override
+    public boolean isValidPlace(int place) {
+        return place >= 0 && place < maxPlaces;
+    }
+
+    /**
+     * Gets booked places.
+     * The places are copied from the cached bitsets, if the seats could not be hydrated because of
+     * a concurrent booking or cancellation they are read from the database.
+     *
+     * @param eventId the event id
+     * @return the booked places
+     */
+    @Override
+    public Map<Category, BitSet> getBookedPlaces(long eventId) {
+        Map<Category, BitSet> places = getOrHydrate(eventId).copy();
+        if (places != null) {
+            return places;
+        }
+        EventSeats seats = new EventSeats();
+        seats.hydrate(ticketRepository.findSeatsByEventId(eventId), seats.getVersion());
+        return seats.copy();
+    }
+
+    /**
+     * Find best available list.
+     *
+     * @param eventId  the event id
+     * @param count    the count
+     * @param excluded the excluded places
+     * @return the places
+     */
+    @Override
+    public List<Integer> findBestAvailable(long eventId, int count, IntPredicate excluded) {
+        if (count <= 0 || count > places) {
+            return Collections.emptyList();
+        }
+        EventSeats seats = getOrHydrate(eventId);
+        if (!seats.isHydrated()) {
+            seats = new EventSeats();
+            seats.hydrate(ticketRepository.findSeatsByEventId(eventId), seats.getVersion());
+        }
+        return seats.findBestAvailable(count, places, excluded);
+    }
+
+    /**
+     * Mark booked.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    @Override
+    public void markBooked(long eventId, int place, Category category) {
+        runAfterCommit(() -> update(eventId, place, category, true));
+    }
+
+    /**
+     * Mark free.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    @Override
+    public void markFree(long eventId, int place, Category category) {
+        runAfterCommit(() -> update(eventId, place, category, false));
+    }
+
+    /**
+     * Evict.
+     *
+     * @param eventId the event id
+     */
+    @Override
+    public void evict(long eventId) {
+        runAfterCommit(() -> seatsByEvent.remove(eventId));
+    }
+
+    private EventSeats getOrHydrate(long eventId) {
+        EventSeats seats = seatsByEvent.computeIfAbsent(eventId, id -> new EventSeats());
+        if (!seats.isHydrated()) {
+            hydrate(eventId, seats);
+        }
+        return seats;
+    }
+
+    private void hydrate(long eventId, EventSeats seats) {
+        log.debug("Hydrating seat availability of the event with id: {}", eventId);
+        long version = seats.getVersion();
+        List<SeatView> bookedSeats = ticketRepository.findSeatsByEventId(eventId);
+        if (!seats.hydrate(bookedSeats, version)) {
+            log.debug("Seat availability of the event with id {} changed during hydration", eventId);
+        }
+    }
+
+    private void update(long eventId, int place, Category category, boolean booked) {
+        if (!isValidPlace(place) || category == null) {
+            return;
+        }
+        EventSeats seats = seatsByEvent.get(eventId);
+        if (seats != null) {
+            seats.set(place, category, booked);
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * The booked places of one event.
+     * Every change bumps the version, so a hydration which raced with a booking or
+     * a cancellation is discarded instead of publishing a stale snapshot.
+     */
+    private static final class EventSeats {
+
+        private final Map<Category, BitSet> booked = new EnumMap<>(Category.class);
+
+        private SeatSegmentTree free;
+
+        private long version;
+
+        private volatile boolean hydrated;
+
+        boolean isHydrated() {
+            return hydrated;
+        }
+
+        synchronized long getVersion() {
+            return version;
+        }
+
+        synchronized boolean isTaken(int place, Category category) {
+            if (!hydrated) {
+                return false;
+            }
+            BitSet places = booked.get(category);
+            return places != null && places.get(place);
+        }
+
+        synchronized Map<Category, BitSet> copy() {
+            if (!hydrated) {
+                return null;
+            }
+            Map<Category, BitSet> places = new EnumMap<>(Category.class);
+            for (Map.Entry<Category, BitSet> entry : booked.entrySet()) {
+                places.put(entry.getKey(), (BitSet) entry.getValue().clone());
+            }
+            return places;
+        }
+
+        synchronized void set(int place, Category category, boolean value) {
+            booked.computeIfAbsent(category, c -> new BitSet()).set(place, value);
+            if (free != null && place >= 1 && place <= free.size()) {
+                free.set(place - 1, !isBookedInAnyCategory(place));
+            }
+            version++;
+        }
+
+        synchronized List<Integer> findBestAvailable(int count, int places, IntPredicate excluded) {
+            if (free == null || free.size() != places) {
+                free = createTree(places);
+            }
+            SeatSegmentTree tree = free;
+            List<Integer> masked = new ArrayList<>();
+            try {
+                int start;
+                while ((start = tree.findFirstRun(count)) >= 0) {
+                    int blocked = findExcluded(start, count, excluded);
+                    if (blocked < 0) {
+                        List<Integer> run = new ArrayList<>(count);
+                        for (int index = start; index < start + count; index++) {
+                            run.add(index + 1);
+                        }
+                        return run;
+                    }
+                    tree.set(blocked, false);
+                    masked.add(blocked);
+                }
+                return findNearest(tree, count, excluded);
+            } finally {
+                for (int index : masked) {
+                    tree.set(index, true);
+                }
+            }
+        }
+
+        private boolean isBookedInAnyCategory(int place) {
+            for (BitSet places : booked.values()) {
+                if (places.get(place)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private SeatSegmentTree createTree(int places) {
+            SeatSegmentTree tree = new SeatSegmentTree(places);
+            for (BitSet bookedPlaces : booked.values()) {
+                for (int place = bookedPlaces.nextSetBit(1); place >= 0 && place <= places;
+                     place = bookedPlaces.nextSetBit(place + 1)) {
+                    tree.set(place - 1, false);
+                }
+            }
+            return tree;
+        }
+
+        private int findExcluded(int start, int count, IntPredicate excluded) {
+            for (int index = start; index < start + count; index++) {
+                if (excluded.test(index + 1)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private List<Integer> findNearest(SeatSegmentTree tree, int count, IntPredicate excluded) {
+            List<Integer> freePlaces = new ArrayList<>();
+            for (int index = 0; index < tree.size(); index++) {
+                if (tree.isFree(index) && !excluded.test(index + 1)) {
+                    freePlaces.add(index + 1);
+                }
+            }
+            if (freePlaces.size() < count) {
+                return Collections.emptyList();
+            }
+            int bestStart = 0;
+            for (int start = 1; start + count <= freePlaces.size(); start++) {
+                if (freePlaces.get(start + count - 1) - freePlaces.get(start)
+                        < freePlaces.get(bestStart + count - 1) - freePlaces.get(bestStart)) {
+                    bestStart = start;
+                }
+            }
+            return new ArrayList<>(freePlaces.subList(bestStart, bestStart + count));
+        }
+
+        synchronized boolean hydrate(List<SeatView> seats, long expectedVersion) {
+            if (hydrated || version != expectedVersion) {
+                return hydrated;
+            }
+            for (SeatView seat : seats) {
+                if (seat.getPlace() != null && seat.getPlace() >= 0 && seat.getCategory() != null) {
+                    booked.computeIfAbsent(seat.getCategory(), c -> new BitSet()).set(seat.getPlace());
+                }
+            }
+            hydrated = true;
+            return true;
+        }
+    }
+}
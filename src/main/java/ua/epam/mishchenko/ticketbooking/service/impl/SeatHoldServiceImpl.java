@@ -0,0 +1,427 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ua.epam.mishchenko.ticketbooking.booking.TimerWheel;
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
+import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+import ua.epam.mishchenko.ticketbooking.service.SeatHoldService;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The type Seat hold service.
+ * Every held place is claimed with a compare-and-set on a concurrent map, the holds are expired by a timer wheel.
+ * A hold has at most the max number of seats and a user has at most the max number of active holds,
+ * so a user can not take the places of an event off sale.
+ */
+@Service
+public class SeatHoldServiceImpl implements SeatHoldService, DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldServiceImpl.class);
+
+    /**
+     * The seat availability service.
+     */
+    private final SeatAvailabilityService seatAvailabilityService;
+
+    /**
+     * The user repository.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * The timer wheel expiring the holds.
+     */
+    private final TimerWheel timerWheel;
+
+    /**
+     * The time to live of a hold in milliseconds.
+     */
+    private final long ttlMillis;
+
+    /**
+     * The max number of seats of one hold.
+     */
+    private final int maxSeats;
+
+    /**
+     * The max number of active holds of one user.
+     */
+    private final int maxHoldsPerUser;
+
+    /**
+     * The holds by id.
+     */
+    private final ConcurrentMap<Long, Hold> holds = new ConcurrentHashMap<>();
+
+    /**
+     * The holds by held place.
+     */
+    private final ConcurrentMap<HeldPlace, Hold> heldPlaces = new ConcurrentHashMap<>();
+
+    /**
+     * The hold id sequence.
+     */
+    private final AtomicLong holdIds = new AtomicLong();
+
+    /**
+     * The number of active holds by user id.
+     */
+    private final ConcurrentMap<Long, AtomicInteger> activeHoldsByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Seat hold service.
+     *
+     * @param seatAvailabilityService the seat availability service
+     * @param userRepository          the user repository
+     * @param ttlMillis               the ttl millis
+     * @param maxSeats                the max number of seats of one hold
+     * @param maxHoldsPerUser         the max number of active holds of one user
+     * @param tickMillis              the tick millis of the timer wheel
+     * @param wheelSize               the wheel size of the timer wheel
+     */
+    @Autowired
+    public SeatHoldServiceImpl(SeatAvailabilityService seatAvailabilityService, UserRepository userRepository,
+                               @Value("${booking.hold.ttl-millis:300000}") long ttlMillis,
+                               @Value("${booking.hold.max-seats:10}") int maxSeats,
+                               @Value("${booking.hold.max-holds-per-user:5}") int maxHoldsPerUser,
+                               @Value("${booking.hold.tick-millis:100}") long tickMillis,
+                               @Value("${booking.hold.wheel-size:512}") int wheelSize) {
+        this(seatAvailabilityService, userRepository, ttlMillis, maxSeats, maxHoldsPerUser,
+                new TimerWheel("seat-hold-expiry", tickMillis, wheelSize));
+    }
+
+    /**
+     * Instantiates a new Seat hold service.
+     *
+     * @param seatAvailabilityService the seat availability service
+     * @param userRepository          the user repository
+     * @param ttlMillis               the ttl millis
+     * @param maxSeats                the max number of seats of one hold
+     * @param maxHoldsPerUser         the max number of active holds of one user
+     * @param timerWheel              the timer wheel
+     */
+    SeatHoldServiceImpl(SeatAvailabilityService seatAvailabilityService, UserRepository userRepository,
+                        long ttlMillis, int maxSeats, int maxHoldsPerUser, TimerWheel timerWheel) {
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxSeats = maxSeats;
+        this.maxHoldsPerUser = maxHoldsPerUser;
+        this.timerWheel = timerWheel;
+    }
+
+    /**
+     * Hold seat hold.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param seats   the seats
+     * @return the seat hold
+     */
+    @Override
+    public SeatHold hold(long userId, long eventId, List<SeatRequest> seats) {
+        log.info("Start holding seats {} for user with id {}, event with id {}", seats, userId, eventId);
+        try {
+            throwRuntimeExceptionIfSeatsInvalid(seats);
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("Can not to find a user by id: " + userId);
+            }
+            for (SeatRequest seat : seats) {
+                if (seatAvailabilityService.isTaken(eventId, seat.getPlace(), seat.getCategory())) {
+                    throw new RuntimeException("The place " + seat.getPlace() + " is already booked");
+                }
+            }
+            Hold hold = new Hold(holdIds.incrementAndGet(), userId, eventId, new ArrayList<>(seats),
+                    System.currentTimeMillis() + ttlMillis);
+            reserveActiveHold(userId);
+            try {
+                holdPlaces(hold);
+            } catch (RuntimeException e) {
+                releaseActiveHold(userId);
+                throw e;
+            }
+            holds.put(hold.id, hold);
+            timerWheel.schedule(() -> expire(hold), ttlMillis);
+            log.info("The seats successfully held: {}", hold);
+            return hold.toSeatHold();
+        } catch (RuntimeException e) {
+            log.warn("Can not to hold seats {} for user with id {}, event with id {}", seats, userId, eventId, e);
+            return null;
+        }
+    }
+
+    private void throwRuntimeExceptionIfSeatsInvalid(List<SeatRequest> seats) {
+        if (seats == null || seats.isEmpty()) {
+            throw new RuntimeException("The list of seats can not be empty");
+        }
+        if (seats.size() > maxSeats) {
+            throw new RuntimeException("A hold can not have more than " + maxSeats + " seats");
+        }
+        Set<Integer> places = new HashSet<>();
+        for (SeatRequest seat : seats) {
+            if (seat.getCategory() == null) {
+                throw new RuntimeException("The category of the place " + seat.getPlace() + " can not be null");
+            }
+            if (!seatAvailabilityService.isValidPlace(seat.getPlace())) {
+                throw new RuntimeException("The place " + seat.getPlace() + " is out of the places of the event");
+            }
+            if (!places.add(seat.getPlace())) {
+                throw new RuntimeException("The place " + seat.getPlace() + " is requested more than once");
+            }
+        }
+    }
+
+    /**
+     * Counts the new hold of the user unless the user already has the max number of active holds.
+     *
+     * @param userId the user id
+     */
+    private void reserveActiveHold(long userId) {
+        AtomicInteger activeHolds = activeHoldsByUser.computeIfAbsent(userId, id -> new AtomicInteger());
+        if (activeHolds.incrementAndGet() > maxHoldsPerUser) {
+            activeHolds.decrementAndGet();
+            throw new RuntimeException("The user with id " + userId + " already has " + maxHoldsPerUser
+                    + " active holds");
+        }
+    }
+
+    private void releaseActiveHold(long userId) {
+        AtomicInteger activeHolds = activeHoldsByUser.get(userId);
+        if (activeHolds != null) {
+            activeHolds.decrementAndGet();
+        }
+    }
+
+    /**
+     * Claims every place of the hold, the places claimed so far are given back if one of them is already held.
+     *
+     * @param hold the hold
+     */
+    private void holdPlaces(Hold hold) {
+        List<HeldPlace> claimed = new ArrayList<>(hold.seats.size());
+        for (SeatRequest seat : hold.seats) {
+            HeldPlace heldPlace = new HeldPlace(hold.eventId, seat.getPlace());
+            if (heldPlaces.putIfAbsent(heldPlace, hold) != null) {
+                for (HeldPlace claimedPlace : claimed) {
+                    heldPlaces.remove(claimedPlace, hold);
+                }
+                throw new RuntimeException("The place " + seat.getPlace() + " is already held");
+            }
+            claimed.add(heldPlace);
+        }
+    }
+
+    /**
+     * Claim seat hold.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the seat hold
+     */
+    @Override
+    public SeatHold claim(long holdId, long userId) {
+        Hold hold = getHold(holdId, userId);
+        if (hold.expiresAt <= System.currentTimeMillis()) {
+            expire(hold);
+            throw new RuntimeException("The hold with id " + holdId + " has expired");
+        }
+        if (!hold.state.compareAndSet(HoldState.HELD, HoldState.CLAIMED)) {
+            throw new RuntimeException("The hold with id " + holdId + " is " + hold.state.get());
+        }
+        return hold.toSeatHold();
+    }
+
+    /**
+     * Complete.
+     *
+     * @param holdId the hold id
+     */
+    @Override
+    public void complete(long holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold != null && hold.state.compareAndSet(HoldState.CLAIMED, HoldState.COMPLETED)) {
+            remove(hold);
+            log.info("The hold with id {} successfully completed", holdId);
+        }
+    }
+
+    /**
+     * Restore.
+     *
+     * @param holdId the hold id
+     */
+    @Override
+    public void restore(long holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold != null && hold.state.compareAndSet(HoldState.CLAIMED, HoldState.HELD)
+                && hold.expiresAt <= System.currentTimeMillis()) {
+            expire(hold);
+        }
+    }
+
+    /**
+     * Release boolean.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the boolean
+     */
+    @Override
+    public boolean release(long holdId, long userId) {
+        log.info("Start releasing the hold with id {} of user with id {}", holdId, userId);
+        try {
+            Hold hold = getHold(holdId, userId);
+            if (!hold.state.compareAndSet(HoldState.HELD, HoldState.RELEASED)) {
+                throw new RuntimeException("The hold with id " + holdId + " is " + hold.state.get());
+            }
+            remove(hold);
+            log.info("The hold with id {} successfully released", holdId);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Can not to release the hold with id {} of user with id {}", holdId, userId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Is held by another user boolean.
+     *
+     * @param eventId the event id
+     * @param place   the place
+     * @param userId  the user id
+     * @return the boolean
+     */
+    @Override
+    public boolean isHeldByAnotherUser(long eventId, int place, long userId) {
+        Hold hold = heldPlaces.get(new HeldPlace(eventId, place));
+        return hold != null && hold.userId != userId;
+    }
+
+    private Hold getHold(long holdId, long userId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || hold.userId != userId) {
+            throw new RuntimeException("Can not to find the hold with id " + holdId + " of user with id " + userId);
+        }
+        return hold;
+    }
+
+    /**
+     * Expires the hold unless it has been claimed, completed or released meanwhile.
+     *
+     * @param hold the hold
+     */
+    private void expire(Hold hold) {
+        if (hold.state.compareAndSet(HoldState.HELD, HoldState.EXPIRED)) {
+            remove(hold);
+            log.info("The hold with id {} expired", hold.id);
+        }
+    }
+
+    private void remove(Hold hold) {
+        for (SeatRequest seat : hold.seats) {
+            heldPlaces.remove(new HeldPlace(hold.eventId, seat.getPlace()), hold);
+        }
+        if (holds.remove(hold.id, hold)) {
+            releaseActiveHold(hold.userId);
+        }
+    }
+
+    /**
+     * Stops the timer wheel.
+     */
+    @Override
+    public void destroy() {
+        timerWheel.close();
+    }
+
+    /**
+     * The state of a hold.
+     */
+    private enum HoldState {
+        HELD, CLAIMED, COMPLETED, RELEASED, EXPIRED
+    }
+
+    /**
+     * The hold.
+     */
+    private static final class Hold {
+
+        private final long id;
+
+        private final long userId;
+
+        private final long eventId;
+
+        private final List<SeatRequest> seats;
+
+        private final long expiresAt;
+
+        private final AtomicReference<HoldState> state = new AtomicReference<>(HoldState.HELD);
+
+        private Hold(long id, long userId, long eventId, List<SeatRequest> seats, long expiresAt) {
+            this.id = id;
+            this.userId = userId;
+            this.eventId = eventId;
+            this.seats = seats;
+            this.expiresAt = expiresAt;
+        }
+
+        private SeatHold toSeatHold() {
+            return new SeatHold(id, userId, eventId, seats, new Date(expiresAt));
+        }
+
+        @Override
+        public String toString() {
+            return toSeatHold().toString();
+        }
+    }
+
+    /**
+     * The held place of an event.
+     */
+    private static final class HeldPlace {
+
+        private final long eventId;
+
+        private final int place;
+
+        private HeldPlace(long eventId, int place) {
+            this.eventId = eventId;
+            this.place = place;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            HeldPlace that = (HeldPlace) o;
+            return eventId == that.eventId && place == that.place;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventId, place);
+        }
+    }
+}
@@ -2,26 +2,48 @@ package ua.epam.mishchenko.ticketbooking.service.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import ua.epam.mishchenko.ticketbooking.booking.ApproximateCounts;
+import ua.epam.mishchenko.ticketbooking.booking.BookingMetrics;
+import ua.epam.mishchenko.ticketbooking.booking.BookingStage;
+import ua.epam.mishchenko.ticketbooking.booking.BookingTransactionExecutor;
+import ua.epam.mishchenko.ticketbooking.booking.TicketCancelledEvent;
+import ua.epam.mishchenko.ticketbooking.dto.BookingRequest;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Event;
 import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.model.User;
 import ua.epam.mishchenko.ticketbooking.model.UserAccount;
-import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+import ua.epam.mishchenko.ticketbooking.repository.TicketJdbcRepository;
 import ua.epam.mishchenko.ticketbooking.repository.TicketRepository;
 import ua.epam.mishchenko.ticketbooking.repository.UserAccountRepository;
-import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.BookingSnapshot;
+import ua.epam.mishchenko.ticketbooking.repository.projection.TicketView;
+import ua.epam.mishchenko.ticketbooking.service.AccountLedgerService;
+import ua.epam.mishchenko.ticketbooking.service.OutboxService;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+import ua.epam.mishchenko.ticketbooking.service.SeatHoldService;
 import ua.epam.mishchenko.ticketbooking.service.TicketService;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * The type Ticket service.
@@ -34,20 +56,55 @@ public class TicketServiceImpl implements TicketService {
      */
     private static final Logger log = LoggerFactory.getLogger(TicketServiceImpl.class);
 
-    private final UserRepository userRepository;
-
-    private final EventRepository eventRepository;
+    /**
+     * The max number of attempts of one best available booking, the places found may be taken concurrently.
+     */
+    private static final int BEST_AVAILABLE_ATTEMPTS = 3;
 
     private final TicketRepository ticketRepository;
 
     private final UserAccountRepository userAccountRepository;
 
-    public TicketServiceImpl(UserRepository userRepository, EventRepository eventRepository,
-                             TicketRepository ticketRepository, UserAccountRepository userAccountRepository) {
-        this.userRepository = userRepository;
-        this.eventRepository = eventRepository;
+    private final TicketJdbcRepository ticketJdbcRepository;
+
+    private final SeatAvailabilityService seatAvailabilityService;
+
+    private final BookingTransactionExecutor bookingTransactionExecutor;
+
+    private final SeatHoldService seatHoldService;
+
+    private final BookingMetrics bookingMetrics;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AccountLedgerService accountLedgerService;
+
+    private final OutboxService outboxService;
+
+    private final ApproximateCounts approximateCounts;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TicketServiceImpl(TicketRepository ticketRepository, UserAccountRepository userAccountRepository,
+                             TicketJdbcRepository ticketJdbcRepository,
+                             SeatAvailabilityService seatAvailabilityService,
+                             BookingTransactionExecutor bookingTransactionExecutor,
+                             SeatHoldService seatHoldService, BookingMetrics bookingMetrics,
+                             ApplicationEventPublisher eventPublisher,
+                             AccountLedgerService accountLedgerService, OutboxService outboxService,
+                             ApproximateCounts approximateCounts) {
         this.ticketRepository = ticketRepository;
         this.userAccountRepository = userAccountRepository;
+        this.ticketJdbcRepository = ticketJdbcRepository;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.bookingTransactionExecutor = bookingTransactionExecutor;
+        this.seatHoldService = seatHoldService;
+        this.bookingMetrics = bookingMetrics;
+        this.eventPublisher = eventPublisher;
+        this.accountLedgerService = accountLedgerService;
+        this.outboxService = outboxService;
+        this.approximateCounts = approximateCounts;
     }
 
     /**
@@ -60,100 +117,402 @@ public class TicketServiceImpl implements TicketService {
      * @return the ticket
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Ticket bookTicket(long userId, long eventId, int place, Category category) {
         log.info("Start booking a ticket for user with id {}, event with id event {}, place {}, category {}",
                 userId, eventId, place, category);
         try {
-            return processBookingTicket(userId, eventId, place, category);
+            throwRuntimeExceptionIfPlaceInvalid(place);
+            long seatCheckStart = System.nanoTime();
+            throwRuntimeExceptionIfSeatTaken(userId, eventId, place, category);
+            bookingMetrics.record(BookingStage.SEAT_CHECK, seatCheckStart);
+            long[] commitStart = new long[1];
+            Ticket ticket = bookingTransactionExecutor.execute(status -> {
+                Ticket bookedTicket = processBookingTicket(userId, eventId, place, category);
+                commitStart[0] = System.nanoTime();
+                return bookedTicket;
+            });
+            bookingMetrics.record(BookingStage.COMMIT, commitStart[0]);
+            return ticket;
         } catch (RuntimeException e) {
             log.warn("Can not to book a ticket for user with id {}, event with id {}, place {}, category {}",
                     userId, eventId, place, category, e);
-            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
-            log.warn("Transaction rollback");
             return null;
         }
     }
 
     private Ticket processBookingTicket(long userId, long eventId, int place, Category category) {
-        throwRuntimeExceptionIfUserNotExist(userId);
-        throwRuntimeExceptionIfEventNotExist(eventId);
-        throwRuntimeExceptionIfTicketAlreadyBooked(eventId, place, category);
-        UserAccount userAccount = getUserAccount(userId);
-        Event event = getEvent(eventId);
-        throwRuntimeExceptionIfUserNotHaveEnoughMoney(userAccount, event);
-        buyTicket(userAccount, event);
-        Ticket ticket = saveBookedTicket(userId, eventId, place, category);
+        long stageStart = System.nanoTime();
+        BookingSnapshot snapshot = getBookingSnapshot(userId, eventId, Collections.singleton(place));
+        stageStart = bookingMetrics.record(BookingStage.SNAPSHOT, stageStart);
+        throwRuntimeExceptionIfPlaceTaken(snapshot);
+        throwRuntimeExceptionIfUserNotHaveEnoughMoney(userId, eventId, snapshot, snapshot.getTicketPrice());
+        debitUserAccount(userId, eventId, snapshot.getTicketPrice());
+        stageStart = bookingMetrics.record(BookingStage.DEBIT, stageStart);
+        Ticket ticket = saveBookedTicket(userId, eventId, place, category, snapshot);
+        outboxService.recordBooked(Collections.singletonList(ticket));
+        bookingMetrics.record(BookingStage.INSERT, stageStart);
+        seatAvailabilityService.markBooked(eventId, place, category);
         log.info("Successfully booking of the ticket: {}", ticket);
         return ticket;
     }
 
-    private Ticket saveBookedTicket(long userId, long eventId, int place, Category category) {
-        return ticketRepository.save(createNewTicket(userId, eventId, place, category));
+    /**
+     * Book tickets.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param seats   the seats
+     * @return the booked tickets
+     */
+    @Override
+    public List<Ticket> bookTickets(long userId, long eventId, List<SeatRequest> seats) {
+        log.info("Start booking tickets for user with id {}, event with id {}, seats {}", userId, eventId, seats);
+        try {
+            throwRuntimeExceptionIfSeatsInvalid(seats);
+            for (SeatRequest seat : seats) {
+                throwRuntimeExceptionIfSeatTaken(userId, eventId, seat.getPlace(), seat.getCategory());
+            }
+            return bookingTransactionExecutor.execute(status -> processBookingTickets(userId, eventId, seats));
+        } catch (RuntimeException e) {
+            log.warn("Can not to book tickets for user with id {}, event with id {}, seats {}",
+                    userId, eventId, seats, e);
+            return new ArrayList<>();
+        }
     }
 
-    private void buyTicket(UserAccount userAccount, Event event) {
-        userAccount.setMoney(subtractTicketPriceFromUserMoney(userAccount, event));
+    /**
+     * Book best available list.
+     * The places are found in the free seat index of the event and booked like the places chosen by the user.
+     * If they have been taken meanwhile, the index is searched again.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @param count    the count
+     * @return the booked tickets
+     */
+    @Override
+    public List<Ticket> bookBestAvailable(long userId, long eventId, Category category, int count) {
+        log.info("Start booking {} best available tickets for user with id {}, event with id {}, category {}",
+                count, userId, eventId, category);
+        for (int attempt = 1; attempt <= BEST_AVAILABLE_ATTEMPTS; attempt++) {
+            List<Integer> places = seatAvailabilityService.findBestAvailable(eventId, count,
+                    place -> seatHoldService.isHeldByAnotherUser(eventId, place, userId));
+            if (places.isEmpty() || category == null) {
+                log.warn("Can not to find {} free places of the event with id {}", count, eventId);
+                return new ArrayList<>();
+            }
+            List<SeatRequest> seats = new ArrayList<>(places.size());
+            for (Integer place : places) {
+                seats.add(new SeatRequest(place, category));
+            }
+            try {
+                return bookingTransactionExecutor.execute(status -> processBookingTickets(userId, eventId, seats));
+            } catch (RuntimeException e) {
+                log.info("Can not to book the best available places {} of the event with id {} on attempt {}",
+                        places, eventId, attempt, e);
+            }
+        }
+        log.warn("Can not to book {} best available tickets for user with id {}, event with id {}",
+                count, userId, eventId);
+        return new ArrayList<>();
     }
 
-    private BigDecimal subtractTicketPriceFromUserMoney(UserAccount userAccount, Event event) {
-        return userAccount.getMoney().subtract(event.getTicketPrice());
+    private List<Ticket> processBookingTickets(long userId, long eventId, List<SeatRequest> seats) {
+        BookingSnapshot snapshot = getBookingSnapshot(userId, eventId, getPlaces(seats));
+        throwRuntimeExceptionIfPlaceTaken(snapshot);
+        BigDecimal totalPrice = snapshot.getTicketPrice().multiply(BigDecimal.valueOf(seats.size()));
+        throwRuntimeExceptionIfUserNotHaveEnoughMoney(userId, eventId, snapshot, totalPrice);
+        debitUserAccount(userId, eventId, totalPrice);
+        List<Ticket> tickets = saveBookedTickets(userId, eventId, seats, snapshot);
+        outboxService.recordBooked(tickets);
+        log.info("Successfully booking of the tickets: {}", tickets);
+        return tickets;
     }
 
-    private void throwRuntimeExceptionIfUserNotHaveEnoughMoney(UserAccount userAccount, Event event) {
-        if (!userHasEnoughMoneyForTicket(userAccount, event)) {
-            throw new RuntimeException(
-                    "The user with id " + userAccount.getUser().getId() +
-                            " does not have enough money for ticket with event id " + event.getId()
-            );
+    /**
+     * Book ticket batch.
+     * The requests are validated against the bitmap, the holds and each other in memory,
+     * the accepted ones are debited and inserted with one JDBC batch each in one transaction.
+     * If the transaction fails the accepted requests are booked one by one.
+     * The debited user accounts are evicted from the second level cache once the transaction has committed.
+     *
+     * @param requests the booking requests
+     * @return the booked tickets
+     */
+    @Override
+    public List<Ticket> bookTicketBatch(List<BookingRequest> requests) {
+        log.info("Start booking a batch of {} tickets", requests.size());
+        List<Ticket> tickets = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<Integer> accepted = acceptBatchRequests(requests);
+        if (accepted.isEmpty()) {
+            return tickets;
+        }
+        try {
+            Map<Integer, Ticket> booked = bookingTransactionExecutor.execute(
+                    status -> processBookingTicketBatch(requests, accepted));
+            if (!booked.isEmpty()) {
+                evictCachedUserAccounts();
+            }
+            booked.forEach(tickets::set);
+            log.info("Successfully booking of the batch: {} of {} tickets booked", booked.size(), requests.size());
+        } catch (RuntimeException e) {
+            log.warn("Can not to book the batch of {} tickets in one transaction, booking them one by one",
+                    requests.size(), e);
+            for (int index : accepted) {
+                BookingRequest request = requests.get(index);
+                tickets.set(index, bookTicket(request.getUserId(), request.getEventId(),
+                        request.getPlace(), request.getCategory()));
+            }
         }
+        return tickets;
     }
 
-    private void throwRuntimeExceptionIfTicketAlreadyBooked(long eventId, int place, Category category) {
-        if (ticketRepository.existsByEventIdAndPlaceAndCategory(eventId, place, category)) {
-            throw new RuntimeException("This ticket already booked");
+    /**
+     * Gets the indexes of the requests which are not rejected in memory.
+     *
+     * @param requests the booking requests
+     * @return the indexes of the accepted requests
+     */
+    private List<Integer> acceptBatchRequests(List<BookingRequest> requests) {
+        List<Integer> accepted = new ArrayList<>(requests.size());
+        Map<Long, Set<Integer>> placesByEvent = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            try {
+                if (request.getCategory() == null) {
+                    throw new RuntimeException("The category of the place " + request.getPlace() + " can not be null");
+                }
+                throwRuntimeExceptionIfPlaceInvalid(request.getPlace());
+                throwRuntimeExceptionIfSeatTaken(request.getUserId(), request.getEventId(),
+                        request.getPlace(), request.getCategory());
+                if (!placesByEvent.computeIfAbsent(request.getEventId(), eventId -> new HashSet<>())
+                        .add(request.getPlace())) {
+                    throw new RuntimeException("The place " + request.getPlace() + " is requested more than once");
+                }
+                accepted.add(i);
+            } catch (RuntimeException e) {
+                log.warn("Can not to book a ticket {}", request, e);
+            }
         }
+        return accepted;
     }
 
-    private Event getEvent(long eventId) {
-        return eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Can not to find an event by id: " + eventId));
+    private Map<Integer, Ticket> processBookingTicketBatch(List<BookingRequest> requests, List<Integer> accepted) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> eventIds = new HashSet<>();
+        Set<Integer> places = new HashSet<>();
+        for (int index : accepted) {
+            BookingRequest request = requests.get(index);
+            userIds.add(request.getUserId());
+            eventIds.add(request.getEventId());
+            places.add(request.getPlace());
+        }
+        Map<Long, UserAccount> accounts = ticketJdbcRepository.findAccountsByUserIds(userIds);
+        Map<Long, Event> events = ticketJdbcRepository.findEventsByIds(eventIds);
+        Map<Long, Set<Integer>> takenPlaces = ticketJdbcRepository.findTakenPlaces(eventIds, places);
+
+        Map<Long, BigDecimal> debits = new TreeMap<>();
+        List<Integer> booked = new ArrayList<>();
+        List<BookingRequest> bookedRequests = new ArrayList<>();
+        for (int index : accepted) {
+            BookingRequest request = requests.get(index);
+            UserAccount account = accounts.get(request.getUserId());
+            Event event = events.get(request.getEventId());
+            if (account == null || event == null) {
+                log.warn("Can not to find a user account or an event for the ticket {}", request);
+                continue;
+            }
+            if (takenPlaces.getOrDefault(event.getId(), Collections.emptySet()).contains(request.getPlace())) {
+                log.warn("This ticket already booked: {}", request);
+                continue;
+            }
+            BigDecimal debit = debits.getOrDefault(request.getUserId(), BigDecimal.ZERO).add(event.getTicketPrice());
+            if (account.getMoney().compareTo(debit) < 0) {
+                log.warn("The user does not have enough money for the ticket {}", request);
+                continue;
+            }
+            debits.put(request.getUserId(), debit);
+            booked.add(index);
+            bookedRequests.add(request);
+        }
+        Map<Integer, Ticket> tickets = new HashMap<>();
+        if (booked.isEmpty()) {
+            return tickets;
+        }
+        boolean debited = accountLedgerService.isEnabled()
+                ? accountLedgerService.debitAll(debits)
+                : ticketJdbcRepository.debitAll(debits);
+        if (!debited) {
+            throw new RuntimeException("A user account of the batch has been debited concurrently");
+        }
+        List<Long> ids = ticketJdbcRepository.saveAll(bookedRequests);
+        for (int i = 0; i < booked.size(); i++) {
+            BookingRequest request = bookedRequests.get(i);
+            tickets.put(booked.get(i), new Ticket(ids.get(i), accounts.get(request.getUserId()).getUser(),
+                    events.get(request.getEventId()), request.getPlace(), request.getCategory()));
+            seatAvailabilityService.markBooked(request.getEventId(), request.getPlace(), request.getCategory());
+        }
+        outboxService.recordBooked(new ArrayList<>(tickets.values()));
+        return tickets;
     }
 
-    private UserAccount getUserAccount(long userId) {
-        return userAccountRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Can not to find a user account by user id: " + userId));
+    /**
+     * Book held tickets.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the booked tickets
+     */
+    @Override
+    public List<Ticket> bookHeldTickets(long holdId, long userId) {
+        log.info("Start booking tickets held by hold with id {} for user with id {}", holdId, userId);
+        SeatHold hold;
+        try {
+            hold = seatHoldService.claim(holdId, userId);
+        } catch (RuntimeException e) {
+            log.warn("Can not to claim the hold with id {} of user with id {}", holdId, userId, e);
+            return new ArrayList<>();
+        }
+        List<Ticket> tickets = bookTickets(userId, hold.getEventId(), hold.getSeats());
+        if (tickets.isEmpty()) {
+            seatHoldService.restore(holdId);
+        } else {
+            seatHoldService.complete(holdId);
+        }
+        return tickets;
+    }
+
+    private List<Ticket> saveBookedTickets(long userId, long eventId, List<SeatRequest> seats,
+                                           BookingSnapshot snapshot) {
+        List<Long> ids = ticketJdbcRepository.saveAll(userId, eventId, seats);
+        User user = createUser(userId, snapshot);
+        Event event = createEvent(eventId, snapshot);
+        List<Ticket> tickets = new ArrayList<>(seats.size());
+        for (int i = 0; i < seats.size(); i++) {
+            SeatRequest seat = seats.get(i);
+            tickets.add(new Ticket(ids.get(i), user, event, seat.getPlace(), seat.getCategory()));
+            seatAvailabilityService.markBooked(eventId, seat.getPlace(), seat.getCategory());
+        }
+        return tickets;
     }
 
-    private void throwRuntimeExceptionIfEventNotExist(long eventId) {
-        if (!eventRepository.existsById(eventId)) {
-            throw new RuntimeException("The event with id " + eventId + " does not exist");
+    private void throwRuntimeExceptionIfSeatsInvalid(List<SeatRequest> seats) {
+        if (seats == null || seats.isEmpty()) {
+            throw new RuntimeException("The list of seats can not be empty");
+        }
+        Set<Integer> places = new HashSet<>();
+        for (SeatRequest seat : seats) {
+            if (seat.getCategory() == null) {
+                throw new RuntimeException("The category of the place " + seat.getPlace() + " can not be null");
+            }
+            throwRuntimeExceptionIfPlaceInvalid(seat.getPlace());
+            if (!places.add(seat.getPlace())) {
+                throw new RuntimeException("The place " + seat.getPlace() + " is requested more than once");
+            }
         }
     }
 
-    private void throwRuntimeExceptionIfUserNotExist(long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new RuntimeException("The user with id " + userId + " does not exist");
+    private Set<Integer> getPlaces(List<SeatRequest> seats) {
+        Set<Integer> places = new HashSet<>();
+        for (SeatRequest seat : seats) {
+            places.add(seat.getPlace());
         }
+        return places;
     }
 
-    private boolean userHasEnoughMoneyForTicket(UserAccount userAccount, Event event) {
-        return userAccount.getMoney().compareTo(event.getTicketPrice()) > -1;
+    /**
+     * Gets the user account, the event and whether any of the places is taken with one statement.
+     * Doubles as the existence check of the user, the user account and the event.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param places  the places
+     * @return the booking snapshot
+     */
+    private BookingSnapshot getBookingSnapshot(long userId, long eventId, Collection<Integer> places) {
+        return ticketRepository.findBookingSnapshot(userId, eventId, places)
+                .orElseThrow(() -> new RuntimeException(
+                        "Can not to find a user account by user id " + userId + " or an event by id " + eventId));
     }
 
     /**
-     * Create new ticket.
+     * Saves the ticket referencing the user and the event without loading them,
+     * the returned ticket is filled from the booking snapshot.
      *
      * @param userId   the user id
      * @param eventId  the event id
      * @param place    the place
      * @param category the category
+     * @param snapshot the booking snapshot
      * @return the ticket
      */
-    private Ticket createNewTicket(long userId, long eventId, int place, Category category) {
-        User user = userRepository.findById(userId).get();
-        Event event = eventRepository.findById(eventId).get();
-        return new Ticket(user, event, place, category);
+    private Ticket saveBookedTicket(long userId, long eventId, int place, Category category,
+                                    BookingSnapshot snapshot) {
+        Ticket ticket = ticketRepository.save(new Ticket(entityManager.getReference(User.class, userId),
+                entityManager.getReference(Event.class, eventId), place, category));
+        return new Ticket(ticket.getId(), createUser(userId, snapshot), createEvent(eventId, snapshot),
+                place, category);
+    }
+
+    private User createUser(long userId, BookingSnapshot snapshot) {
+        return new User(userId, snapshot.getUserName(), snapshot.getUserEmail());
+    }
+
+    private Event createEvent(long eventId, BookingSnapshot snapshot) {
+        return new Event(eventId, snapshot.getEventTitle(), snapshot.getEventDate(), snapshot.getTicketPrice());
+    }
+
+    /**
+     * Debits the user account atomically in the database, by a debit entry in the ledger mode.
+     * The money check of the snapshot only fails fast, this update is what keeps the balance non-negative
+     * when concurrent bookings of the same user have drained the account since the snapshot.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param amount  the amount
+     */
+    private void debitUserAccount(long userId, long eventId, BigDecimal amount) {
+        boolean debited = accountLedgerService.isEnabled()
+                ? accountLedgerService.debit(userId, amount)
+                : userAccountRepository.debit(userId, amount) > 0;
+        if (!debited) {
+            throw new RuntimeException(
+                    "The user with id " + userId +
+                            " does not have enough money for ticket with event id " + eventId
+            );
+        }
+    }
+
+    private void throwRuntimeExceptionIfUserNotHaveEnoughMoney(long userId, long eventId,
+                                                               BookingSnapshot snapshot, BigDecimal price) {
+        if (snapshot.getMoney().compareTo(price) < 0) {
+            throw new RuntimeException(
+                    "The user with id " + userId +
+                            " does not have enough money for ticket with event id " + eventId
+            );
+        }
+    }
+
+    private void throwRuntimeExceptionIfPlaceTaken(BookingSnapshot snapshot) {
+        if (Boolean.TRUE.equals(snapshot.getPlaceTaken())) {
+            throw new RuntimeException("This ticket already booked");
+        }
+    }
+
+    private void throwRuntimeExceptionIfPlaceInvalid(int place) {
+        if (!seatAvailabilityService.isValidPlace(place)) {
+            throw new RuntimeException("The place " + place + " is out of the places of the event");
+        }
+    }
+
+    private void throwRuntimeExceptionIfSeatTaken(long userId, long eventId, int place, Category category) {
+        if (seatAvailabilityService.isTaken(eventId, place, category)) {
+            throw new RuntimeException("This ticket already booked");
+        }
+        if (seatHoldService.isHeldByAnotherUser(eventId, place, userId)) {
+            throw new RuntimeException("The place " + place + " is held by another user");
+        }
     }
 
     /**
@@ -165,6 +524,7 @@ public class TicketServiceImpl implements TicketService {
      * @return the booked tickets
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Ticket> getBookedTickets(User user, int pageSize, int pageNum) {
         log.info("Finding all booked tickets by user {} with page size {} and number of page {}",
                 user, pageSize, pageNum);
@@ -173,8 +533,7 @@ public class TicketServiceImpl implements TicketService {
                 log.warn("The user can not be a null");
                 return new ArrayList<>();
             }
-            System.out.println(ticketRepository.findAll());
-            Page<Ticket> ticketsByUser = ticketRepository.getAllByUserId(
+            Slice<Ticket> ticketsByUser = ticketRepository.getAllByUserId(
                     PageRequest.of(pageNum - 1, pageSize), user.getId());
             if (!ticketsByUser.hasContent()) {
                 throw new RuntimeException("Can not to fina a list of booked tickets by user with id: " + user.getId());
@@ -188,6 +547,58 @@ public class TicketServiceImpl implements TicketService {
         }
     }
 
+    /**
+     * Gets booked tickets.
+     * The page is read by the index on the user id and the ticket id from the cursor on, without a count,
+     * and projected to the views without loading the entities.
+     *
+     * @param user     the user
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the booked tickets
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketView> getBookedTickets(User user, int pageSize, String after) {
+        log.info("Finding booked tickets by user {} with page size {} after cursor {}", user, pageSize, after);
+        try {
+            if (isUserNull(user)) {
+                log.warn("The user can not be a null");
+                return CursorPage.empty();
+            }
+            Slice<TicketView> ticketsByUser = ticketRepository.findViewsByUserIdAfter(
+                    user.getId(), CursorPage.decode(after), PageRequest.of(0, pageSize));
+            log.info("{} booked tickets found by user {} after cursor {}",
+                    ticketsByUser.getNumberOfElements(), user, after);
+            return CursorPage.of(ticketsByUser, TicketView::getId);
+        } catch (RuntimeException e) {
+            log.warn("Can not to find a list of booked tickets by user '{}' after cursor {}", user, after, e);
+            return CursorPage.empty();
+        }
+    }
+
+    /**
+     * Count booked tickets.
+     * The total is cached and counted again in the background, so it may be behind the listing.
+     *
+     * @param user the user
+     * @return the approximate number of the booked tickets, null if it can not be counted
+     */
+    @Override
+    public Long countBookedTickets(User user) {
+        try {
+            if (isUserNull(user)) {
+                log.warn("The user can not be a null");
+                return null;
+            }
+            return approximateCounts.get("tickets.user:" + user.getId(),
+                    () -> ticketRepository.countByUserId(user.getId()));
+        } catch (RuntimeException e) {
+            log.warn("Can not to count booked tickets by user '{}'", user, e);
+            return null;
+        }
+    }
+
     /**
      * Is user null boolean.
      *
@@ -207,6 +618,7 @@ public class TicketServiceImpl implements TicketService {
      * @return the booked tickets
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Ticket> getBookedTickets(Event event, int pageSize, int pageNum) {
         log.info("Finding all booked tickets by event {} with page size {} and number of page {}",
                 event, pageSize, pageNum);
@@ -215,7 +627,7 @@ public class TicketServiceImpl implements TicketService {
                 log.warn("The event can not be a null");
                 return new ArrayList<>();
             }
-            Page<Ticket> ticketsByEvent = ticketRepository.getAllByEventId(
+            Slice<Ticket> ticketsByEvent = ticketRepository.getAllByEventId(
                     PageRequest.of(pageNum - 1, pageSize), event.getId());
             if (!ticketsByEvent.hasContent()) {
                 throw new RuntimeException("Can not to fina a list of booked tickets by event with id: " + event.getId());
@@ -229,6 +641,58 @@ public class TicketServiceImpl implements TicketService {
         }
     }
 
+    /**
+     * Gets booked tickets.
+     * The page is read by the index on the event id and the ticket id from the cursor on, without a count,
+     * and projected to the views without loading the entities.
+     *
+     * @param event    the event
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the booked tickets
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketView> getBookedTickets(Event event, int pageSize, String after) {
+        log.info("Finding booked tickets by event {} with page size {} after cursor {}", event, pageSize, after);
+        try {
+            if (isEventNull(event)) {
+                log.warn("The event can not be a null");
+                return CursorPage.empty();
+            }
+            Slice<TicketView> ticketsByEvent = ticketRepository.findViewsByEventIdAfter(
+                    event.getId(), CursorPage.decode(after), PageRequest.of(0, pageSize));
+            log.info("{} booked tickets found by event {} after cursor {}",
+                    ticketsByEvent.getNumberOfElements(), event, after);
+            return CursorPage.of(ticketsByEvent, TicketView::getId);
+        } catch (RuntimeException e) {
+            log.warn("Can not to find a list of booked tickets by event '{}' after cursor {}", event, after, e);
+            return CursorPage.empty();
+        }
+    }
+
+    /**
+     * Count booked tickets.
+     * The total is cached and counted again in the background, so it may be behind the listing.
+     *
+     * @param event the event
+     * @return the approximate number of the booked tickets, null if it can not be counted
+     */
+    @Override
+    public Long countBookedTickets(Event event) {
+        try {
+            if (isEventNull(event)) {
+                log.warn("The event can not be a null");
+                return null;
+            }
+            return approximateCounts.get("tickets.event:" + event.getId(),
+                    () -> ticketRepository.countByEventId(event.getId()));
+        } catch (RuntimeException e) {
+            log.warn("Can not to count booked tickets by event '{}'", event, e);
+            return null;
+        }
+    }
+
     /**
      * Is event null boolean.
      *
@@ -241,6 +705,7 @@ public class TicketServiceImpl implements TicketService {
 
     /**
      * Cancel ticket boolean.
+     * The ticket is deleted and its price is refunded to the user account with one statement.
      *
      * @param ticketId the ticket id
      * @return the boolean
@@ -249,7 +714,10 @@ public class TicketServiceImpl implements TicketService {
     public boolean cancelTicket(long ticketId) {
         log.info("Start canceling a ticket with id: {}", ticketId);
         try {
-            ticketRepository.deleteById(ticketId);
+            Ticket ticket = ticketJdbcRepository.cancel(ticketId).orElseThrow(
+                    () -> new RuntimeException("Can not to find a ticket with id: " + ticketId));
+            evictCachedUserAccounts();
+            freePlace(ticket);
             log.info("Successfully canceling of the ticket with id: {}", ticketId);
             return true;
         } catch (RuntimeException e) {
@@ -257,4 +725,67 @@ public class TicketServiceImpl implements TicketService {
             return false;
         }
     }
+
+    /**
+     * Cancel tickets by event list.
+     * All the tickets are deleted and refunded with one statement. The freed places are not offered to the
+     * waitlist, the whole event is being cancelled.
+     *
+     * @param eventId the event id
+     * @return the cancelled tickets
+     */
+    @Override
+    public List<Ticket> cancelTicketsByEvent(long eventId) {
+        log.info("Start canceling all the tickets of the event with id: {}", eventId);
+        try {
+            List<Ticket> tickets = ticketJdbcRepository.cancelAllByEventId(eventId);
+            evictCachedUserAccounts();
+            seatAvailabilityService.evict(eventId);
+            log.info("Successfully canceling of {} tickets of the event with id: {}", tickets.size(), eventId);
+            return tickets;
+        } catch (RuntimeException e) {
+            log.warn("Can not to cancel the tickets of the event with id: {}", eventId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Cancel tickets by user list.
+     * All the tickets are deleted and refunded with one statement.
+     *
+     * @param userId the user id
+     * @return the cancelled tickets
+     */
+    @Override
+    public List<Ticket> cancelTicketsByUser(long userId) {
+        log.info("Start canceling all the tickets of the user with id: {}", userId);
+        try {
+            List<Ticket> tickets = ticketJdbcRepository.cancelAllByUserId(userId);
+            evictCachedUserAccounts();
+            tickets.forEach(this::freePlace);
+            log.info("Successfully canceling of {} tickets of the user with id: {}", tickets.size(), userId);
+            return tickets;
+        } catch (RuntimeException e) {
+            log.warn("Can not to cancel the tickets of the user with id: {}", userId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Marks the place of the cancelled ticket free and lets the waitlist know about it.
+     *
+     * @param ticket the cancelled ticket
+     */
+    private void freePlace(Ticket ticket) {
+        long eventId = ticket.getEvent().getId();
+        seatAvailabilityService.markFree(eventId, ticket.getPlace(), ticket.getCategory());
+        eventPublisher.publishEvent(new TicketCancelledEvent(eventId, ticket.getPlace(), ticket.getCategory()));
+    }
+
+    /**
+     * Evicts the user accounts from the second level cache, the refunds and the batch debits bypass Hibernate.
+     */
+    private void evictCachedUserAccounts() {
+        entityManager.getEntityManagerFactory().getCache().evict(UserAccount.class);
+    }
 }
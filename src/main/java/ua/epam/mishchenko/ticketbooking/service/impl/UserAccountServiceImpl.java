@@ -2,13 +2,29 @@ package ua.epam.mishchenko.ticketbooking.service.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.dto.RefillResult;
 import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+import ua.epam.mishchenko.ticketbooking.repository.UserAccountJdbcRepository;
 import ua.epam.mishchenko.ticketbooking.repository.UserAccountRepository;
 import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.service.AccountLedgerService;
+import ua.epam.mishchenko.ticketbooking.service.OutboxService;
 import ua.epam.mishchenko.ticketbooking.service.UserAccountService;
 
+import javax.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class UserAccountServiceImpl implements UserAccountService {
@@ -19,9 +35,29 @@ public class UserAccountServiceImpl implements UserAccountService {
 
     private final UserAccountRepository userAccountRepository;
 
-    public UserAccountServiceImpl(UserRepository userRepository, UserAccountRepository userAccountRepository) {
+    private final AccountLedgerService accountLedgerService;
+
+    private final UserAccountJdbcRepository userAccountJdbcRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final OutboxService outboxService;
+
+    public UserAccountServiceImpl(UserRepository userRepository, UserAccountRepository userAccountRepository,
+                                  AccountLedgerService accountLedgerService,
+                                  UserAccountJdbcRepository userAccountJdbcRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  EntityManagerFactory entityManagerFactory,
+                                  OutboxService outboxService) {
         this.userRepository = userRepository;
         this.userAccountRepository = userAccountRepository;
+        this.accountLedgerService = accountLedgerService;
+        this.userAccountJdbcRepository = userAccountJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -30,8 +66,7 @@ public class UserAccountServiceImpl implements UserAccountService {
         try {
             thrownRuntimeExceptionIfMoneyLessZero(money);
             throwRuntimeExceptionIfUserNotExist(userId);
-            UserAccount userAccount = getUserAccountAndRefillIfNotExistCreate(userId, money);
-            userAccount = userAccountRepository.save(userAccount);
+            UserAccount userAccount = transactionTemplate.execute(status -> processRefillAccount(userId, money));
             log.info("The user account with user id {} successfully refilled", userId);
             return userAccount;
         } catch (RuntimeException e) {
@@ -40,14 +75,156 @@ public class UserAccountServiceImpl implements UserAccountService {
         }
     }
 
+    /**
+     * Refills the account and writes the refill event in one transaction.
+     *
+     * @param userId the user id
+     * @param money  the money
+     * @return the refilled account
+     */
+    private UserAccount processRefillAccount(long userId, BigDecimal money) {
+        UserAccount userAccount = accountLedgerService.isEnabled()
+                ? refillLedgerIfAccountExist(userId, money)
+                : null;
+        if (userAccount == null) {
+            userAccount = getUserAccountAndRefillIfNotExistCreate(userId, money);
+            userAccount = userAccountRepository.save(userAccount);
+        }
+        outboxService.recordRefilled(Collections.singletonList(new AccountRefill(userId, money)));
+        return userAccount;
+    }
+
+    /**
+     * Refills the accounts of the users, creating the missing ones.
+     * The users are checked with one query and the accepted refills are written with one JDBC batch
+     * in one transaction, in the order of the user ids so concurrent bulks lock the accounts in the same order.
+     * If the transaction fails the accepted refills are written one by one, each in its own transaction.
+     *
+     * @param refills the refills
+     * @return the result of every refill in the order of the refills
+     */
+    @Override
+    public List<RefillResult> refillAccounts(List<AccountRefill> refills) {
+        log.info("Refilling a bulk of {} user accounts", refills.size());
+        List<RefillResult> results = new ArrayList<>(Collections.nCopies(refills.size(), null));
+        List<Integer> accepted = acceptRefills(refills, results);
+        if (accepted.isEmpty()) {
+            return results;
+        }
+        List<AccountRefill> acceptedRefills = new ArrayList<>(accepted.size());
+        for (int index : accepted) {
+            acceptedRefills.add(refills.get(index));
+        }
+        acceptedRefills.sort(Comparator.comparingLong(AccountRefill::getUserId));
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeRefills(acceptedRefills));
+            for (int index : accepted) {
+                results.set(index, RefillResult.refilled(refills.get(index)));
+            }
+            log.info("The bulk of {} user accounts successfully refilled", accepted.size());
+        } catch (RuntimeException e) {
+            log.warn("Can not to refill the bulk of {} user accounts in one transaction, refilling them one by one",
+                    accepted.size(), e);
+            for (int index : accepted) {
+                results.set(index, refillOne(refills.get(index)));
+            }
+        } finally {
+            entityManagerFactory.getCache().evict(UserAccount.class);
+        }
+        return results;
+    }
+
+    /**
+     * Rejects the invalid refills and the refills of the unknown users, the users are checked with one query.
+     *
+     * @param refills the refills
+     * @param results the results to set the rejected refills to
+     * @return the indexes of the accepted refills
+     */
+    private List<Integer> acceptRefills(List<AccountRefill> refills, List<RefillResult> results) {
+        List<Integer> valid = new ArrayList<>(refills.size());
+        Set<Long> userIds = new HashSet<>();
+        for (int i = 0; i < refills.size(); i++) {
+            AccountRefill refill = refills.get(i);
+            if (refill == null) {
+                results.set(i, RefillResult.failed(new AccountRefill(0, null), "The refill can not be null"));
+            } else if (refill.getAmount() == null || refill.getAmount().compareTo(BigDecimal.ZERO) < 1) {
+                results.set(i, RefillResult.failed(refill, "The money can not to be less zero"));
+            } else {
+                valid.add(i);
+                userIds.add(refill.getUserId());
+            }
+        }
+        Set<Long> existingUserIds = userIds.isEmpty()
+                ? Collections.emptySet()
+                : userAccountJdbcRepository.findExistingUserIds(userIds);
+        List<Integer> accepted = new ArrayList<>(valid.size());
+        for (int index : valid) {
+            AccountRefill refill = refills.get(index);
+            if (existingUserIds.contains(refill.getUserId())) {
+                accepted.add(index);
+            } else {
+                results.set(index, RefillResult.failed(refill,
+                        "The user with id " + refill.getUserId() + " does not exist"));
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Writes the refills: upserts the accounts, or in the ledger mode creates the missing accounts
+     * and appends a refill entry per refill, and writes the refill events.
+     *
+     * @param refills the refills
+     */
+    private void writeRefills(List<AccountRefill> refills) {
+        if (accountLedgerService.isEnabled()) {
+            Set<Long> userIds = new TreeSet<>();
+            for (AccountRefill refill : refills) {
+                userIds.add(refill.getUserId());
+            }
+            userAccountJdbcRepository.createMissing(userIds);
+            accountLedgerService.refillAll(refills);
+        } else {
+            userAccountJdbcRepository.refillAll(refills);
+        }
+        outboxService.recordRefilled(refills);
+    }
+
+    private RefillResult refillOne(AccountRefill refill) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeRefills(Collections.singletonList(refill)));
+            return RefillResult.refilled(refill);
+        } catch (RuntimeException e) {
+            log.warn("Can not to refill account with user id: {}", refill.getUserId(), e);
+            return RefillResult.failed(refill, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
     private void thrownRuntimeExceptionIfMoneyLessZero(BigDecimal money) {
         if (money.compareTo(BigDecimal.ZERO) < 1) {
             throw new RuntimeException("The money can not to be less zero");
         }
     }
 
+    /**
+     * Appends a refill entry to the ledger, the account row is not updated.
+     *
+     * @param userId the user id
+     * @param money  the money
+     * @return a copy of the account with its balance, null if the account does not exist yet
+     */
+    private UserAccount refillLedgerIfAccountExist(long userId, BigDecimal money) {
+        UserAccount userAccount = userAccountRepository.findByUserId(userId).orElse(null);
+        if (userAccount == null) {
+            return null;
+        }
+        BigDecimal balance = accountLedgerService.refill(userId, money);
+        return new UserAccount(userAccount.getId(), userAccount.getUser(), balance);
+    }
+
     private UserAccount getUserAccountAndRefillIfNotExistCreate(long userId, BigDecimal money) {
-        UserAccount userAccount = userAccountRepository.findById(userId).orElse(null);
+        UserAccount userAccount = userAccountRepository.findByUserId(userId).orElse(null);
         if (userAccount == null) {
             return createNewUserAccount(userId, money);
         }
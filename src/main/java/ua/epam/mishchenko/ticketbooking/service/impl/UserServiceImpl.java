@@ -2,13 +2,25 @@ package ua.epam.mishchenko.ticketbooking.service.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.epam.mishchenko.ticketbooking.booking.ApproximateCounts;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+import ua.epam.mishchenko.ticketbooking.repository.BulkDeleteRepository;
 import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.UserView;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
 import ua.epam.mishchenko.ticketbooking.service.UserService;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,8 +40,41 @@ public class UserServiceImpl implements UserService {
      */
     private final UserRepository userRepository;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    /**
+     * The bulk delete repository.
+     */
+    private final BulkDeleteRepository bulkDeleteRepository;
+
+    /**
+     * The seat availability service.
+     */
+    private final SeatAvailabilityService seatAvailabilityService;
+
+    /**
+     * The transaction template.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The second level cache.
+     */
+    private final Cache cache;
+
+    /**
+     * The approximate counts.
+     */
+    private final ApproximateCounts approximateCounts;
+
+    public UserServiceImpl(UserRepository userRepository, BulkDeleteRepository bulkDeleteRepository,
+                           SeatAvailabilityService seatAvailabilityService,
+                           PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                           ApproximateCounts approximateCounts) {
         this.userRepository = userRepository;
+        this.bulkDeleteRepository = bulkDeleteRepository;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = entityManagerFactory.getCache();
+        this.approximateCounts = approximateCounts;
     }
 
     /**
@@ -85,6 +130,7 @@ public class UserServiceImpl implements UserService {
      * @return the users by name
      */
     @Override
+    @Transactional(readOnly = true)
     public List<User> getUsersByName(String name, int pageSize, int pageNum) {
         log.info("Finding all users by name {} with page size {} and number of page {}", name, pageSize, pageNum);
         try {
@@ -92,7 +138,7 @@ public class UserServiceImpl implements UserService {
                 log.warn("The name can not be null");
                 return new ArrayList<>();
             }
-            Page<User> usersByName = userRepository.getAllByName(PageRequest.of(pageNum - 1, pageSize), name);
+            Slice<User> usersByName = userRepository.getAllByName(PageRequest.of(pageNum - 1, pageSize), name);
             if (!usersByName.hasContent()) {
                 log.warn("Can not to find a list of users by name '{}'", name);
             }
@@ -105,6 +151,56 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Gets users by name.
+     * The page is read by the index on the name and the id from the cursor on, without a count,
+     * and projected to the views without loading the entities.
+     *
+     * @param name     the name
+     * @param pageSize the page size
+     * @param after    the cursor of the page
+     * @return the users by name
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserView> getUsersByName(String name, int pageSize, String after) {
+        log.info("Finding users by name {} with page size {} after cursor {}", name, pageSize, after);
+        try {
+            if (name.isEmpty()) {
+                log.warn("The name can not be null");
+                return CursorPage.empty();
+            }
+            Slice<UserView> usersByName = userRepository.findViewsByNameAfter(
+                    name, CursorPage.decode(after), PageRequest.of(0, pageSize));
+            log.info("{} users found by name {} after cursor {}", usersByName.getNumberOfElements(), name, after);
+            return CursorPage.of(usersByName, UserView::getId);
+        } catch (RuntimeException e) {
+            log.warn("Can not to find a list of users by name '{}' after cursor {}", name, after, e);
+            return CursorPage.empty();
+        }
+    }
+
+    /**
+     * Count users by name.
+     * The total is cached and counted again in the background, so it may be behind the listing.
+     *
+     * @param name the name
+     * @return the approximate number of the users, null if it can not be counted
+     */
+    @Override
+    public Long countUsersByName(String name) {
+        try {
+            if (name.isEmpty()) {
+                log.warn("The name can not be null");
+                return null;
+            }
+            return approximateCounts.get("users.name:" + name, () -> userRepository.countByName(name));
+        } catch (RuntimeException e) {
+            log.warn("Can not to count users by name '{}'", name, e);
+            return null;
+        }
+    }
+
     /**
      * Create user.
      *
@@ -180,6 +276,8 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Delete user boolean.
+     * The tickets and the account of the user are deleted by set-based statements in the same transaction
+     * instead of being cascaded.
      *
      * @param userId the user id
      * @return the boolean
@@ -188,12 +286,29 @@ public class UserServiceImpl implements UserService {
     public boolean deleteUser(long userId) {
         log.info("Start deleting an user with id: {}", userId);
         try {
-            userRepository.deleteById(userId);
-            log.info("Successfully deletion of the user with id: {}", userId);
+            List<Ticket> tickets = new ArrayList<>();
+            List<Long> accountIds = new ArrayList<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                tickets.addAll(bulkDeleteRepository.deleteTicketsByUserId(userId));
+                accountIds.addAll(bulkDeleteRepository.deleteAccountsByUserId(userId));
+                if (!bulkDeleteRepository.deleteUser(userId)) {
+                    throw new RuntimeException("Can not to find an user with id: " + userId);
+                }
+            });
+            cache.evict(User.class, userId);
+            for (Long accountId : accountIds) {
+                cache.evict(UserAccount.class, accountId);
+            }
+            for (Ticket ticket : tickets) {
+                cache.evict(Ticket.class, ticket.getId());
+                seatAvailabilityService.markFree(ticket.getEvent().getId(), ticket.getPlace(), ticket.getCategory());
+            }
+            log.info("Successfully deletion of the user with id: {} and its {} tickets", userId, tickets.size());
             return true;
         } catch (RuntimeException e) {
             log.warn("Can not to delete an user with id: {}", userId, e);
             return false;
         }
     }
+
 }
@@ -0,0 +1,345 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ua.epam.mishchenko.ticketbooking.booking.TicketCancelledEvent;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.model.WaitlistEntry;
+import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+import ua.epam.mishchenko.ticketbooking.repository.TicketRepository;
+import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.repository.WaitlistEntryRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.BookingSnapshot;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+import ua.epam.mishchenko.ticketbooking.service.SeatHoldService;
+import ua.epam.mishchenko.ticketbooking.service.TicketService;
+import ua.epam.mishchenko.ticketbooking.service.WaitlistService;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The type Waitlist service.
+ * The waitlists are kept in memory and backed by the waitlist_entries table, a waitlist is loaded from the table
+ * on its first use. The freed places are offered by a single background thread, one targeted booking at a time.
+ */
+@Service
+public class WaitlistServiceImpl implements WaitlistService, DisposableBean {
+
+    /**
+     * The constant log.
+     */
+    private static final Logger log = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+
+    private final UserRepository userRepository;
+
+    private final EventRepository eventRepository;
+
+    private final TicketService ticketService;
+
+    private final SeatAvailabilityService seatAvailabilityService;
+
+    private final SeatHoldService seatHoldService;
+
+    private final TicketRepository ticketRepository;
+
+    /**
+     * The executor offering the freed places.
+     */
+    private final Executor executor;
+
+    /**
+     * The waitlists by event and category.
+     */
+    private final ConcurrentMap<WaitlistKey, Deque<WaitlistEntry>> waitlists = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Waitlist service.
+     *
+     * @param waitlistEntryRepository the waitlist entry repository
+     * @param userRepository          the user repository
+     * @param eventRepository         the event repository
+     * @param ticketService           the ticket service
+     * @param seatAvailabilityService the seat availability service
+     * @param seatHoldService         the seat hold service
+     * @param ticketRepository        the ticket repository
+     */
+    @Autowired
+    public WaitlistServiceImpl(WaitlistEntryRepository waitlistEntryRepository, UserRepository userRepository,
+                               EventRepository eventRepository, TicketService ticketService,
+                               SeatAvailabilityService seatAvailabilityService, SeatHoldService seatHoldService,
+                               TicketRepository ticketRepository) {
+        this(waitlistEntryRepository, userRepository, eventRepository, ticketService, seatAvailabilityService,
+                seatHoldService, ticketRepository, Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "waitlist");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    /**
+     * Instantiates a new Waitlist service.
+     *
+     * @param waitlistEntryRepository the waitlist entry repository
+     * @param userRepository          the user repository
+     * @param eventRepository         the event repository
+     * @param ticketService           the ticket service
+     * @param seatAvailabilityService the seat availability service
+     * @param seatHoldService         the seat hold service
+     * @param ticketRepository        the ticket repository
+     * @param executor                the executor offering the freed places
+     */
+    WaitlistServiceImpl(WaitlistEntryRepository waitlistEntryRepository, UserRepository userRepository,
+                        EventRepository eventRepository, TicketService ticketService,
+                        SeatAvailabilityService seatAvailabilityService, SeatHoldService seatHoldService,
+                        TicketRepository ticketRepository, Executor executor) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.ticketService = ticketService;
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.seatHoldService = seatHoldService;
+        this.ticketRepository = ticketRepository;
+        this.executor = executor;
+    }
+
+    /**
+     * Join waitlist entry.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @return the waitlist entry
+     */
+    @Override
+    public WaitlistEntry join(long userId, long eventId, Category category) {
+        log.info("Start adding user with id {} to the waitlist of event with id {}, category {}",
+                userId, eventId, category);
+        try {
+            throwRuntimeExceptionIfUserOrEventNotExist(userId, eventId, category);
+            Deque<WaitlistEntry> waitlist = getWaitlist(eventId, category);
+            WaitlistEntry entry;
+            synchronized (waitlist) {
+                for (WaitlistEntry waiting : waitlist) {
+                    if (waiting.getUserId() == userId) {
+                        throw new RuntimeException("The user with id " + userId + " is already waiting");
+                    }
+                }
+                entry = waitlistEntryRepository.save(new WaitlistEntry(userId, eventId, category, new Date()));
+                waitlist.addLast(entry);
+            }
+            log.info("The user successfully added to the waitlist: {}", entry);
+            return entry;
+        } catch (RuntimeException e) {
+            log.warn("Can not to add user with id {} to the waitlist of event with id {}, category {}",
+                    userId, eventId, category, e);
+            return null;
+        }
+    }
+
+    private void throwRuntimeExceptionIfUserOrEventNotExist(long userId, long eventId, Category category) {
+        if (category == null) {
+            throw new RuntimeException("The category can not be null");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("The user with id " + userId + " does not exist");
+        }
+        if (!eventRepository.existsById(eventId)) {
+            throw new RuntimeException("The event with id " + eventId + " does not exist");
+        }
+    }
+
+    /**
+     * Leave boolean.
+     *
+     * @param entryId the entry id
+     * @return the boolean
+     */
+    @Override
+    public boolean leave(long entryId) {
+        log.info("Start removing the waitlist entry with id {}", entryId);
+        try {
+            WaitlistEntry entry = waitlistEntryRepository.findById(entryId).orElseThrow(
+                    () -> new RuntimeException("Can not to find the waitlist entry with id " + entryId));
+            Deque<WaitlistEntry> waitlist = getWaitlist(entry.getEventId(), entry.getCategory());
+            synchronized (waitlist) {
+                waitlist.removeIf(waiting -> waiting.getId().equals(entry.getId()));
+                waitlistEntryRepository.deleteById(entryId);
+            }
+            log.info("The waitlist entry with id {} successfully removed", entryId);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Can not to remove the waitlist entry with id {}", entryId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Offer.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    @Override
+    public void offer(long eventId, int place, Category category) {
+        executor.execute(() -> {
+            try {
+                processOffer(eventId, place, category);
+            } catch (RuntimeException e) {
+                log.warn("Can not to offer the place {} of event with id {}, category {} to the waitlist",
+                        place, eventId, category, e);
+            }
+        });
+    }
+
+    /**
+     * Offers the freed place of the cancelled ticket to the waitlist.
+     *
+     * @param event the ticket cancelled event
+     */
+    @EventListener
+    public void onTicketCancelled(TicketCancelledEvent event) {
+        offer(event.getEventId(), event.getPlace(), event.getCategory());
+    }
+
+    /**
+     * Books the place for the first waiting user who can pay for it.
+     * A user whose booking can never succeed, the user, the account or the event does not exist or the user
+     * can not pay for the place, is removed from the waitlist and the place is offered to the next user.
+     * A user whose booking fails because the place is taken or held by another user, or by a transient error,
+     * keeps the head of the waitlist for the next freed place.
+     *
+     * @param eventId  the event id
+     * @param place    the place
+     * @param category the category
+     */
+    private void processOffer(long eventId, int place, Category category) {
+        Deque<WaitlistEntry> waitlist = getWaitlist(eventId, category);
+        while (true) {
+            WaitlistEntry entry;
+            synchronized (waitlist) {
+                entry = waitlist.pollFirst();
+            }
+            if (entry == null) {
+                log.info("Nobody is waiting for the place {} of event with id {}, category {}",
+                        place, eventId, category);
+                return;
+            }
+            if (isTakenOrHeld(eventId, place, category, entry.getUserId())) {
+                returnToHead(waitlist, entry);
+                return;
+            }
+            Ticket ticket = ticketService.bookTicket(entry.getUserId(), eventId, place, category);
+            if (ticket == null && (isTakenOrHeld(eventId, place, category, entry.getUserId())
+                    || canBookLater(entry.getUserId(), eventId, place))) {
+                log.info("Can not to book the place {} of event with id {} for the waiting user with id {} now, " +
+                        "the user keeps the head of the waitlist", place, eventId, entry.getUserId());
+                returnToHead(waitlist, entry);
+                return;
+            }
+            waitlistEntryRepository.deleteById(entry.getId());
+            if (ticket != null) {
+                log.info("The place {} of event with id {} successfully booked for the waiting user with id {}",
+                        place, eventId, entry.getUserId());
+                return;
+            }
+            log.info("Can not to book the place {} of event with id {} for the waiting user with id {}, " +
+                    "the user is removed from the waitlist", place, eventId, entry.getUserId());
+        }
+    }
+
+    private boolean isTakenOrHeld(long eventId, int place, Category category, long userId) {
+        return seatAvailabilityService.isTaken(eventId, place, category)
+                || seatHoldService.isHeldByAnotherUser(eventId, place, userId);
+    }
+
+    /**
+     * Checks whether the failed booking of the user may succeed later, the user, the account and the event
+     * exist and the user can pay for the place, so the booking has failed by a transient error.
+     * A failed check is taken as a transient error too.
+     *
+     * @param userId  the user id
+     * @param eventId the event id
+     * @param place   the place
+     * @return the boolean
+     */
+    private boolean canBookLater(long userId, long eventId, int place) {
+        try {
+            Optional<BookingSnapshot> snapshot = ticketRepository.findBookingSnapshot(
+                    userId, eventId, Collections.singleton(place));
+            return snapshot.isPresent()
+                    && snapshot.get().getMoney().compareTo(snapshot.get().getTicketPrice()) >= 0;
+        } catch (RuntimeException e) {
+            log.warn("Can not to check whether the user with id {} can book the event with id {} later",
+                    userId, eventId, e);
+            return true;
+        }
+    }
+
+    private void returnToHead(Deque<WaitlistEntry> waitlist, WaitlistEntry entry) {
+        synchronized (waitlist) {
+            waitlist.addFirst(entry);
+        }
+    }
+
+    private Deque<WaitlistEntry> getWaitlist(long eventId, Category category) {
+        return waitlists.computeIfAbsent(new WaitlistKey(eventId, category),
+                key -> new ArrayDeque<>(waitlistEntryRepository.findAllByEventIdAndCategoryOrderByIdAsc(
+                        eventId, category)));
+    }
+
+    /**
+     * Stops the executor offering the freed places.
+     */
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * The event and the category of a waitlist.
+     */
+    private static final class WaitlistKey {
+
+        private final long eventId;
+
+        private final Category category;
+
+        private WaitlistKey(long eventId, Category category) {
+            this.eventId = eventId;
+            this.category = category;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            WaitlistKey that = (WaitlistKey) o;
+            return eventId == that.eventId && category == that.category;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventId, category);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ua.epam.mishchenko.ticketbooking.utils;
 
 import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 
 /**
  * The type Constants.
@@ -12,4 +13,9 @@ public class Constants {
      */
     public static final SimpleDateFormat DATE_FORMATTER = new SimpleDateFormat("yyyy-MM-dd HH:mm");
 
+    /**
+     * The constant LOCAL_DATE_TIME_FORMATTER, the thread-safe formatter of the same pattern for local date-times.
+     */
+    public static final DateTimeFormatter LOCAL_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
 }
@@ -0,0 +1,54 @@
+package ua.epam.mishchenko.ticketbooking.web.controller;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ua.epam.mishchenko.ticketbooking.booking.BookingMetrics;
+
+import java.util.Map;
+
+/**
+ * The type Booking metrics controller.
+ */
+@RestController
+@RequestMapping("api/metrics/booking")
+public class BookingMetricsController {
+
+    /**
+     * The Booking metrics.
+     */
+    private final BookingMetrics bookingMetrics;
+
+    /**
+     * Instantiates a new Booking metrics controller.
+     *
+     * @param bookingMetrics the booking metrics
+     */
+    public BookingMetricsController(BookingMetrics bookingMetrics) {
+        this.bookingMetrics = bookingMetrics;
+    }
+
+    /**
+     * Gets the p50, p99 and p999 latency of every booking stage in microseconds
+     * with the numbers of succeeded and failed bookings.
+     *
+     * @return the booking metrics
+     */
+    @GetMapping
+    public Map<String, Object> getBookingMetrics() {
+        return bookingMetrics.getSummary();
+    }
+
+    /**
+     * Resets the booking metrics.
+     *
+     * @return the booking metrics before the reset
+     */
+    @DeleteMapping
+    public Map<String, Object> resetBookingMetrics() {
+        Map<String, Object> summary = bookingMetrics.getSummary();
+        bookingMetrics.reset();
+        return summary;
+    }
+}
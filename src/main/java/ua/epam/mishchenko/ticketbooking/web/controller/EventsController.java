@@ -2,6 +2,8 @@ package ua.epam.mishchenko.ticketbooking.web.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,18 +12,25 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.SeatAvailability;
 import ua.epam.mishchenko.ticketbooking.facade.impl.BookingFacadeImpl;
 import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
 
 import java.math.BigDecimal;
 import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static ua.epam.mishchenko.ticketbooking.utils.Constants.DATE_FORMATTER;
+import static ua.epam.mishchenko.ticketbooking.utils.Constants.LOCAL_DATE_TIME_FORMATTER;
 
 /**
  * The type Events controller.
@@ -80,21 +89,50 @@ public class EventsController {
         return event == null;
     }
 
+    /**
+     * Gets the booked places of the event per category as Base64 encoded bitsets.
+     *
+     * @param id the id
+     * @return the seat availability, not found if there is no such event
+     */
+    @GetMapping(value = "/{id}/availability", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<SeatAvailability> getSeatAvailability(@PathVariable long id) {
+        log.info("Getting the seat availability of the event with id: {}", id);
+        SeatAvailability availability = bookingFacade.getSeatAvailability(id);
+        if (availability == null) {
+            log.info("Can not to find the seat availability of the event with id: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(availability);
+    }
+
     /**
      * Show events by title model and view.
+     * The events are paged by the page number if it is given, otherwise by the cursor.
      *
      * @param title    the title
      * @param pageSize the page size
      * @param pageNum  the page num
+     * @param after    the cursor of the page, the first page if absent
      * @return the model and view
      */
     @GetMapping("/title/{title}")
     public ModelAndView showEventsByTitle(@PathVariable String title,
                                           @RequestParam int pageSize,
-                                          @RequestParam int pageNum) {
+                                          @RequestParam(required = false) Integer pageNum,
+                                          @RequestParam(required = false) String after) {
         log.info("Showing events by title: {}", title);
         Map<String, Object> model = new HashMap<>();
-        List<Event> eventsByTitle = bookingFacade.getEventsByTitle(title, pageSize, pageNum);
+        List<?> eventsByTitle;
+        if (pageNum == null) {
+            CursorPage<EventView> page = bookingFacade.getEventsByTitle(title, pageSize, after);
+            model.put("nextCursor", page.getNextCursor());
+            model.put("pageSize", pageSize);
+            eventsByTitle = page.getContent();
+        } else {
+            eventsByTitle = bookingFacade.getEventsByTitle(title, pageSize, pageNum);
+        }
         if (eventsByTitle.isEmpty()) {
             model.put("message", "Can not to get events by title: " + title);
             log.info("Can not to get events by title: {}", title);
@@ -107,21 +145,32 @@ public class EventsController {
 
     /**
      * Show events for day model and view.
+     * The events are paged by the page number if it is given, otherwise by the cursor.
      *
      * @param day      the day
      * @param pageSize the page size
      * @param pageNum  the page num
+     * @param after    the cursor of the page, the first page if absent
      * @return the model and view
      */
     @GetMapping("/day/{day}")
     public ModelAndView showEventsForDay(@PathVariable String day,
                                          @RequestParam int pageSize,
-                                         @RequestParam int pageNum) {
+                                         @RequestParam(required = false) Integer pageNum,
+                                         @RequestParam(required = false) String after) {
         log.info("Showing events for day: {}", day);
         Map<String, Object> model = new HashMap<>();
         try {
             Date date = parseFromStringToDate(day);
-            List<Event> eventsForDay = bookingFacade.getEventsForDay(date, pageSize, pageNum);
+            List<?> eventsForDay;
+            if (pageNum == null) {
+                CursorPage<EventView> page = bookingFacade.getEventsForDay(date, pageSize, after);
+                model.put("nextCursor", page.getNextCursor());
+                model.put("pageSize", pageSize);
+                eventsForDay = page.getContent();
+            } else {
+                eventsForDay = bookingFacade.getEventsForDay(date, pageSize, pageNum);
+            }
             if (eventsForDay.isEmpty()) {
                 model.put("message", "Can not to get events for day: " + day);
                 log.info("Can not to get events for day: {}", day);
@@ -136,6 +185,68 @@ public class EventsController {
         return new ModelAndView("events", model);
     }
 
+    /**
+     * Show events between the moments model and view.
+     * The moments are local date-times of the zone, the system zone if absent.
+     *
+     * @param from     the moment to start from, inclusive
+     * @param to       the moment to end at, exclusive
+     * @param zone     the time zone of the moments
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the model and view
+     */
+    @GetMapping("/range")
+    public ModelAndView showEventsBetween(@RequestParam String from,
+                                          @RequestParam String to,
+                                          @RequestParam(required = false) String zone,
+                                          @RequestParam int pageSize,
+                                          @RequestParam(defaultValue = "1") int pageNum) {
+        log.info("Showing events from {} to {} in zone {}", from, to, zone);
+        Map<String, Object> model = new HashMap<>();
+        try {
+            ZoneId zoneId = zone == null || zone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(zone);
+            List<Event> eventsBetween = bookingFacade.getEventsBetween(parseFromStringToDate(from, zoneId),
+                    parseFromStringToDate(to, zoneId), pageSize, pageNum);
+            if (eventsBetween.isEmpty()) {
+                model.put("message", "Can not to get events from " + from + " to " + to);
+                log.info("Can not to get events from {} to {}", from, to);
+            } else {
+                model.put("events", eventsBetween);
+                log.info("Events from {} to {} successfully found", from, to);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Can not to get events from {} to {} in zone {}", from, to, zone, e);
+            model.put("message", "Can not to parse the range from " + from + " to " + to + " in zone " + zone);
+        }
+        return new ModelAndView("events", model);
+    }
+
+    /**
+     * Search events by title model and view, the best matches first.
+     *
+     * @param query    the prefix or the part of the title
+     * @param pageSize the page size
+     * @param pageNum  the page num
+     * @return the model and view
+     */
+    @GetMapping("/search")
+    public ModelAndView searchEventsByTitle(@RequestParam String query,
+                                            @RequestParam int pageSize,
+                                            @RequestParam(defaultValue = "1") int pageNum) {
+        log.info("Searching events by title: {}", query);
+        Map<String, Object> model = new HashMap<>();
+        List<Event> eventsByTitle = bookingFacade.searchEventsByTitle(query, pageSize, pageNum);
+        if (eventsByTitle.isEmpty()) {
+            model.put("message", "Can not to find events by title: " + query);
+            log.info("Can not to find events by title: {}", query);
+        } else {
+            model.put("events", eventsByTitle);
+            log.info("Events by title: {} successfully found", query);
+        }
+        return new ModelAndView("events", model);
+    }
+
     /**
      * Create event model and view.
      *
@@ -181,6 +292,17 @@ public class EventsController {
         return event;
     }
 
+    /**
+     * Parse from string to date date.
+     *
+     * @param date the local date-time
+     * @param zone the time zone of the date-time
+     * @return the date
+     */
+    private Date parseFromStringToDate(String date, ZoneId zone) {
+        return Date.from(LocalDateTime.parse(date, LOCAL_DATE_TIME_FORMATTER).atZone(zone).toInstant());
+    }
+
     /**
      * Parse from string to date date.
      *
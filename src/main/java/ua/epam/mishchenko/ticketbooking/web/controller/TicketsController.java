@@ -2,20 +2,32 @@ package ua.epam.mishchenko.ticketbooking.web.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
+import ua.epam.mishchenko.ticketbooking.booking.AdmissionRejectedException;
+import ua.epam.mishchenko.ticketbooking.booking.IdempotencyStore;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
 import ua.epam.mishchenko.ticketbooking.facade.impl.BookingFacadeImpl;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Event;
 import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.model.WaitlistEntry;
+import ua.epam.mishchenko.ticketbooking.repository.projection.TicketView;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,13 +49,20 @@ public class TicketsController {
      */
     private final BookingFacadeImpl bookingFacade;
 
+    /**
+     * The Idempotency store.
+     */
+    private final IdempotencyStore idempotencyStore;
+
     /**
      * Instantiates a new Tickets controller.
      *
-     * @param bookingFacade the booking facade
+     * @param bookingFacade    the booking facade
+     * @param idempotencyStore the idempotency store
      */
-    public TicketsController(BookingFacadeImpl bookingFacade) {
+    public TicketsController(BookingFacadeImpl bookingFacade, IdempotencyStore idempotencyStore) {
         this.bookingFacade = bookingFacade;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -52,17 +71,38 @@ public class TicketsController {
      * @param userId   the user id
      * @param eventId  the event id
      * @param place    the place
-     * @param category the category
+     * @param category       the category
+     * @param idempotencyKey the idempotency key, a retry with the same key gets the original result
+     *                       of a successful request
+     * @param response       the response, 429 with the Retry-After header if the booking is not admitted
      * @return the model and view
      */
     @PostMapping
     public ModelAndView bookTicket(@RequestParam long userId,
                                    @RequestParam long eventId,
                                    @RequestParam int place,
-                                   @RequestParam Category category) {
+                                   @RequestParam Category category,
+                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                   HttpServletResponse response) {
         log.info("Booking a ticket: userId={}, eventId={}, place={}, category={}", userId, eventId, place, category);
         Map<String, Object> model = new HashMap<>();
-        Ticket ticket = bookingFacade.bookTicket(userId, eventId, place, category);
+        Ticket ticket;
+        try {
+            ticket = isNull(idempotencyKey)
+                    ? bookingFacade.bookTicket(userId, eventId, place, category)
+                    : idempotencyStore.execute("tickets:" + idempotencyKey,
+                    userId + ":" + eventId + ":" + place + ":" + category,
+                    () -> bookingFacade.bookTicket(userId, eventId, place, category));
+        } catch (AdmissionRejectedException e) {
+            model.put("message", e.getMessage());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            log.info("The booking is not admitted: {}", e.getMessage());
+            return new ModelAndView("ticket", model, HttpStatus.TOO_MANY_REQUESTS);
+        } catch (IllegalArgumentException e) {
+            model.put("message", e.getMessage());
+            log.info("Can not to book a ticket: {}", e.getMessage());
+            return new ModelAndView("ticket", model);
+        }
         if (isNull(ticket)) {
             model.put("message", "Can not to book a ticket");
             log.info("Can not to book a ticket: userId={}, eventId={}, place={}, category={}",
@@ -74,6 +114,206 @@ public class TicketsController {
         return new ModelAndView("ticket", model);
     }
 
+    /**
+     * Book tickets model and view.
+     *
+     * @param userId     the user id
+     * @param eventId    the event id
+     * @param places     the places
+     * @param categories the categories of the places
+     * @return the model and view
+     */
+    @PostMapping("/batch")
+    public ModelAndView bookTickets(@RequestParam long userId,
+                                    @RequestParam long eventId,
+                                    @RequestParam List<Integer> places,
+                                    @RequestParam List<Category> categories) {
+        log.info("Booking tickets: userId={}, eventId={}, places={}, categories={}",
+                userId, eventId, places, categories);
+        Map<String, Object> model = new HashMap<>();
+        if (places.size() != categories.size()) {
+            model.put("message", "The number of places and categories must be the same");
+            log.info("Can not to book tickets, the number of places and categories differs");
+            return new ModelAndView("tickets", model);
+        }
+        List<Ticket> tickets = bookingFacade.bookTickets(userId, eventId, createSeatRequests(places, categories));
+        if (tickets.isEmpty()) {
+            model.put("message", "Can not to book tickets");
+            log.info("Can not to book tickets: userId={}, eventId={}, places={}, categories={}",
+                    userId, eventId, places, categories);
+        } else {
+            model.put("tickets", tickets);
+            log.info("The tickets successfully booked");
+        }
+        return new ModelAndView("tickets", model);
+    }
+
+    /**
+     * Book best available tickets model and view.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @param count    the number of places
+     * @return the model and view
+     */
+    @PostMapping("/best-available")
+    public ModelAndView bookBestAvailable(@RequestParam long userId,
+                                          @RequestParam long eventId,
+                                          @RequestParam Category category,
+                                          @RequestParam int count) {
+        log.info("Booking best available tickets: userId={}, eventId={}, category={}, count={}",
+                userId, eventId, category, count);
+        Map<String, Object> model = new HashMap<>();
+        List<Ticket> tickets = bookingFacade.bookBestAvailable(userId, eventId, category, count);
+        if (tickets.isEmpty()) {
+            model.put("message", "Can not to book " + count + " best available tickets");
+            log.info("Can not to book best available tickets: userId={}, eventId={}, category={}, count={}",
+                    userId, eventId, category, count);
+        } else {
+            model.put("tickets", tickets);
+            log.info("The best available tickets successfully booked");
+        }
+        return new ModelAndView("tickets", model);
+    }
+
+    /**
+     * Hold seats model and view.
+     *
+     * @param userId     the user id
+     * @param eventId    the event id
+     * @param places     the places
+     * @param categories the categories of the places
+     * @return the model and view
+     */
+    @PostMapping("/hold")
+    public ModelAndView holdSeats(@RequestParam long userId,
+                                  @RequestParam long eventId,
+                                  @RequestParam List<Integer> places,
+                                  @RequestParam List<Category> categories) {
+        log.info("Holding seats: userId={}, eventId={}, places={}, categories={}",
+                userId, eventId, places, categories);
+        Map<String, Object> model = new HashMap<>();
+        if (places.size() != categories.size()) {
+            model.put("message", "The number of places and categories must be the same");
+            log.info("Can not to hold seats, the number of places and categories differs");
+            return new ModelAndView("hold", model);
+        }
+        SeatHold hold = bookingFacade.holdSeats(userId, eventId, createSeatRequests(places, categories));
+        if (isNull(hold)) {
+            model.put("message", "Can not to hold seats");
+            log.info("Can not to hold seats: userId={}, eventId={}, places={}, categories={}",
+                    userId, eventId, places, categories);
+        } else {
+            model.put("hold", hold);
+            log.info("The seats successfully held");
+        }
+        return new ModelAndView("hold", model);
+    }
+
+    /**
+     * Confirm hold model and view.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the model and view
+     */
+    @PostMapping("/hold/{holdId}/confirm")
+    public ModelAndView confirmHold(@PathVariable long holdId, @RequestParam long userId) {
+        log.info("Confirming the hold with id {} of user with id {}", holdId, userId);
+        Map<String, Object> model = new HashMap<>();
+        List<Ticket> tickets = bookingFacade.confirmHold(holdId, userId);
+        if (tickets.isEmpty()) {
+            model.put("message", "Can not to book held tickets");
+            log.info("Can not to book tickets held by hold with id {} of user with id {}", holdId, userId);
+        } else {
+            model.put("tickets", tickets);
+            log.info("The held tickets successfully booked");
+        }
+        return new ModelAndView("tickets", model);
+    }
+
+    /**
+     * Release hold model and view.
+     *
+     * @param holdId the hold id
+     * @param userId the user id
+     * @return the model and view
+     */
+    @DeleteMapping("/hold/{holdId}")
+    public ModelAndView releaseHold(@PathVariable long holdId, @RequestParam long userId) {
+        log.info("Releasing the hold with id {} of user with id {}", holdId, userId);
+        Map<String, Object> model = new HashMap<>();
+        if (bookingFacade.releaseHold(holdId, userId)) {
+            model.put("message", "The hold with id: " + holdId + " successfully released");
+            log.info("The hold with id: {} successfully released", holdId);
+        } else {
+            model.put("message", "The hold with id: " + holdId + " not released");
+            log.info("The hold with id: {} not released", holdId);
+        }
+        return new ModelAndView("hold", model);
+    }
+
+    /**
+     * Join waitlist model and view.
+     *
+     * @param userId   the user id
+     * @param eventId  the event id
+     * @param category the category
+     * @return the model and view
+     */
+    @PostMapping("/waitlist")
+    public ModelAndView joinWaitlist(@RequestParam long userId,
+                                     @RequestParam long eventId,
+                                     @RequestParam Category category) {
+        log.info("Joining the waitlist: userId={}, eventId={}, category={}", userId, eventId, category);
+        Map<String, Object> model = new HashMap<>();
+        WaitlistEntry entry = bookingFacade.joinWaitlist(userId, eventId, category);
+        if (isNull(entry)) {
+            model.put("message", "Can not to join the waitlist");
+            log.info("Can not to join the waitlist: userId={}, eventId={}, category={}", userId, eventId, category);
+        } else {
+            model.put("message", "The user joined the waitlist with entry id: " + entry.getId());
+            log.info("The user successfully joined the waitlist: {}", entry);
+        }
+        return new ModelAndView("waitlist", model);
+    }
+
+    /**
+     * Leave waitlist model and view.
+     *
+     * @param entryId the entry id
+     * @return the model and view
+     */
+    @DeleteMapping("/waitlist/{entryId}")
+    public ModelAndView leaveWaitlist(@PathVariable long entryId) {
+        log.info("Leaving the waitlist with entry id {}", entryId);
+        Map<String, Object> model = new HashMap<>();
+        if (bookingFacade.leaveWaitlist(entryId)) {
+            model.put("message", "The waitlist entry with id: " + entryId + " successfully removed");
+            log.info("The waitlist entry with id: {} successfully removed", entryId);
+        } else {
+            model.put("message", "The waitlist entry with id: " + entryId + " not removed");
+            log.info("The waitlist entry with id: {} not removed", entryId);
+        }
+        return new ModelAndView("waitlist", model);
+    }
+
+    /**
+     * Create seat requests list.
+     *
+     * @param places     the places
+     * @param categories the categories
+     * @return the list
+     */
+    private List<SeatRequest> createSeatRequests(List<Integer> places, List<Category> categories) {
+        List<SeatRequest> seats = new ArrayList<>(places.size());
+        for (int i = 0; i < places.size(); i++) {
+            seats.add(new SeatRequest(places.get(i), categories.get(i)));
+        }
+        return seats;
+    }
+
     /**
      * Is null boolean.
      *
@@ -86,16 +326,19 @@ public class TicketsController {
 
     /**
      * Show tickets by user model and view.
+     * The tickets are paged by the page number if it is given, otherwise by the cursor.
      *
      * @param userId   the user id
      * @param pageSize the page size
      * @param pageNum  the page num
+     * @param after    the cursor of the page, the first page if absent
      * @return the model and view
      */
     @GetMapping("/user/{userId}")
     public ModelAndView showTicketsByUser(@PathVariable long userId,
                                           @RequestParam int pageSize,
-                                          @RequestParam int pageNum) {
+                                          @RequestParam(required = false) Integer pageNum,
+                                          @RequestParam(required = false) String after) {
         log.info("Showing the tickets by user with id: {}", userId);
         Map<String, Object> model = new HashMap<>();
         User userById = bookingFacade.getUserById(userId);
@@ -103,7 +346,15 @@ public class TicketsController {
             model.put("message", "Can not to find a user by id: " + userId);
             log.info("Can not to find a user by id: {}", userId);
         } else {
-            List<Ticket> bookedTickets = bookingFacade.getBookedTickets(userById, pageSize, pageNum);
+            List<?> bookedTickets;
+            if (isNull(pageNum)) {
+                CursorPage<TicketView> page = bookingFacade.getBookedTickets(userById, pageSize, after);
+                model.put("nextCursor", page.getNextCursor());
+                model.put("pageSize", pageSize);
+                bookedTickets = page.getContent();
+            } else {
+                bookedTickets = bookingFacade.getBookedTickets(userById, pageSize, pageNum);
+            }
             if (bookedTickets.isEmpty()) {
                 model.put("message", "Can not to find the tickets by user with id: " + userId);
                 log.info("Can not to find the tickets by user with id: {}", userId);
@@ -117,16 +368,19 @@ public class TicketsController {
 
     /**
      * Show tickets by event model and view.
+     * The tickets are paged by the page number if it is given, otherwise by the cursor.
      *
      * @param eventId  the event id
      * @param pageSize the page size
      * @param pageNum  the page num
+     * @param after    the cursor of the page, the first page if absent
      * @return the model and view
      */
     @GetMapping("/event/{eventId}")
     public ModelAndView showTicketsByEvent(@PathVariable long eventId,
                                            @RequestParam int pageSize,
-                                           @RequestParam int pageNum) {
+                                           @RequestParam(required = false) Integer pageNum,
+                                           @RequestParam(required = false) String after) {
         log.info("Showing the tickets by event with id: {}", eventId);
         Map<String, Object> model = new HashMap<>();
         Event eventById = bookingFacade.getEventById(eventId);
@@ -134,7 +388,15 @@ public class TicketsController {
             model.put("message", "Can not to find an event by id: " + eventId);
             log.info("Can not to find an event by id: {}", eventId);
         } else {
-            List<Ticket> bookedTickets = bookingFacade.getBookedTickets(eventById, pageSize, pageNum);
+            List<?> bookedTickets;
+            if (isNull(pageNum)) {
+                CursorPage<TicketView> page = bookingFacade.getBookedTickets(eventById, pageSize, after);
+                model.put("nextCursor", page.getNextCursor());
+                model.put("pageSize", pageSize);
+                bookedTickets = page.getContent();
+            } else {
+                bookedTickets = bookingFacade.getBookedTickets(eventById, pageSize, pageNum);
+            }
             if (bookedTickets.isEmpty()) {
                 model.put("message", "Can not to find the tickets by event with id: " + eventId);
                 log.info("Can not to find the tickets by event with id: {}", eventId);
@@ -166,4 +428,36 @@ public class TicketsController {
         }
         return new ModelAndView("ticket", model);
     }
+
+    /**
+     * Cancel tickets by event model and view.
+     *
+     * @param eventId the event id
+     * @return the model and view
+     */
+    @DeleteMapping("/event/{eventId}")
+    public ModelAndView cancelTicketsByEvent(@PathVariable long eventId) {
+        log.info("Canceling all the tickets of the event with id: {}", eventId);
+        Map<String, Object> model = new HashMap<>();
+        List<Ticket> tickets = bookingFacade.cancelTicketsByEvent(eventId);
+        model.put("message", tickets.size() + " tickets of the event with id: " + eventId + " canceled");
+        log.info("{} tickets of the event with id: {} canceled", tickets.size(), eventId);
+        return new ModelAndView("ticket", model);
+    }
+
+    /**
+     * Cancel tickets by user model and view.
+     *
+     * @param userId the user id
+     * @return the model and view
+     */
+    @DeleteMapping("/user/{userId}")
+    public ModelAndView cancelTicketsByUser(@PathVariable long userId) {
+        log.info("Canceling all the tickets of the user with id: {}", userId);
+        Map<String, Object> model = new HashMap<>();
+        List<Ticket> tickets = bookingFacade.cancelTicketsByUser(userId);
+        model.put("message", tickets.size() + " tickets of the user with id: " + userId + " canceled");
+        log.info("{} tickets of the user with id: {} canceled", tickets.size(), userId);
+        return new ModelAndView("ticket", model);
+    }
 }
@@ -2,18 +2,29 @@ package ua.epam.mishchenko.ticketbooking.web.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
+import ua.epam.mishchenko.ticketbooking.booking.IdempotencyStore;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.dto.RefillResult;
 import ua.epam.mishchenko.ticketbooking.facade.impl.BookingFacadeImpl;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+import ua.epam.mishchenko.ticketbooking.repository.projection.UserView;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,13 +46,20 @@ public class UsersController {
      */
     private final BookingFacadeImpl bookingFacade;
 
+    /**
+     * The Idempotency store.
+     */
+    private final IdempotencyStore idempotencyStore;
+
     /**
      * Instantiates a new Users controller.
      *
-     * @param bookingFacade the booking facade
+     * @param bookingFacade    the booking facade
+     * @param idempotencyStore the idempotency store
      */
-    public UsersController(BookingFacadeImpl bookingFacade) {
+    public UsersController(BookingFacadeImpl bookingFacade, IdempotencyStore idempotencyStore) {
         this.bookingFacade = bookingFacade;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -68,28 +86,39 @@ public class UsersController {
     /**
      * Is null boolean.
      *
-     * @param user the user
+     * @param object the object
      * @return the boolean
      */
-    private boolean isNull(User user) {
-        return user == null;
+    private boolean isNull(Object object) {
+        return object == null;
     }
 
     /**
      * Show users by name model and view.
+     * The users are paged by the page number if it is given, otherwise by the cursor.
      *
      * @param name     the name
      * @param pageSize the page size
      * @param pageNum  the page num
+     * @param after    the cursor of the page, the first page if absent
      * @return the model and view
      */
     @GetMapping("/name/{name}")
     public ModelAndView showUsersByName(@PathVariable String name,
                                         @RequestParam int pageSize,
-                                        @RequestParam int pageNum) {
+                                        @RequestParam(required = false) Integer pageNum,
+                                        @RequestParam(required = false) String after) {
         log.info("Showing users by name: {}", name);
         Map<String, Object> model = new HashMap<>();
-        List<User> usersByName = bookingFacade.getUsersByName(name, pageSize, pageNum);
+        List<?> usersByName;
+        if (isNull(pageNum)) {
+            CursorPage<UserView> page = bookingFacade.getUsersByName(name, pageSize, after);
+            model.put("nextCursor", page.getNextCursor());
+            model.put("pageSize", pageSize);
+            usersByName = page.getContent();
+        } else {
+            usersByName = bookingFacade.getUsersByName(name, pageSize, pageNum);
+        }
         if (usersByName.isEmpty()) {
             model.put("message", "Can not to find users by name: " + name);
             log.info("Can not to find users by name: {}", name);
@@ -218,4 +247,59 @@ public class UsersController {
         }
         return new ModelAndView("user", model);
     }
+
+    /**
+     * Refill user account model and view.
+     *
+     * @param id             the user id
+     * @param money          the money
+     * @param idempotencyKey the idempotency key, a retry with the same key gets the original result
+     *                       of a successful request
+     * @return the model and view
+     */
+    @PostMapping("/{id}/account")
+    public ModelAndView refillUserAccount(@PathVariable long id,
+                                          @RequestParam BigDecimal money,
+                                          @RequestHeader(value = "Idempotency-Key", required = false)
+                                                  String idempotencyKey) {
+        log.info("Refilling the user account of the user with id {} by {}", id, money);
+        Map<String, Object> model = new HashMap<>();
+        UserAccount userAccount;
+        try {
+            userAccount = isNull(idempotencyKey)
+                    ? bookingFacade.refillUserAccount(id, money)
+                    : idempotencyStore.execute("refill:" + idempotencyKey,
+                    id + ":" + money.stripTrailingZeros().toPlainString(),
+                    () -> bookingFacade.refillUserAccount(id, money));
+        } catch (IllegalArgumentException e) {
+            model.put("message", e.getMessage());
+            log.info("Can not to refill the user account: {}", e.getMessage());
+            return new ModelAndView("user", model);
+        }
+        if (isNull(userAccount)) {
+            model.put("message", "Can not to refill the user account of the user with id: " + id);
+            log.info("Can not to refill the user account of the user with id: {}", id);
+        } else {
+            model.put("message", "The user account of the user with id: " + id +
+                    " successfully refilled, the balance is " + userAccount.getMoney());
+            log.info("The user account of the user with id: {} successfully refilled", id);
+        }
+        return new ModelAndView("user", model);
+    }
+
+    /**
+     * Refill user accounts list.
+     *
+     * @param refills the refills
+     * @return the result of every refill in the order of the refills
+     */
+    @PostMapping(value = "/accounts/refills", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<RefillResult> refillUserAccounts(@RequestBody List<AccountRefill> refills) {
+        log.info("Refilling a bulk of {} user accounts", refills.size());
+        List<RefillResult> results = bookingFacade.refillUserAccounts(refills);
+        log.info("The bulk of user accounts refilled");
+        return results;
+    }
 }
@@ -0,0 +1,28 @@
+package ua.epam.mishchenko.ticketbooking;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.booking.ApproximateCounts;
+import ua.epam.mishchenko.ticketbooking.booking.IdempotencyStore;
+
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml"})
+public class TicketBookingAppTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    public void contextShouldLoadComponentsWithSeveralConstructors() {
+        assertNotNull(applicationContext.getBean(IdempotencyStore.class));
+        assertNotNull(applicationContext.getBean(ApproximateCounts.class));
+    }
+}
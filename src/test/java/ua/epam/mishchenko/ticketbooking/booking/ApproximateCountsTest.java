@@ -0,0 +1,91 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class ApproximateCountsTest {
+
+    private long millis;
+
+    private ApproximateCounts approximateCounts;
+
+    private AtomicLong total;
+
+    private AtomicLong counts;
+
+    @Before
+    public void setUp() {
+        approximateCounts = new ApproximateCounts(1000, 2, () -> millis, null);
+        total = new AtomicLong(10);
+        counts = new AtomicLong();
+    }
+
+    private long count() {
+        counts.incrementAndGet();
+        return total.get();
+    }
+
+    @Test
+    public void getShouldCountOnceAndReturnCachedTotal() {
+        assertEquals(10, approximateCounts.get("key", this::count));
+        total.set(20);
+
+        assertEquals(10, approximateCounts.get("key", this::count));
+        assertEquals(1, counts.get());
+    }
+
+    @Test
+    public void refreshShouldCountCachedTotalsAgain() {
+        approximateCounts.get("key", this::count);
+        total.set(20);
+
+        approximateCounts.refresh();
+
+        assertEquals(20, approximateCounts.get("key", this::count));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    public void refreshShouldForgetIdleTotals() {
+        approximateCounts.get("idle", this::count);
+        millis = 500;
+        approximateCounts.get("read", this::count);
+        millis = 1200;
+
+        approximateCounts.refresh();
+
+        assertEquals(1, approximateCounts.size());
+    }
+
+    @Test
+    public void refreshIfCountFailsShouldKeepPreviousTotal() {
+        approximateCounts.get("key", this::count);
+        approximateCounts.get("failing", () -> {
+            if (counts.incrementAndGet() > 2) {
+                throw new IllegalStateException("The database is down");
+            }
+            return 5;
+        });
+
+        approximateCounts.refresh();
+
+        assertEquals(5, approximateCounts.get("failing", this::count));
+        assertEquals(10, approximateCounts.get("key", this::count));
+    }
+
+    @Test
+    public void getAboveMaxEntriesShouldCountEveryTime() {
+        approximateCounts.get("a", this::count);
+        approximateCounts.get("b", this::count);
+
+        approximateCounts.get("c", this::count);
+        approximateCounts.get("c", this::count);
+
+        assertEquals(2, approximateCounts.size());
+        assertEquals(4, counts.get());
+    }
+}
@@ -0,0 +1,117 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BookingAdmissionTest {
+
+    private long nanos;
+
+    private BookingMetrics bookingMetrics;
+
+    private BookingAdmission bookingAdmission;
+
+    @Before
+    public void setUp() {
+        bookingMetrics = new BookingMetrics();
+        bookingAdmission = new BookingAdmission(true, 10, 2, 3, 100, bookingMetrics, () -> nanos);
+    }
+
+    @Test
+    public void acquireOverBurstShouldBeRejectedUntilTokenRefilled() {
+        admit(1L);
+        admit(1L);
+
+        AdmissionRejectedException rejected = reject(1L);
+        assertEquals(1, rejected.getRetryAfterSeconds());
+
+        nanos += TimeUnit.MILLISECONDS.toNanos(100);
+        admit(1L);
+        reject(1L);
+    }
+
+    @Test
+    public void acquireShouldLimitEveryEventSeparately() {
+        admit(1L);
+        admit(1L);
+        reject(1L);
+
+        admit(2L);
+    }
+
+    @Test
+    public void acquireOverMaxInFlightShouldBeRejectedUntilReleased() {
+        bookingAdmission.acquire(1L);
+        bookingAdmission.acquire(1L);
+        bookingAdmission.acquire(2L);
+        assertEquals(3, bookingAdmission.getInFlight());
+
+        reject(2L);
+
+        bookingAdmission.release();
+        bookingAdmission.acquire(2L);
+        assertEquals(3, bookingAdmission.getInFlight());
+    }
+
+    @Test
+    public void acquireRejectedByRateShouldNotHoldInFlightPermit() {
+        admit(1L);
+        admit(1L);
+        reject(1L);
+
+        assertEquals(0, bookingAdmission.getInFlight());
+    }
+
+    @Test
+    public void acquireShouldCountAdmittedAndRejectedBookings() {
+        bookingAdmission.acquire(1L);
+        bookingAdmission.acquire(1L);
+        reject(1L);
+        bookingAdmission.acquire(2L);
+        reject(3L);
+
+        Map<String, Object> admission = getAdmissionSummary();
+        assertEquals(3L, admission.get("admitted"));
+        assertEquals(1L, admission.get("rejectedByRate"));
+        assertEquals(1L, admission.get("rejectedByInFlight"));
+    }
+
+    @Test
+    public void acquireIfDisabledShouldAdmitEveryBooking() {
+        bookingAdmission = new BookingAdmission(false, 10, 1, 1, 100, bookingMetrics, () -> nanos);
+
+        for (int i = 0; i < 10; i++) {
+            bookingAdmission.acquire(1L);
+        }
+
+        assertEquals(0, bookingAdmission.getInFlight());
+        assertEquals(0L, getAdmissionSummary().get("admitted"));
+    }
+
+    private void admit(long eventId) {
+        bookingAdmission.acquire(eventId);
+        bookingAdmission.release();
+    }
+
+    private AdmissionRejectedException reject(long eventId) {
+        try {
+            bookingAdmission.acquire(eventId);
+        } catch (AdmissionRejectedException e) {
+            return e;
+        }
+        bookingAdmission.release();
+        fail("The booking of event with id " + eventId + " has been admitted");
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getAdmissionSummary() {
+        return (Map<String, Object>) bookingMetrics.getSummary().get("admission");
+    }
+}
@@ -0,0 +1,112 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.facade.BookingFacade;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the throughput of bookings of one hot event called directly and dispatched onto the lanes.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml",
+        "booking.mode = SERIALIZABLE"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class BookingDispatcherBenchmarkIntTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingDispatcherBenchmarkIntTest.class);
+
+    private static final int THREADS = 8;
+
+    private static final int BOOKINGS_PER_THREAD = 10;
+
+    @Autowired
+    private BookingFacade bookingFacade;
+
+    @Autowired
+    private BookingDispatcher bookingDispatcher;
+
+    @Autowired
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        seatAvailabilityService.evict(1L);
+    }
+
+    @Test
+    public void dispatchedBookingsOfHotEventShouldNotConflict() throws Exception {
+        jdbcTemplate.update("UPDATE user_accounts SET money = 9000");
+        boolean initialEnabled = bookingDispatcher.isEnabled();
+        try {
+            bookingDispatcher.setEnabled(false);
+            AtomicInteger directBooked = new AtomicInteger();
+            double directRate = bookConcurrently(1000, directBooked);
+
+            bookingDispatcher.setEnabled(true);
+            AtomicInteger dispatchedBooked = new AtomicInteger();
+            double dispatchedRate = bookConcurrently(2000, dispatchedBooked);
+
+            log.info("Hot event bookings: direct booked={} rate={}/s, dispatched booked={} rate={}/s",
+                    directBooked.get(), directRate, dispatchedBooked.get(), dispatchedRate);
+            assertEquals(THREADS * BOOKINGS_PER_THREAD, dispatchedBooked.get());
+        } finally {
+            bookingDispatcher.setEnabled(initialEnabled);
+        }
+    }
+
+    private double bookConcurrently(int firstPlace, AtomicInteger booked) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            long userId = thread % 2 + 1;
+            int threadFirstPlace = firstPlace + thread * BOOKINGS_PER_THREAD;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    if (bookingFacade.bookTicket(userId, 1L, threadFirstPlace + i, Category.STANDARD) != null) {
+                        booked.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+        return booked.get() / (elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,146 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BookingDispatcherTest {
+
+    private BookingDispatcher bookingDispatcher;
+
+    @Before
+    public void setUp() {
+        bookingDispatcher = new BookingDispatcher(true, 4, 10, 5000);
+    }
+
+    @After
+    public void tearDown() {
+        bookingDispatcher.destroy();
+    }
+
+    @Test
+    public void dispatchShouldRunBookingsOfOneEventOnOneLane() {
+        String first = bookingDispatcher.dispatch(7L, () -> Thread.currentThread().getName(), null);
+        String second = bookingDispatcher.dispatch(7L, () -> Thread.currentThread().getName(), null);
+
+        assertEquals(first, second);
+        assertTrue(first.startsWith("booking-lane-"));
+        assertNotEquals(Thread.currentThread().getName(), first);
+    }
+
+    @Test
+    public void getLaneShouldSpreadSequentialEventsOverAllLanes() {
+        Set<Integer> lanes = new HashSet<>();
+        for (long eventId = 1; eventId <= 100; eventId++) {
+            lanes.add(bookingDispatcher.getLane(eventId));
+        }
+
+        assertEquals(bookingDispatcher.getLaneCount(), lanes.size());
+    }
+
+    @Test
+    public void dispatchFromLaneOfSameEventShouldNotDeadlock() {
+        Integer result = bookingDispatcher.dispatch(1L, () -> bookingDispatcher.dispatch(1L, () -> 42, -1), -1);
+
+        assertEquals(Integer.valueOf(42), result);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void dispatchShouldRethrowExceptionOfBooking() {
+        bookingDispatcher.dispatch(1L, () -> {
+            throw new IllegalStateException();
+        }, null);
+    }
+
+    @Test
+    public void dispatchToFullLaneShouldFailWithoutRunningBooking() throws Exception {
+        bookingDispatcher.destroy();
+        bookingDispatcher = new BookingDispatcher(true, 1, 1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread running = blockLane(release);
+        Thread queued = new Thread(() -> bookingDispatcher.dispatch(1L, () -> 0, -1));
+        queued.start();
+        while (queued.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Integer result = bookingDispatcher.dispatch(1L, () -> {
+            ran.set(true);
+            return 42;
+        }, -1);
+
+        release.countDown();
+        running.join();
+        queued.join();
+        assertEquals(Integer.valueOf(-1), result);
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void dispatchQueuedLongerThanTimeoutShouldFailWithoutRunningBooking() throws Exception {
+        bookingDispatcher.destroy();
+        bookingDispatcher = new BookingDispatcher(true, 1, 10, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread running = blockLane(release);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Integer result = bookingDispatcher.dispatch(1L, () -> {
+            ran.set(true);
+            return 42;
+        }, -1);
+
+        release.countDown();
+        running.join();
+        assertEquals(Integer.valueOf(0), bookingDispatcher.dispatch(1L, () -> 0, -1));
+        assertEquals(Integer.valueOf(-1), result);
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void dispatchRunningLongerThanTimeoutShouldWaitForBooking() {
+        bookingDispatcher.destroy();
+        bookingDispatcher = new BookingDispatcher(true, 1, 10, 1);
+
+        Integer result = bookingDispatcher.dispatch(1L, () -> {
+            sleep(50);
+            return 42;
+        }, -1);
+
+        assertEquals(Integer.valueOf(42), result);
+    }
+
+    private Thread blockLane(CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Thread running = new Thread(() -> bookingDispatcher.dispatch(1L, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        }, -1));
+        running.start();
+        started.await();
+        return running;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
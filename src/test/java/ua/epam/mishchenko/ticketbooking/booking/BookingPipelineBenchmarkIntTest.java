@@ -0,0 +1,122 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.facade.BookingFacade;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the throughput of bookings made one transaction each and made through the group-commit pipeline.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class BookingPipelineBenchmarkIntTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPipelineBenchmarkIntTest.class);
+
+    private static final int THREADS = 16;
+
+    private static final int BOOKINGS_PER_THREAD = 10;
+
+    /**
+     * Low enough for every booking of both runs to fit in the money of the accounts.
+     */
+    private static final long TICKET_PRICE = 50;
+
+    @Autowired
+    private BookingFacade bookingFacade;
+
+    @Autowired
+    private BookingPipeline bookingPipeline;
+
+    @Autowired
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        seatAvailabilityService.evict(1L);
+    }
+
+    @Test
+    public void pipelineShouldBookEveryTicketAndDebitEveryAccount() throws Exception {
+        jdbcTemplate.update("UPDATE user_accounts SET money = 9000");
+        jdbcTemplate.update("UPDATE events SET ticket_price = ? WHERE id = 1", TICKET_PRICE);
+        boolean initialEnabled = bookingPipeline.isEnabled();
+        try {
+            bookingPipeline.setEnabled(false);
+            AtomicInteger directBooked = new AtomicInteger();
+            double directRate = bookConcurrently(1000, directBooked);
+
+            bookingPipeline.setEnabled(true);
+            AtomicInteger pipelineBooked = new AtomicInteger();
+            double pipelineRate = bookConcurrently(3000, pipelineBooked);
+
+            log.info("Bookings: direct booked={} rate={}/s, pipeline booked={} rate={}/s",
+                    directBooked.get(), directRate, pipelineBooked.get(), pipelineRate);
+            assertEquals(THREADS * BOOKINGS_PER_THREAD, pipelineBooked.get());
+            BigDecimal spent = jdbcTemplate.queryForObject(
+                    "SELECT SUM(9000 - money) FROM user_accounts", BigDecimal.class);
+            assertEquals(0, BigDecimal.valueOf(TICKET_PRICE * (directBooked.get() + pipelineBooked.get()))
+                    .compareTo(spent));
+        } finally {
+            bookingPipeline.setEnabled(initialEnabled);
+        }
+    }
+
+    private double bookConcurrently(int firstPlace, AtomicInteger booked) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            long userId = thread % 2 + 1;
+            int threadFirstPlace = firstPlace + thread * BOOKINGS_PER_THREAD;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    if (bookingFacade.bookTicket(userId, 1L, threadFirstPlace + i, Category.STANDARD) != null) {
+                        booked.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+        return booked.get() / (elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,106 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ua.epam.mishchenko.ticketbooking.dto.BookingRequest;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.service.TicketService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingPipelineTest {
+
+    private BookingPipeline bookingPipeline;
+
+    @Mock
+    private TicketService ticketService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(ticketService.bookTicketBatch(anyList())).thenAnswer(invocation -> {
+            List<BookingRequest> requests = invocation.getArgument(0);
+            List<Ticket> tickets = new ArrayList<>();
+            for (BookingRequest request : requests) {
+                Ticket ticket = new Ticket();
+                ticket.setPlace(request.getPlace());
+                tickets.add(ticket);
+            }
+            return tickets;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        bookingPipeline.destroy();
+    }
+
+    @Test
+    public void bookingsSubmittedWithinDelayShouldBeBookedInOneBatch() {
+        bookingPipeline = new BookingPipeline(ticketService, true, 3, 1000, 10);
+
+        List<CompletableFuture<Ticket>> futures = submit(3);
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).join().getPlace());
+        }
+        verify(ticketService, times(1)).bookTicketBatch(anyList());
+    }
+
+    @Test
+    public void batchShouldNotExceedMaxBatchSize() {
+        bookingPipeline = new BookingPipeline(ticketService, true, 2, 1000, 10);
+
+        List<CompletableFuture<Ticket>> futures = submit(3);
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).join().getPlace());
+        }
+        verify(ticketService, atLeast(2)).bookTicketBatch(anyList());
+    }
+
+    @Test
+    public void failedBatchShouldCompleteFuturesWithNull() {
+        when(ticketService.bookTicketBatch(anyList())).thenThrow(RuntimeException.class);
+        bookingPipeline = new BookingPipeline(ticketService, true, 2, 0, 10);
+
+        List<CompletableFuture<Ticket>> futures = submit(2);
+
+        for (CompletableFuture<Ticket> future : futures) {
+            assertNull(future.join());
+        }
+    }
+
+    @Test
+    public void bookingSubmittedAfterDestroyShouldCompleteWithNull() {
+        bookingPipeline = new BookingPipeline(ticketService, true, 1, 0, 1);
+        bookingPipeline.destroy();
+
+        CompletableFuture<Ticket> future = bookingPipeline.submit(new BookingRequest(1L, 1L, 1, Category.BAR));
+
+        assertNull(future.join());
+    }
+
+    private List<CompletableFuture<Ticket>> submit(int count) {
+        List<CompletableFuture<Ticket>> futures = new ArrayList<>();
+        for (int place = 0; place < count; place++) {
+            futures.add(bookingPipeline.submit(new BookingRequest(1L, 1L, place, Category.BAR)));
+        }
+        return futures;
+    }
+}
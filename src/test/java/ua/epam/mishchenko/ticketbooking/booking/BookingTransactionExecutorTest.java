@@ -0,0 +1,86 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class BookingTransactionExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(transactionManager.getTransaction(any(TransactionDefinition.class)))
+                .thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    public void executeInOptimisticModeShouldRetryConflicts() {
+        BookingTransactionExecutor executor =
+                new BookingTransactionExecutor(transactionManager, BookingMode.OPTIMISTIC, 5, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(status -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(UserAccount.class, 1L);
+            }
+            return "booked";
+        });
+
+        assertEquals("booked", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, executor.getRetryCount());
+    }
+
+    @Test
+    public void executeInOptimisticModeShouldGiveUpAfterMaxAttempts() {
+        BookingTransactionExecutor executor =
+                new BookingTransactionExecutor(transactionManager, BookingMode.OPTIMISTIC, 3, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            executor.execute(status -> {
+                attempts.incrementAndGet();
+                throw new ObjectOptimisticLockingFailureException(UserAccount.class, 1L);
+            });
+            fail("The conflict should be rethrown");
+        } catch (ConcurrencyFailureException e) {
+            assertEquals(3, attempts.get());
+        }
+    }
+
+    @Test
+    public void executeInSerializableModeShouldNotRetryConflicts() {
+        BookingTransactionExecutor executor =
+                new BookingTransactionExecutor(transactionManager, BookingMode.SERIALIZABLE, 5, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            executor.execute(status -> {
+                attempts.incrementAndGet();
+                throw new ObjectOptimisticLockingFailureException(UserAccount.class, 1L);
+            });
+            fail("The conflict should be rethrown");
+        } catch (ConcurrencyFailureException e) {
+            assertEquals(1, attempts.get());
+            assertEquals(0, executor.getRetryCount());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventCalendarTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Kiev");
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 5, 15);
+
+    private EventCalendar calendar;
+
+    @Before
+    public void setUp() {
+        calendar = new EventCalendar(FIRST_DAY, 3, ZONE, 0);
+    }
+
+    private Date at(LocalDate day, int hour) {
+        return Date.from(day.atTime(hour, 0).atZone(ZONE).toInstant());
+    }
+
+    @Test
+    public void addShouldKeepEventIdsOfDaySorted() {
+        calendar.add(7, at(FIRST_DAY, 10));
+        calendar.add(3, at(FIRST_DAY, 23));
+        calendar.add(5, at(FIRST_DAY, 0));
+
+        assertArrayEquals(new long[]{3, 5, 7}, calendar.getEventIds(FIRST_DAY));
+        assertEquals(0, calendar.getEventIds(FIRST_DAY.plusDays(1)).length);
+    }
+
+    @Test
+    public void addShouldPutEventToDayOfCalendarZone() {
+        calendar.add(1, Date.from(FIRST_DAY.atTime(23, 30).atZone(ZoneId.of("UTC")).toInstant()));
+
+        assertArrayEquals(new long[]{1}, calendar.getEventIds(FIRST_DAY.plusDays(1)));
+    }
+
+    @Test
+    public void addWithOtherDateShouldMoveEvent() {
+        calendar.add(1, at(FIRST_DAY, 10));
+        calendar.add(2, at(FIRST_DAY, 11));
+
+        calendar.add(1, at(FIRST_DAY.plusDays(2), 10));
+
+        assertArrayEquals(new long[]{2}, calendar.getEventIds(FIRST_DAY));
+        assertArrayEquals(new long[]{1}, calendar.getEventIds(FIRST_DAY.plusDays(2)));
+    }
+
+    @Test
+    public void addOutsideOfDaysShouldRemoveEvent() {
+        calendar.add(1, at(FIRST_DAY, 10));
+
+        calendar.add(1, at(FIRST_DAY.plusDays(3), 10));
+
+        assertEquals(0, calendar.getEventIds(FIRST_DAY).length);
+        assertFalse(calendar.covers(FIRST_DAY.plusDays(3)));
+    }
+
+    @Test
+    public void removeShouldNotChangePreviouslyReadIds() {
+        calendar.add(1, at(FIRST_DAY, 10));
+        calendar.add(2, at(FIRST_DAY, 11));
+        long[] read = calendar.getEventIds(FIRST_DAY);
+
+        calendar.remove(1);
+
+        assertArrayEquals(new long[]{1, 2}, read);
+        assertArrayEquals(new long[]{2}, calendar.getEventIds(FIRST_DAY));
+    }
+
+    @Test
+    public void coversShouldKeepGivenNumberOfDays() {
+        assertFalse(calendar.covers(FIRST_DAY.minusDays(1)));
+        assertTrue(calendar.covers(FIRST_DAY));
+        assertTrue(calendar.covers(FIRST_DAY.plusDays(2)));
+        assertFalse(calendar.covers(FIRST_DAY.plusDays(3)));
+        assertEquals(at(FIRST_DAY, 0), calendar.startOf(FIRST_DAY));
+    }
+}
@@ -0,0 +1,135 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IdempotencyStoreTest {
+
+    private long millis;
+
+    private IdempotencyStore idempotencyStore;
+
+    private AtomicInteger executions;
+
+    @Before
+    public void setUp() {
+        idempotencyStore = new IdempotencyStore(2, 1000, () -> millis);
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    public void executeWithSameKeyShouldReturnOriginalResult() {
+        assertEquals(Integer.valueOf(1), idempotencyStore.execute("key", "a", executions::incrementAndGet));
+        assertEquals(Integer.valueOf(1), idempotencyStore.execute("key", "a", executions::incrementAndGet));
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void executeAfterNullResultShouldRunRequestAgain() {
+        assertNull(idempotencyStore.execute("key", "a", () -> {
+            executions.incrementAndGet();
+            return null;
+        }));
+        assertEquals(0, idempotencyStore.size());
+
+        assertEquals(Integer.valueOf(2), idempotencyStore.execute("key", "a", executions::incrementAndGet));
+        assertEquals(Integer.valueOf(2), idempotencyStore.execute("key", "a", executions::incrementAndGet));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeWithSameKeyAndOtherFingerprintShouldThrowException() {
+        idempotencyStore.execute("key", "a", executions::incrementAndGet);
+        idempotencyStore.execute("key", "b", executions::incrementAndGet);
+    }
+
+    @Test
+    public void executeAfterTtlShouldRunRequestAgain() {
+        idempotencyStore.execute("key", "a", executions::incrementAndGet);
+        millis += 1000;
+
+        assertEquals(Integer.valueOf(2), idempotencyStore.execute("key", "a", executions::incrementAndGet));
+    }
+
+    @Test
+    public void executeShouldEvictOldestKeyOverMaxEntries() {
+        idempotencyStore.execute("first", "a", executions::incrementAndGet);
+        idempotencyStore.execute("second", "a", executions::incrementAndGet);
+        idempotencyStore.execute("third", "a", executions::incrementAndGet);
+
+        assertEquals(2, idempotencyStore.size());
+        assertEquals(Integer.valueOf(4), idempotencyStore.execute("first", "a", executions::incrementAndGet));
+    }
+
+    @Test
+    public void failedRequestShouldBeForgotten() {
+        try {
+            idempotencyStore.execute("key", "a", () -> {
+                throw new IllegalStateException();
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(0, idempotencyStore.size());
+        }
+
+        assertEquals(Integer.valueOf(1), idempotencyStore.execute("key", "a", executions::incrementAndGet));
+    }
+
+    @Test
+    public void concurrentRetryOfFailedRequestShouldGetOriginalException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread original = new Thread(() -> {
+            try {
+                idempotencyStore.execute("key", "a", () -> {
+                    started.countDown();
+                    awaitUninterruptibly(release);
+                    throw new IllegalStateException("The original failure");
+                });
+            } catch (IllegalStateException ignored) {
+                // the original request fails
+            }
+        });
+        original.start();
+        started.await();
+        AtomicReference<Throwable> retryFailure = new AtomicReference<>();
+        Thread retry = new Thread(() -> {
+            try {
+                idempotencyStore.execute("key", "a", executions::incrementAndGet);
+            } catch (Throwable e) {
+                retryFailure.set(e);
+            }
+        });
+        retry.start();
+        while (retry.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+
+        release.countDown();
+        original.join();
+        retry.join();
+
+        assertTrue(String.valueOf(retryFailure.get()), retryFailure.get() instanceof IllegalStateException);
+        assertEquals("The original failure", retryFailure.get().getMessage());
+        assertEquals(0, executions.get());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyHistogramTest.class);
+
+    private static final int BENCHMARK_RECORDS = 5_000_000;
+
+    @Test
+    public void getValueAtPercentileShouldBeWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertWithinPrecision(50_000_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(99_000_000, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(99_900_000, histogram.getValueAtPercentile(99.9));
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(100_000, histogram.getTotalCount());
+    }
+
+    @Test
+    public void smallValuesShouldBeCountedExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(49, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getMaxValue());
+    }
+
+    @Test
+    public void everyValueShouldFallIntoBucketCoveringIt() {
+        for (long value = 0; value < Long.MAX_VALUE / 3 && value >= 0; value = value * 3 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void recordShouldBeCheapAndAllocationFree() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < BENCHMARK_RECORDS; i++) {
+            histogram.record(i);
+        }
+        histogram.reset();
+
+        long allocatedBefore = getAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_RECORDS; i++) {
+            histogram.record(i & 0xFFFFF);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = getAllocatedBytes() - allocatedBefore;
+
+        double nanosPerRecord = (double) elapsedNanos / BENCHMARK_RECORDS;
+        log.info("LatencyHistogram.record: {} ns per record, {} bytes allocated", nanosPerRecord, allocated);
+        assertTrue(nanosPerRecord < 1000);
+        assertTrue(allocated < 64 * 1024);
+    }
+
+    private void assertWithinPrecision(long expected, long actual) {
+        assertTrue(expected + " ~ " + actual, Math.abs(actual - expected) <= expected / 64);
+    }
+
+    private long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
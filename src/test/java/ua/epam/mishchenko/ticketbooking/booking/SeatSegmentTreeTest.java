@@ -0,0 +1,87 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SeatSegmentTreeTest {
+
+    @Test
+    public void newTreeShouldHaveAllSeatsFree() {
+        SeatSegmentTree tree = new SeatSegmentTree(10);
+
+        assertEquals(10, tree.getLongestRun());
+        assertEquals(0, tree.findFirstRun(10));
+        assertEquals(-1, tree.findFirstRun(11));
+        assertTrue(tree.isFree(9));
+    }
+
+    @Test
+    public void findFirstRunShouldReturnLeftmostRunOfLength() {
+        SeatSegmentTree tree = new SeatSegmentTree(10);
+        tree.set(2, false);
+        tree.set(6, false);
+
+        assertFalse(tree.isFree(2));
+        assertEquals(0, tree.findFirstRun(2));
+        assertEquals(3, tree.findFirstRun(3));
+        assertEquals(-1, tree.findFirstRun(4));
+        assertEquals(3, tree.getLongestRun());
+    }
+
+    @Test
+    public void findFirstRunShouldFindRunAcrossNodeBorders() {
+        SeatSegmentTree tree = new SeatSegmentTree(8);
+        tree.set(0, false);
+        tree.set(1, false);
+        tree.set(7, false);
+
+        assertEquals(2, tree.findFirstRun(5));
+    }
+
+    @Test
+    public void setFreeShouldMergeRuns() {
+        SeatSegmentTree tree = new SeatSegmentTree(5);
+        tree.set(2, false);
+
+        tree.set(2, true);
+
+        assertEquals(5, tree.getLongestRun());
+        assertEquals(0, tree.findFirstRun(5));
+    }
+
+    @Test
+    public void findFirstRunShouldMatchLinearScan() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int size = 1 + random.nextInt(64);
+            SeatSegmentTree tree = new SeatSegmentTree(size);
+            boolean[] free = new boolean[size];
+            Arrays.fill(free, true);
+            for (int change = 0; change < size; change++) {
+                int index = random.nextInt(size);
+                free[index] = random.nextBoolean();
+                tree.set(index, free[index]);
+            }
+            for (int length = 1; length <= size; length++) {
+                assertEquals(linearFirstRun(free, length), tree.findFirstRun(length));
+            }
+        }
+    }
+
+    private int linearFirstRun(boolean[] free, int length) {
+        int run = 0;
+        for (int index = 0; index < free.length; index++) {
+            run = free[index] ? run + 1 : 0;
+            if (run == length) {
+                return index - length + 1;
+            }
+        }
+        return -1;
+    }
+}
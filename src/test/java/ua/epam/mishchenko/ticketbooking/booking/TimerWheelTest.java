@@ -0,0 +1,67 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimerWheelTest {
+
+    private long nanos;
+
+    private TimerWheel timerWheel;
+
+    @Before
+    public void setUp() {
+        timerWheel = new TimerWheel(10, 4, () -> nanos);
+    }
+
+    @Test
+    public void taskShouldRunOnFirstTickAfterDeadline() {
+        List<String> fired = new ArrayList<>();
+        timerWheel.schedule(() -> fired.add("task"), 25);
+
+        elapse(20);
+        assertTrue(fired.isEmpty());
+
+        elapse(10);
+        assertEquals(Arrays.asList("task"), fired);
+    }
+
+    @Test
+    public void taskLongerThanOneRoundShouldWaitForItsRound() {
+        List<String> fired = new ArrayList<>();
+        timerWheel.schedule(() -> fired.add("late"), 100);
+        timerWheel.schedule(() -> fired.add("early"), 10);
+
+        elapse(50);
+        assertEquals(Arrays.asList("early"), fired);
+
+        elapse(50);
+        assertEquals(Arrays.asList("early", "late"), fired);
+    }
+
+    @Test
+    public void failingTaskShouldNotStopOtherTasks() {
+        List<String> fired = new ArrayList<>();
+        timerWheel.schedule(() -> {
+            throw new IllegalStateException();
+        }, 10);
+        timerWheel.schedule(() -> fired.add("task"), 10);
+
+        elapse(10);
+
+        assertEquals(Arrays.asList("task"), fired);
+    }
+
+    private void elapse(long millis) {
+        nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        timerWheel.advance();
+    }
+}
@@ -0,0 +1,77 @@
+package ua.epam.mishchenko.ticketbooking.booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TitleIndexTest {
+
+    private TitleIndex index;
+
+    @Before
+    public void setUp() {
+        index = new TitleIndex();
+        index.put(1, "Rock concert");
+        index.put(2, "Concert");
+        index.put(3, "Jazz Concert Night");
+        index.put(4, "Concerto for violin");
+        index.put(5, "Unconcerted meeting");
+    }
+
+    @Test
+    public void searchShouldRankEqualPrefixWordAndSubstringMatches() {
+        assertEquals(Arrays.asList(2L, 4L, 1L, 3L, 5L), index.search("concert"));
+    }
+
+    @Test
+    public void searchShouldIgnoreCaseAndSurroundingSpaces() {
+        assertEquals(Arrays.asList(3L), index.search("  JAZZ concert "));
+    }
+
+    @Test
+    public void searchWithShortQueryShouldMatchStartsOfWordsOnly() {
+        assertEquals(Arrays.asList(2L, 4L, 1L, 3L), index.search("co"));
+        assertEquals(Arrays.asList(3L), index.search("n"));
+        assertEquals(Collections.emptyList(), index.search("nc"));
+    }
+
+    @Test
+    public void searchWithoutMatchShouldReturnEmptyList() {
+        assertTrue(index.search("opera").isEmpty());
+        assertTrue(index.search("certs").isEmpty());
+        assertTrue(index.search(" ").isEmpty());
+    }
+
+    @Test
+    public void putShouldReplacePreviousTitle() {
+        index.put(1, "Opera");
+
+        assertEquals(Arrays.asList(2L, 4L, 3L, 5L), index.search("concert"));
+        assertEquals(Arrays.asList(1L), index.search("opera"));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void removeShouldDropEventFromMatches() {
+        index.remove(2);
+        index.remove(42);
+
+        assertFalse(index.contains(2));
+        assertEquals(Arrays.asList(4L, 1L, 3L, 5L), index.search("concert"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void searchWithEqualRanksShouldOrderByLengthThenId() {
+        index.put(7, "Jazz night");
+        index.put(6, "Jazz night");
+
+        assertEquals(Arrays.asList(6L, 7L, 3L), index.search("jazz"));
+    }
+}
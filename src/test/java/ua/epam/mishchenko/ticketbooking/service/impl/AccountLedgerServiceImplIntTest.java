@@ -0,0 +1,155 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.LedgerEntry;
+import ua.epam.mishchenko.ticketbooking.model.LedgerEntryKind;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.model.UserAccount;
+import ua.epam.mishchenko.ticketbooking.repository.LedgerEntryJdbcRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml",
+        "booking.ledger.enabled = true", "booking.ledger.compaction-millis = 0",
+        "booking.ledger.compaction-min-entries = 1"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class AccountLedgerServiceImplIntTest {
+
+    @Autowired
+    private AccountLedgerServiceImpl accountLedgerService;
+
+    @Autowired
+    private UserAccountServiceImpl userAccountService;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private LedgerEntryJdbcRepository ledgerEntryJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void refillAccountShouldAppendEntryWithoutUpdatingAccount() {
+        UserAccount userAccount = userAccountService.refillAccount(1L, BigDecimal.valueOf(500));
+
+        assertEquals(0, BigDecimal.valueOf(1500).compareTo(userAccount.getMoney()));
+        assertAccountMoney(1L, 1000);
+        List<LedgerEntry> entries = ledgerEntryJdbcRepository.findAllByUserId(1L);
+        assertEquals(1, entries.size());
+        assertEquals(LedgerEntryKind.REFILL, entries.get(0).getKind());
+    }
+
+    @Test
+    public void bookTicketShouldAppendDebitEntry() {
+        Ticket ticket = ticketService.bookTicket(1L, 2L, 30, Category.STANDARD);
+
+        assertNotNull(ticket);
+        assertBalance(1L, 700);
+        assertAccountMoney(1L, 1000);
+        List<LedgerEntry> entries = ledgerEntryJdbcRepository.findAllByUserId(1L);
+        assertEquals(1, entries.size());
+        assertEquals(LedgerEntryKind.DEBIT, entries.get(0).getKind());
+        assertEquals(0, BigDecimal.valueOf(-300).compareTo(entries.get(0).getAmount()));
+    }
+
+    @Test
+    public void debitOverBalanceShouldNotAppendEntry() {
+        assertFalse(accountLedgerService.debit(1L, new BigDecimal("1000.01")));
+
+        assertBalance(1L, 1000);
+        assertTrue(ledgerEntryJdbcRepository.findAllByUserId(1L).isEmpty());
+    }
+
+    @Test
+    public void cancelTicketShouldAppendRefundEntry() {
+        assertTrue(ticketService.cancelTicket(1L));
+
+        assertBalance(1L, 1100);
+        assertAccountMoney(1L, 1000);
+        assertEquals(LedgerEntryKind.REFUND, ledgerEntryJdbcRepository.findAllByUserId(1L).get(0).getKind());
+    }
+
+    @Test
+    public void compactShouldFoldEntriesIntoAccountAndKeepHistory() {
+        userAccountService.refillAccount(1L, BigDecimal.valueOf(500));
+        assertNotNull(ticketService.bookTicket(1L, 2L, 31, Category.STANDARD));
+
+        assertEquals(1, accountLedgerService.compact());
+
+        assertAccountMoney(1L, 1200);
+        assertBalance(1L, 1200);
+        assertEquals(2, ledgerEntryJdbcRepository.findAllByUserId(1L).size());
+        assertEquals(0, accountLedgerService.compact());
+
+        assertTrue(accountLedgerService.debit(1L, BigDecimal.valueOf(200)));
+        assertBalance(1L, 1000);
+    }
+
+    @Test
+    public void concurrentDebitsShouldNeverOverdrawAccount() throws Exception {
+        int threads = 20;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> debits = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            debits.add(executor.submit(() -> {
+                start.await();
+                return transactionTemplate.execute(
+                        status -> accountLedgerService.debit(1L, BigDecimal.valueOf(100)));
+            }));
+        }
+        start.countDown();
+        int debited = 0;
+        for (Future<Boolean> debit : debits) {
+            if (debit.get(30, TimeUnit.SECONDS)) {
+                debited++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(10, debited);
+        assertBalance(1L, 0);
+    }
+
+    private void assertBalance(long userId, int expected) {
+        assertEquals(0, BigDecimal.valueOf(expected).compareTo(accountLedgerService.getBalance(userId)));
+    }
+
+    private void assertAccountMoney(long userId, int expected) {
+        BigDecimal money = jdbcTemplate.queryForObject(
+                "SELECT money FROM user_accounts WHERE user_id = ?", BigDecimal.class, userId);
+        assertEquals(0, BigDecimal.valueOf(expected).compareTo(money));
+    }
+}
@@ -0,0 +1,97 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.model.Event;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static ua.epam.mishchenko.ticketbooking.utils.Constants.DATE_FORMATTER;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml",
+        "booking.search.rebuild-millis = 0"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class EventSearchServiceImplIntTest {
+
+    @Autowired
+    private EventSearchServiceImpl eventSearchService;
+
+    @Autowired
+    private EventServiceImpl eventService;
+
+    @Test
+    public void searchEventsInDatabaseAndInIndexShouldRankEqually() {
+        String[] queries = {"event", "fi", "THIRD", "ird", "d e", "nothing", "%"};
+        List<List<Long>> fromDatabase = new ArrayList<>();
+        for (String query : queries) {
+            fromDatabase.add(ids(eventSearchService.searchEvents(query, 10, 1)));
+        }
+
+        eventSearchService.rebuild();
+
+        assertTrue(eventSearchService.isReady());
+        for (int i = 0; i < queries.length; i++) {
+            assertEquals(queries[i], fromDatabase.get(i), ids(eventSearchService.searchEvents(queries[i], 10, 1)));
+        }
+        assertEquals(Arrays.asList(1L, 3L, 5L, 6L, 2L, 4L), fromDatabase.get(0));
+        assertEquals(Arrays.asList(1L, 6L), fromDatabase.get(1));
+        assertEquals(Arrays.asList(3L, 5L), fromDatabase.get(2));
+        assertTrue(fromDatabase.get(5).isEmpty());
+        assertTrue(fromDatabase.get(6).isEmpty());
+    }
+
+    @Test
+    public void searchEventsShouldReturnPage() {
+        assertEquals(Arrays.asList(2L, 4L), ids(eventSearchService.searchEvents("event", 4, 2)));
+
+        eventSearchService.rebuild();
+
+        assertEquals(Arrays.asList(2L, 4L), ids(eventSearchService.searchEvents("event", 4, 2)));
+        assertTrue(eventSearchService.searchEvents("event", 4, 3).isEmpty());
+        assertTrue(eventSearchService.searchEvents("event", 0, 1).isEmpty());
+    }
+
+    @Test
+    public void writesOfEventsShouldUpdateIndex() throws ParseException {
+        eventSearchService.rebuild();
+
+        Event created = eventService.createEvent(
+                new Event("Opera night", DATE_FORMATTER.parse("2022-07-01 19:00"), BigDecimal.TEN));
+        assertNotNull(created);
+        assertEquals(Arrays.asList(created.getId()), ids(eventSearchService.searchEvents("opera", 10, 1)));
+
+        created.setTitle("Ballet night");
+        assertNotNull(eventService.updateEvent(created));
+        assertTrue(eventSearchService.searchEvents("opera", 10, 1).isEmpty());
+        assertEquals(Arrays.asList(created.getId()), ids(eventSearchService.searchEvents("ballet", 10, 1)));
+
+        assertTrue(eventService.deleteEvent(created.getId()));
+        assertTrue(eventSearchService.searchEvents("ballet", 10, 1).isEmpty());
+        assertFalse(eventSearchService.searchEvents("event", 10, 1).isEmpty());
+    }
+
+    private List<Long> ids(List<Event> events) {
+        List<Long> ids = new ArrayList<>();
+        for (Event event : events) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,99 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares how the time and the memory of an event deletion scale with the number of its tickets
+ * for the cascading deletion through Hibernate and for the set-based deletion.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class EventServiceImplDeletionBenchmarkIntTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EventServiceImplDeletionBenchmarkIntTest.class);
+
+    private static final int[] TICKET_COUNTS = {1_000, 5_000, 20_000};
+
+    @Autowired
+    private EventServiceImpl eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void setBasedDeletionShouldAllocateLessThanCascadingDeletion() {
+        long cascadeAllocated = 0;
+        long bulkAllocated = 0;
+        for (int ticketCount : TICKET_COUNTS) {
+            long cascadeEventId = createEventWithTickets(ticketCount);
+            long allocatedBefore = getAllocatedBytes();
+            long start = System.nanoTime();
+            eventRepository.deleteById(cascadeEventId);
+            long cascadeMillis = (System.nanoTime() - start) / 1_000_000;
+            cascadeAllocated = getAllocatedBytes() - allocatedBefore;
+            assertEquals(0, countTickets(cascadeEventId));
+
+            long bulkEventId = createEventWithTickets(ticketCount);
+            allocatedBefore = getAllocatedBytes();
+            start = System.nanoTime();
+            assertTrue(eventService.deleteEvent(bulkEventId));
+            long bulkMillis = (System.nanoTime() - start) / 1_000_000;
+            bulkAllocated = getAllocatedBytes() - allocatedBefore;
+            assertEquals(0, countTickets(bulkEventId));
+
+            log.info("Deleting an event with {} tickets: cascading {} ms, {} KB allocated; set-based {} ms, {} KB allocated",
+                    ticketCount, cascadeMillis, cascadeAllocated / 1024, bulkMillis, bulkAllocated / 1024);
+        }
+        assertTrue(bulkAllocated <= cascadeAllocated);
+    }
+
+    private long createEventWithTickets(int ticketCount) {
+        Long eventId = jdbcTemplate.queryForObject(
+                "INSERT INTO events (title, date, ticket_price) VALUES ('Benchmark event', now(), 1) RETURNING id",
+                Long.class);
+        List<Object[]> arguments = new ArrayList<>(ticketCount);
+        for (int place = 1; place <= ticketCount; place++) {
+            arguments.add(new Object[]{place % 6 + 1, eventId, place});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (user_id, event_id, place, category) VALUES (?, ?, ?, 'BAR')",
+                arguments);
+        return eventId;
+    }
+
+    private int countTickets(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets WHERE event_id = ?", Integer.class, eventId);
+    }
+
+    private long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -2,19 +2,29 @@ package ua.epam.mishchenko.ticketbooking.service.impl;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.repository.BulkDeleteRepository;
 import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.EventView;
 
 import java.math.BigDecimal;
 import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -28,11 +38,14 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ua.epam.mishchenko.ticketbooking.utils.Constants.DATE_FORMATTER;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@TestPropertySource(properties = "booking.calendar.refresh-millis = 0")
 public class EventServiceImplTest {
 
     @Autowired
@@ -41,6 +54,9 @@ public class EventServiceImplTest {
     @MockBean
     private EventRepository eventRepository;
 
+    @MockBean
+    private BulkDeleteRepository bulkDeleteRepository;
+
     @Test
     public void getEventByIdWithExistsIdShouldBeOk() throws ParseException {
         long eventId = 3L;
@@ -103,7 +119,8 @@ public class EventServiceImplTest {
         );
         Page<Event> page = new PageImpl<>(content);
 
-        when(eventRepository.getAllByDate(any(Pageable.class), eq(day))).thenReturn(page);
+        when(eventRepository.getAllByDateGreaterThanEqualAndDateLessThanOrderById(
+                any(Date.class), any(Date.class), any(Pageable.class))).thenReturn(page);
 
         List<Event> actualEvents = eventService.getEventsForDay(day, 2, 1);
 
@@ -114,13 +131,71 @@ public class EventServiceImplTest {
     public void getEventsForDayWithExceptionShouldReturnEmptyList() throws ParseException {
         Date day = DATE_FORMATTER.parse("15-05-2000 21:00");
 
-        when(eventRepository.getAllByDate(any(Pageable.class), eq(day))).thenThrow(RuntimeException.class);
+        when(eventRepository.getAllByDateGreaterThanEqualAndDateLessThanOrderById(
+                any(Date.class), any(Date.class), any(Pageable.class))).thenThrow(RuntimeException.class);
 
         List<Event> actualEventsForDay = eventService.getEventsForDay(day, 1, 1);
 
         assertTrue(actualEventsForDay.isEmpty());
     }
 
+    @Test
+    public void getEventsForDayShouldReadWholeDay() {
+        ZoneId zone = ZoneId.systemDefault();
+        Date day = Date.from(LocalDate.of(2022, 5, 15).atTime(21, 0).atZone(zone).toInstant());
+        ArgumentCaptor<Date> from = ArgumentCaptor.forClass(Date.class);
+        ArgumentCaptor<Date> to = ArgumentCaptor.forClass(Date.class);
+        when(eventRepository.getAllByDateGreaterThanEqualAndDateLessThanOrderById(
+                from.capture(), to.capture(), any(Pageable.class))).thenReturn(new SliceImpl<>(Arrays.asList(
+                new Event(2L, "Second event", day, BigDecimal.ONE))));
+
+        eventService.getEventsForDay(day, 2, 1);
+
+        assertEquals(Date.from(LocalDate.of(2022, 5, 15).atStartOfDay(zone).toInstant()), from.getValue());
+        assertEquals(Date.from(LocalDate.of(2022, 5, 16).atStartOfDay(zone).toInstant()), to.getValue());
+    }
+
+    @Test
+    public void getEventsForUpcomingDayShouldReadEventsOfCalendarById() {
+        Date tomorrow = Date.from(LocalDate.now().plusDays(1).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        Event first = new Event(3L, "Third event", tomorrow, BigDecimal.ONE);
+        Event second = new Event(7L, "Seventh event", tomorrow, BigDecimal.ONE);
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        when(eventRepository.findViewsBetween(any(Date.class), any(Date.class))).thenReturn(Arrays.asList(
+                projectionFactory.createProjection(EventView.class, second),
+                projectionFactory.createProjection(EventView.class, first)));
+        when(eventRepository.findAllById(Collections.singletonList(7L))).thenReturn(Collections.singletonList(second));
+        eventService.rebuildCalendar();
+
+        List<Event> actualEvents = eventService.getEventsForDay(tomorrow, 1, 2);
+
+        assertEquals(Collections.singletonList(second), actualEvents);
+        assertEquals(Long.valueOf(2L), eventService.countEventsForDay(tomorrow));
+        verify(eventRepository, never()).getAllByDateGreaterThanEqualAndDateLessThanOrderById(
+                any(Date.class), any(Date.class), any(Pageable.class));
+    }
+
+    @Test
+    public void eventsWrittenWhileCalendarIsBuiltShouldNotBeLost() {
+        Date tomorrow = Date.from(LocalDate.now().plusDays(1).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        Date nextYear = Date.from(LocalDate.now().plusYears(1).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        Event ninth = new Event(9L, "Ninth event", tomorrow, BigDecimal.ONE);
+        when(eventRepository.existsById(3L)).thenReturn(true);
+        when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(eventRepository.findViewsBetween(any(Date.class), any(Date.class))).thenAnswer(invocation -> {
+            eventService.createEvent(ninth);
+            eventService.updateEvent(new Event(3L, "Third event", nextYear, BigDecimal.ONE));
+            return Collections.singletonList(projectionFactory.createProjection(EventView.class,
+                    new Event(3L, "Third event", tomorrow, BigDecimal.ONE)));
+        });
+        when(eventRepository.findAllById(Collections.singletonList(9L))).thenReturn(Collections.singletonList(ninth));
+
+        eventService.rebuildCalendar();
+
+        assertEquals(Collections.singletonList(ninth), eventService.getEventsForDay(tomorrow, 10, 1));
+    }
+
     @Test
     public void getEventsForDayWithNullDayShouldReturnEmptyList() {
         List<Event> actualEventsForDay = eventService.getEventsForDay(null, 1, 2);
@@ -185,14 +260,27 @@ public class EventServiceImplTest {
 
     @Test
     public void deleteEventExistsEventShouldReturnTrue() {
+        when(bulkDeleteRepository.deleteTicketsByEventId(6L)).thenReturn(Arrays.asList(1L, 2L));
+        when(bulkDeleteRepository.deleteEvent(6L)).thenReturn(true);
+
         boolean actualIsDeleted = eventService.deleteEvent(6L);
 
         assertTrue(actualIsDeleted);
+        verify(eventRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    public void deleteEventNotExistsEventShouldReturnFalse() {
+        when(bulkDeleteRepository.deleteEvent(anyLong())).thenReturn(false);
+
+        boolean actualIsDeleted = eventService.deleteEvent(10L);
+
+        assertFalse(actualIsDeleted);
     }
 
     @Test
     public void deleteEventWithExceptionShouldReturnFalse() {
-        doThrow(new RuntimeException()).when(eventRepository).deleteById(anyLong());
+        doThrow(new RuntimeException()).when(bulkDeleteRepository).deleteTicketsByEventId(anyLong());
 
         boolean actualIsDeleted = eventService.deleteEvent(10L);
 
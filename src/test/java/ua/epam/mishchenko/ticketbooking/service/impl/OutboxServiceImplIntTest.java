@@ -0,0 +1,154 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.booking.OutboxSink;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEvent;
+import ua.epam.mishchenko.ticketbooking.model.OutboxEventType;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml",
+        "booking.outbox.enabled = true", "booking.outbox.relay-millis = 0", "booking.outbox.batch-size = 2"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class OutboxServiceImplIntTest {
+
+    @Autowired
+    private OutboxServiceImpl outboxService;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private UserAccountServiceImpl userAccountService;
+
+    @Autowired
+    private RecordingOutboxSink sink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        sink.events.clear();
+        sink.failing = false;
+    }
+
+    @Test
+    public void bookTicketShouldWriteBookedEventWhichIsRelayedOnce() {
+        Ticket ticket = ticketService.bookTicket(1L, 2L, 30, Category.STANDARD);
+
+        assertNotNull(ticket);
+        assertEquals(1, countOutboxEvents());
+        assertEquals(1, outboxService.relay());
+
+        assertEquals(1, sink.events.size());
+        OutboxEvent event = sink.events.get(0);
+        assertEquals(OutboxEventType.TICKET_BOOKED, event.getType());
+        assertEquals(ticket.getId(), event.getTicketId());
+        assertEquals(Long.valueOf(1L), event.getUserId());
+        assertEquals(Integer.valueOf(30), event.getPlace());
+        assertEquals(0, countOutboxEvents());
+        assertEquals(0, outboxService.relay());
+    }
+
+    @Test
+    public void failedBookingShouldNotWriteEvent() {
+        Ticket ticket = ticketService.bookTicket(3L, 2L, 30, Category.STANDARD);
+
+        assertNull(ticket);
+        assertEquals(0, countOutboxEvents());
+    }
+
+    @Test
+    public void cancelTicketsShouldWriteCancelledEventsWithCancellingStatement() {
+        List<Ticket> tickets = ticketService.cancelTicketsByUser(1L);
+
+        assertEquals(tickets.size(), countOutboxEvents());
+        assertEquals(tickets.size(), outboxService.relay());
+        for (OutboxEvent event : sink.events) {
+            assertEquals(OutboxEventType.TICKET_CANCELLED, event.getType());
+            assertEquals(Long.valueOf(1L), event.getUserId());
+            assertNotNull(event.getAmount());
+        }
+    }
+
+    @Test
+    public void refillAccountShouldWriteRefilledEvent() {
+        userAccountService.refillAccount(2L, BigDecimal.valueOf(100));
+
+        outboxService.relay();
+
+        assertEquals(1, sink.events.size());
+        assertEquals(OutboxEventType.ACCOUNT_REFILLED, sink.events.get(0).getType());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(sink.events.get(0).getAmount()));
+        assertNull(sink.events.get(0).getTicketId());
+    }
+
+    @Test
+    public void relayIfSinkFailsShouldKeepEventsForNextRelay() {
+        assertNotNull(ticketService.bookTicket(1L, 2L, 31, Category.STANDARD));
+        sink.failing = true;
+
+        try {
+            outboxService.relay();
+            fail("The relay has not failed");
+        } catch (RuntimeException e) {
+            assertEquals(1, countOutboxEvents());
+        }
+
+        sink.failing = false;
+        assertEquals(1, outboxService.relay());
+        assertEquals(0, countOutboxEvents());
+    }
+
+    private int countOutboxEvents() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class);
+    }
+
+    @TestConfiguration
+    static class RecordingOutboxSinkConfig {
+
+        @Bean
+        RecordingOutboxSink recordingOutboxSink() {
+            return new RecordingOutboxSink();
+        }
+    }
+
+    static class RecordingOutboxSink implements OutboxSink {
+
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        private volatile boolean failing;
+
+        @Override
+        public void publish(List<OutboxEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("The sink is down");
+            }
+            this.events.addAll(events);
+        }
+    }
+}
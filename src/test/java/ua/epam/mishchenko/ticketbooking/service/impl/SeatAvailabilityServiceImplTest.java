@@ -0,0 +1,195 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ua.epam.mishchenko.ticketbooking.dto.SeatAvailability;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.repository.TicketRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.SeatView;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SeatAvailabilityServiceImplTest {
+
+    private SeatAvailabilityServiceImpl seatAvailabilityService;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        seatAvailabilityService = new SeatAvailabilityServiceImpl(ticketRepository);
+    }
+
+    @Test
+    public void isTakenWithBookedPlaceShouldReturnTrue() {
+        when(ticketRepository.findSeatsByEventId(1L))
+                .thenReturn(Arrays.asList(seat(10, Category.BAR), seat(11, Category.PREMIUM)));
+
+        assertTrue(seatAvailabilityService.isTaken(1L, 10, Category.BAR));
+        assertTrue(seatAvailabilityService.isTaken(1L, 11, Category.PREMIUM));
+        assertFalse(seatAvailabilityService.isTaken(1L, 10, Category.PREMIUM));
+        assertFalse(seatAvailabilityService.isTaken(1L, 12, Category.BAR));
+    }
+
+    @Test
+    public void isTakenShouldHydrateEventOnlyOnce() {
+        when(ticketRepository.findSeatsByEventId(anyLong())).thenReturn(Collections.emptyList());
+
+        seatAvailabilityService.isTaken(1L, 1, Category.BAR);
+        seatAvailabilityService.isTaken(1L, 2, Category.STANDARD);
+
+        verify(ticketRepository, times(1)).findSeatsByEventId(1L);
+    }
+
+    @Test
+    public void markBookedAndMarkFreeShouldUpdateHydratedEvent() {
+        when(ticketRepository.findSeatsByEventId(anyLong())).thenReturn(Collections.emptyList());
+
+        assertFalse(seatAvailabilityService.isTaken(1L, 5, Category.STANDARD));
+
+        seatAvailabilityService.markBooked(1L, 5, Category.STANDARD);
+
+        assertTrue(seatAvailabilityService.isTaken(1L, 5, Category.STANDARD));
+
+        seatAvailabilityService.markFree(1L, 5, Category.STANDARD);
+
+        assertFalse(seatAvailabilityService.isTaken(1L, 5, Category.STANDARD));
+    }
+
+    @Test
+    public void evictShouldHydrateEventAgain() {
+        when(ticketRepository.findSeatsByEventId(anyLong())).thenReturn(Collections.emptyList());
+
+        seatAvailabilityService.isTaken(1L, 1, Category.BAR);
+        seatAvailabilityService.evict(1L);
+        seatAvailabilityService.isTaken(1L, 1, Category.BAR);
+
+        verify(ticketRepository, times(2)).findSeatsByEventId(1L);
+    }
+
+    @Test
+    public void isTakenWithNegativePlaceShouldReturnFalse() {
+        assertFalse(seatAvailabilityService.isTaken(1L, -1, Category.BAR));
+    }
+
+    @Test
+    public void placeBeyondMaxPlacesShouldBeNeitherValidNorKept() {
+        SeatAvailabilityServiceImpl service = new SeatAvailabilityServiceImpl(ticketRepository, 10, 100);
+        when(ticketRepository.findSeatsByEventId(anyLong())).thenReturn(Collections.emptyList());
+        assertFalse(service.isTaken(1L, 99, Category.BAR));
+
+        service.markBooked(1L, 99, Category.BAR);
+        service.markBooked(1L, Integer.MAX_VALUE, Category.BAR);
+
+        assertTrue(service.isValidPlace(0));
+        assertTrue(service.isValidPlace(99));
+        assertFalse(service.isValidPlace(100));
+        assertFalse(service.isValidPlace(-1));
+        assertFalse(service.isTaken(1L, Integer.MAX_VALUE, Category.BAR));
+        assertEquals(1, service.getBookedPlaces(1L).get(Category.BAR).cardinality());
+    }
+
+    @Test
+    public void getBookedPlacesShouldReturnCopyOfBookedPlaces() {
+        when(ticketRepository.findSeatsByEventId(1L))
+                .thenReturn(Arrays.asList(seat(10, Category.BAR), seat(12, Category.BAR), seat(3, Category.PREMIUM)));
+
+        Map<Category, BitSet> places = seatAvailabilityService.getBookedPlaces(1L);
+        places.get(Category.BAR).clear();
+
+        assertEquals(2, seatAvailabilityService.getBookedPlaces(1L).get(Category.BAR).cardinality());
+        assertTrue(seatAvailabilityService.getBookedPlaces(1L).get(Category.PREMIUM).get(3));
+        assertFalse(places.containsKey(Category.STANDARD));
+    }
+
+    @Test
+    public void seatAvailabilityShouldRoundTripBookedPlaces() {
+        BitSet bar = new BitSet();
+        bar.set(0);
+        bar.set(49_999);
+        Map<Category, BitSet> places = new EnumMap<>(Category.class);
+        places.put(Category.BAR, bar);
+        places.put(Category.STANDARD, new BitSet());
+
+        SeatAvailability availability = new SeatAvailability(1L, places);
+
+        assertEquals(bar, availability.decode(Category.BAR));
+        assertEquals(Integer.valueOf(2), availability.getBookedCount().get(Category.BAR));
+        assertFalse(availability.getBooked().containsKey(Category.STANDARD));
+        assertTrue(availability.decode(Category.STANDARD).isEmpty());
+    }
+
+    @Test
+    public void findBestAvailableShouldReturnLeftmostContiguousFreePlaces() {
+        SeatAvailabilityServiceImpl service = new SeatAvailabilityServiceImpl(ticketRepository, 10);
+        when(ticketRepository.findSeatsByEventId(1L))
+                .thenReturn(Arrays.asList(seat(2, Category.BAR), seat(5, Category.PREMIUM)));
+
+        assertEquals(Arrays.asList(6, 7, 8), service.findBestAvailable(1L, 3, place -> false));
+        assertEquals(Arrays.asList(3, 4), service.findBestAvailable(1L, 2, place -> false));
+    }
+
+    @Test
+    public void findBestAvailableShouldSkipExcludedPlaces() {
+        SeatAvailabilityServiceImpl service = new SeatAvailabilityServiceImpl(ticketRepository, 10);
+        when(ticketRepository.findSeatsByEventId(1L)).thenReturn(Collections.emptyList());
+
+        assertEquals(Arrays.asList(3, 4, 5), service.findBestAvailable(1L, 3, place -> place == 2));
+        assertEquals(Arrays.asList(1, 2, 3), service.findBestAvailable(1L, 3, place -> false));
+    }
+
+    @Test
+    public void findBestAvailableWithoutContiguousRunShouldReturnNearestFreePlaces() {
+        SeatAvailabilityServiceImpl service = new SeatAvailabilityServiceImpl(ticketRepository, 10);
+        when(ticketRepository.findSeatsByEventId(1L)).thenReturn(Arrays.asList(seat(1, Category.BAR),
+                seat(3, Category.BAR), seat(4, Category.BAR), seat(6, Category.BAR), seat(8, Category.BAR),
+                seat(10, Category.BAR)));
+
+        assertEquals(Arrays.asList(5, 7, 9), service.findBestAvailable(1L, 3, place -> false));
+        assertTrue(service.findBestAvailable(1L, 5, place -> false).isEmpty());
+    }
+
+    @Test
+    public void findBestAvailableShouldFollowBookingsAndCancellations() {
+        SeatAvailabilityServiceImpl service = new SeatAvailabilityServiceImpl(ticketRepository, 10);
+        when(ticketRepository.findSeatsByEventId(1L)).thenReturn(Collections.emptyList());
+        assertEquals(Arrays.asList(1, 2), service.findBestAvailable(1L, 2, place -> false));
+
+        service.markBooked(1L, 2, Category.STANDARD);
+        assertEquals(Arrays.asList(3, 4), service.findBestAvailable(1L, 2, place -> false));
+
+        service.markFree(1L, 2, Category.STANDARD);
+        assertEquals(Arrays.asList(1, 2), service.findBestAvailable(1L, 2, place -> false));
+    }
+
+    private SeatView seat(int place, Category category) {
+        return new SeatView() {
+            @Override
+            public Integer getPlace() {
+                return place;
+            }
+
+            @Override
+            public Category getCategory() {
+                return category;
+            }
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ua.epam.mishchenko.ticketbooking.booking.TimerWheel;
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SeatHoldServiceImplTest {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    private static final int MAX_SEATS = 3;
+
+    private static final int MAX_HOLDS_PER_USER = 2;
+
+    private SeatHoldServiceImpl seatHoldService;
+
+    @Mock
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TimerWheel timerWheel;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(seatAvailabilityService.isValidPlace(anyInt())).thenReturn(true);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        seatHoldService = new SeatHoldServiceImpl(seatAvailabilityService, userRepository,
+                TTL_MILLIS, MAX_SEATS, MAX_HOLDS_PER_USER, timerWheel);
+    }
+
+    @Test
+    public void holdWithFreeSeatsShouldHoldThemForOtherUsers() {
+        SeatHold hold = seatHoldService.hold(1L, 1L,
+                Arrays.asList(new SeatRequest(1, Category.BAR), new SeatRequest(2, Category.BAR)));
+
+        assertNotNull(hold);
+        assertEquals(2, hold.getSeats().size());
+        assertTrue(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 1L));
+        assertFalse(seatHoldService.isHeldByAnotherUser(2L, 1, 2L));
+        verify(timerWheel).schedule(any(Runnable.class), eq(TTL_MILLIS));
+    }
+
+    @Test
+    public void holdWithBookedSeatShouldReturnNull() {
+        when(seatAvailabilityService.isTaken(anyLong(), anyInt(), any())).thenReturn(true);
+
+        SeatHold hold = seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+
+        assertNull(hold);
+    }
+
+    @Test
+    public void holdWithPlaceOutOfRangeShouldReturnNull() {
+        when(seatAvailabilityService.isValidPlace(1_000_000)).thenReturn(false);
+
+        SeatHold hold = seatHoldService.hold(1L, 1L,
+                Arrays.asList(new SeatRequest(1, Category.BAR), new SeatRequest(1_000_000, Category.BAR)));
+
+        assertNull(hold);
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+    }
+
+    @Test
+    public void holdWithMoreThanMaxSeatsShouldReturnNull() {
+        SeatHold hold = seatHoldService.hold(1L, 1L, Arrays.asList(new SeatRequest(1, Category.BAR),
+                new SeatRequest(2, Category.BAR), new SeatRequest(3, Category.BAR), new SeatRequest(4, Category.BAR)));
+
+        assertNull(hold);
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+    }
+
+    @Test
+    public void holdByNotExistingUserShouldReturnNull() {
+        when(userRepository.existsById(7L)).thenReturn(false);
+
+        SeatHold hold = seatHoldService.hold(7L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+
+        assertNull(hold);
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+    }
+
+    @Test
+    public void holdBeyondMaxActiveHoldsShouldReturnNullUntilOneIsReleased() {
+        SeatHold first = seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+        assertNotNull(seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(2, Category.BAR))));
+        assertNull(seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(3, Category.BAR))));
+        assertNotNull(seatHoldService.hold(2L, 1L, Collections.singletonList(new SeatRequest(3, Category.BAR))));
+
+        assertTrue(seatHoldService.release(first.getId(), 1L));
+
+        assertNotNull(seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(4, Category.BAR))));
+    }
+
+    @Test
+    public void failedHoldShouldNotCountAsActiveHold() {
+        seatHoldService.hold(2L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+        for (int i = 0; i < MAX_HOLDS_PER_USER; i++) {
+            assertNull(seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR))));
+        }
+
+        assertNotNull(seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(2, Category.BAR))));
+    }
+
+    @Test
+    public void holdWithSeatHeldByAnotherHoldShouldHoldNothing() {
+        seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(2, Category.BAR)));
+
+        SeatHold hold = seatHoldService.hold(2L, 1L,
+                Arrays.asList(new SeatRequest(1, Category.BAR), new SeatRequest(2, Category.BAR)));
+
+        assertNull(hold);
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 1L));
+    }
+
+    @Test
+    public void expiredHoldShouldFreeSeats() {
+        seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+        ArgumentCaptor<Runnable> expiry = ArgumentCaptor.forClass(Runnable.class);
+        verify(timerWheel).schedule(expiry.capture(), anyLong());
+
+        expiry.getValue().run();
+
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+    }
+
+    @Test
+    public void claimedHoldShouldNotExpireUntilRestored() {
+        SeatHold hold = seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+        ArgumentCaptor<Runnable> expiry = ArgumentCaptor.forClass(Runnable.class);
+        verify(timerWheel).schedule(expiry.capture(), anyLong());
+
+        seatHoldService.claim(hold.getId(), 1L);
+        expiry.getValue().run();
+
+        assertTrue(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+
+        seatHoldService.restore(hold.getId());
+        seatHoldService.claim(hold.getId(), 1L);
+        seatHoldService.complete(hold.getId());
+
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void claimByAnotherUserShouldThrowException() {
+        SeatHold hold = seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+
+        seatHoldService.claim(hold.getId(), 2L);
+    }
+
+    @Test
+    public void releaseShouldFreeSeatsOnlyForOwner() {
+        SeatHold hold = seatHoldService.hold(1L, 1L, Collections.singletonList(new SeatRequest(1, Category.BAR)));
+
+        assertFalse(seatHoldService.release(hold.getId(), 2L));
+        assertTrue(seatHoldService.release(hold.getId(), 1L));
+        assertFalse(seatHoldService.isHeldByAnotherUser(1L, 1, 2L));
+    }
+}
@@ -0,0 +1,86 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the statements prepared through any connection of the data source,
+ * so the JdbcTemplate statements are counted together with the Hibernate ones.
+ * Only the statements of the thread running {@link #countStatements(Runnable)} are counted.
+ */
+@TestConfiguration
+class StatementCountingConfig {
+
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    private static volatile Thread countedThread;
+
+    /**
+     * Runs the work and counts the statements it prepares on the current thread.
+     *
+     * @param work the work
+     * @return the number of statements
+     */
+    static int countStatements(Runnable work) {
+        STATEMENTS.set(0);
+        countedThread = Thread.currentThread();
+        try {
+            work.run();
+        } finally {
+            countedThread = null;
+        }
+        return STATEMENTS.get();
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? countStatements((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    private static DataSource countStatements(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(proxy, dataSource, method, args);
+                    return result instanceof Connection ? countStatements((Connection) result) : result;
+                });
+    }
+
+    private static Connection countStatements(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (Thread.currentThread() == countedThread && (name.equals("prepareStatement")
+                            || name.equals("prepareCall") || name.equals("createStatement"))) {
+                        STATEMENTS.incrementAndGet();
+                    }
+                    return invoke(proxy, connection, method, args);
+                });
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.repository.UserAccountRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class TicketServiceImplCancellationIntTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketServiceImplCancellationIntTest.class);
+
+    private static final int EVENT_SEATS = 20_000;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void cancelTicketShouldRefundTicketPrice() {
+        boolean isCanceled = ticketService.cancelTicket(1L);
+
+        assertTrue(isCanceled);
+        assertMoney(1L, 1100);
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE id = 1", Integer.class));
+    }
+
+    @Test
+    public void cancelTicketNotExistsTicketShouldNotRefundAnything() {
+        boolean isCanceled = ticketService.cancelTicket(100L);
+
+        assertFalse(isCanceled);
+        assertMoney(1L, 1000);
+        assertMoney(2L, 1500);
+    }
+
+    @Test
+    public void cancelTicketsByUserShouldRefundAllTicketsOnce() {
+        List<Ticket> tickets = ticketService.cancelTicketsByUser(1L);
+
+        assertEquals(2, tickets.size());
+        assertMoney(1L, 1000 + 100 + 450);
+        assertMoney(2L, 1500);
+    }
+
+    @Test
+    public void cancelTicketsByEventShouldCancelLargeEventInOneStatement() {
+        jdbcTemplate.update("UPDATE events SET ticket_price = 0.01 WHERE id = 6");
+        List<Object[]> arguments = new ArrayList<>(EVENT_SEATS);
+        for (int place = 1; place <= EVENT_SEATS; place++) {
+            arguments.add(new Object[]{place % 2 + 1, 6, 1000 + place});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (user_id, event_id, place, category) VALUES (?, ?, ?, 'BAR')",
+                arguments);
+
+        long start = System.nanoTime();
+        List<Ticket> tickets = ticketService.cancelTicketsByEvent(6L);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Cancelled {} tickets of one event in {} ms", tickets.size(), elapsedMillis);
+
+        assertEquals(EVENT_SEATS, tickets.size());
+        assertMoney(1L, 1000 + EVENT_SEATS / 2 / 100);
+        assertMoney(2L, 1500 + EVENT_SEATS / 2 / 100);
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE event_id = 6", Integer.class));
+    }
+
+    private void assertMoney(long userId, long expected) {
+        assertEquals(0, BigDecimal.valueOf(expected)
+                .compareTo(userAccountRepository.findByUserId(userId).get().getMoney()));
+    }
+}
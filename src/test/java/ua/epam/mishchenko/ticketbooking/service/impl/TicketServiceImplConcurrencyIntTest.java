@@ -0,0 +1,135 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.booking.BookingMode;
+import ua.epam.mishchenko.ticketbooking.booking.BookingTransactionExecutor;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml",
+        "booking.mode = OPTIMISTIC"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class TicketServiceImplConcurrencyIntTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketServiceImplConcurrencyIntTest.class);
+
+    private static final int THREADS = 8;
+
+    private static final int BOOKINGS_PER_THREAD = 10;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private BookingTransactionExecutor bookingTransactionExecutor;
+
+    @Autowired
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        seatAvailabilityService.evict(1L);
+    }
+
+    @Test
+    public void optimisticModeShouldBookEveryTicketOnceWithoutLosingDebits() throws Exception {
+        jdbcTemplate.update("UPDATE user_accounts SET money = 9000");
+        long retriesBefore = bookingTransactionExecutor.getRetryCount();
+        AtomicInteger optimisticBooked = new AtomicInteger();
+
+        double optimisticRate = bookConcurrently(1000, optimisticBooked);
+
+        long retries = bookingTransactionExecutor.getRetryCount() - retriesBefore;
+        log.info("Successful bookings per second: optimistic={}, optimistic retries={}", optimisticRate, retries);
+        assertEquals(THREADS * BOOKINGS_PER_THREAD, optimisticBooked.get());
+        assertEquals(optimisticBooked.get(), countTickets(1000));
+        assertEquals(0, countDoubleBookedPlaces());
+        BigDecimal money = jdbcTemplate.queryForObject(
+                "SELECT SUM(money) FROM user_accounts", BigDecimal.class);
+        assertEquals(0, BigDecimal.valueOf(18000 - 100 * countTickets(1000)).compareTo(money));
+    }
+
+    @Test
+    public void readCommittedBookingsShouldNotOverdrawUserAccount() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+
+        bookConcurrently(3000, booked, 1L);
+
+        BigDecimal money = jdbcTemplate.queryForObject(
+                "SELECT money FROM user_accounts WHERE user_id = 1", BigDecimal.class);
+        assertEquals(BookingMode.OPTIMISTIC, bookingTransactionExecutor.getMode());
+        assertEquals(10, booked.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(money));
+    }
+
+    private int countTickets(int firstPlace) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE event_id = 1 AND place >= ?", Integer.class, firstPlace);
+    }
+
+    private int countDoubleBookedPlaces() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT event_id, place FROM tickets " +
+                "GROUP BY event_id, place HAVING COUNT(*) > 1) AS places", Integer.class);
+    }
+
+    private double bookConcurrently(int firstPlace, AtomicInteger booked) throws Exception {
+        return bookConcurrently(firstPlace, booked, null);
+    }
+
+    private double bookConcurrently(int firstPlace, AtomicInteger booked, Long onlyUserId) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            long userId = onlyUserId != null ? onlyUserId : thread % 2 + 1;
+            int threadFirstPlace = firstPlace + thread * BOOKINGS_PER_THREAD;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    if (ticketService.bookTicket(userId, 1L, threadFirstPlace + i, Category.STANDARD) != null) {
+                        booked.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+        return booked.get() / (elapsedNanos / 1_000_000_000.0);
+    }
+}
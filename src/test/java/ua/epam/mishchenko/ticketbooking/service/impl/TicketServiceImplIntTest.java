@@ -9,14 +9,26 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.dto.BookingRequest;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.repository.TicketRepository;
+import ua.epam.mishchenko.ticketbooking.repository.UserAccountRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.BookingSnapshot;
 
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
@@ -31,19 +43,40 @@ public class TicketServiceImplIntTest {
     @Autowired
     private TicketServiceImpl ticketService;
 
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
     @MockBean
     private TicketRepository ticketRepository;
 
     @Test
     public void bookTicketWithRuntimeExceptionShouldRollback() {
-        when(ticketRepository.existsByEventIdAndPlaceAndCategory(anyLong(), anyInt(), any(Category.class)))
-                .thenReturn(false);
+        BookingSnapshot snapshot = mock(BookingSnapshot.class);
+        when(snapshot.getAccountId()).thenReturn(1L);
+        when(snapshot.getMoney()).thenReturn(BigDecimal.valueOf(1000));
+        when(snapshot.getTicketPrice()).thenReturn(BigDecimal.valueOf(100));
+        when(snapshot.getEventDate()).thenReturn(new Date());
+        when(snapshot.getPlaceTaken()).thenReturn(false);
+        when(ticketRepository.findBookingSnapshot(anyLong(), anyLong(), anyCollection()))
+                .thenReturn(Optional.of(snapshot));
         when(ticketRepository.save(any(Ticket.class)))
                 .thenThrow(RuntimeException.class);
 
         Ticket ticket = ticketService.bookTicket(1, 1, 30, Category.PREMIUM);
 
         assertNull(ticket);
+        assertEquals(0, BigDecimal.valueOf(1000)
+                .compareTo(userAccountRepository.findByUserId(1L).get().getMoney()));
+    }
+
+    @Test
+    public void bookTicketBatchShouldEvictCachedUserAccounts() {
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(userAccountRepository.findById(1L).get().getMoney()));
+
+        List<Ticket> tickets = ticketService.bookTicketBatch(
+                Collections.singletonList(new BookingRequest(1L, 2L, 30, Category.STANDARD)));
 
+        assertNotNull(tickets.get(0));
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(userAccountRepository.findById(1L).get().getMoney()));
     }
 }
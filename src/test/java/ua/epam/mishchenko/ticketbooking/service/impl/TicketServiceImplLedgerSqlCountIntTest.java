@@ -0,0 +1,54 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Import(StatementCountingConfig.class)
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml",
+        "booking.ledger.enabled = true", "booking.ledger.compaction-millis = 0",
+        "booking.outbox.enabled = true", "booking.outbox.relay-millis = 0"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class TicketServiceImplLedgerSqlCountIntTest {
+
+    /**
+     * The booking snapshot, the advisory lock of the account, the conditional ledger debit,
+     * the ticket insert and the outbox insert.
+     */
+    private static final int MAX_BOOKING_STATEMENTS = 5;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @Test
+    public void bookTicketWithLedgerAndOutboxShouldNotExecuteMoreThanFiveStatements() {
+        seatAvailabilityService.isTaken(1L, 30, Category.PREMIUM);
+        AtomicReference<Ticket> ticket = new AtomicReference<>();
+
+        int statements = StatementCountingConfig.countStatements(
+                () -> ticket.set(ticketService.bookTicket(1, 1, 30, Category.PREMIUM)));
+
+        assertNotNull(ticket.get());
+        assertTrue("Executed " + statements + " statements", statements <= MAX_BOOKING_STATEMENTS);
+    }
+}
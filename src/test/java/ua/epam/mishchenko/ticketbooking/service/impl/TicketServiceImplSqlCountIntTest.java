@@ -0,0 +1,117 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.Event;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.repository.projection.TicketView;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Import(StatementCountingConfig.class)
+@TestPropertySource(properties = {
+        "spring.config.location = classpath:application-test.yml",
+        "spring.jpa.properties.hibernate.generate_statistics = true"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class TicketServiceImplSqlCountIntTest {
+
+    /**
+     * The booking snapshot, the conditional debit and the ticket insert.
+     */
+    private static final int MAX_BOOKING_STATEMENTS = 3;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void bookTicketShouldNotExecuteMoreThanThreeStatements() {
+        seatAvailabilityService.isTaken(1L, 30, Category.PREMIUM);
+        AtomicReference<Ticket> ticket = new AtomicReference<>();
+
+        int statements = StatementCountingConfig.countStatements(
+                () -> ticket.set(ticketService.bookTicket(1, 1, 30, Category.PREMIUM)));
+
+        assertNotNull(ticket.get());
+        assertTrue("Executed " + statements + " statements", statements <= MAX_BOOKING_STATEMENTS);
+    }
+
+    @Test
+    public void getBookedTicketsByUserShouldFetchUsersAndEventsWithOneStatement() {
+        Statistics statistics = clearStatistics();
+
+        List<Ticket> tickets = ticketService.getBookedTickets(new User(1L, "Alan", "alan@gmail.com"), 10, 1);
+
+        assertEquals(2, tickets.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFetched(tickets);
+    }
+
+    @Test
+    public void getBookedTicketsByEventShouldFetchUsersAndEventsWithOneStatement() {
+        Event event = new Event();
+        event.setId(1L);
+        Statistics statistics = clearStatistics();
+
+        List<Ticket> tickets = ticketService.getBookedTickets(event, 10, 1);
+
+        assertEquals(2, tickets.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFetched(tickets);
+    }
+
+    @Test
+    public void getBookedTicketsByUserAfterCursorShouldReadViewsWithoutLoadingEntities() {
+        Statistics statistics = clearStatistics();
+
+        CursorPage<TicketView> page = ticketService.getBookedTickets(new User(1L, "Alan", "alan@gmail.com"), 1, null);
+
+        assertEquals(1, page.getContent().size());
+        assertTrue(page.hasNext());
+        assertEquals(Long.valueOf(1L), page.getContent().get(0).getUserId());
+        assertEquals(Long.valueOf(1L), page.getContent().get(0).getEventId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Statistics clearStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private void assertFetched(List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            assertTrue(Hibernate.isInitialized(ticket.getUser()));
+            assertTrue(Hibernate.isInitialized(ticket.getEvent()));
+        }
+    }
+}
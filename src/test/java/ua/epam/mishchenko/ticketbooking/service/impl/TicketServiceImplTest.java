@@ -9,15 +9,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
 import ua.epam.mishchenko.ticketbooking.model.*;
 import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+import ua.epam.mishchenko.ticketbooking.repository.TicketJdbcRepository;
 import ua.epam.mishchenko.ticketbooking.repository.TicketRepository;
 import ua.epam.mishchenko.ticketbooking.repository.UserAccountRepository;
 import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.BookingSnapshot;
 
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +29,9 @@ import java.util.Optional;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ua.epam.mishchenko.ticketbooking.utils.Constants.DATE_FORMATTER;
 
@@ -47,9 +54,12 @@ public class TicketServiceImplTest {
     @MockBean
     private UserAccountRepository userAccountRepository;
 
+    @MockBean
+    private TicketJdbcRepository ticketJdbcRepository;
+
     @Test
-    public void bookTicketIfUserNotExistShouldReturnNull() {
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+    public void bookTicketIfUserAccountOrEventNotExistShouldReturnNull() {
+        when(ticketRepository.findBookingSnapshot(anyLong(), anyLong(), anyCollection())).thenReturn(Optional.empty());
 
         Ticket ticket = ticketService.bookTicket(1L, 1L, 1, Category.BAR);
 
@@ -57,70 +67,113 @@ public class TicketServiceImplTest {
     }
 
     @Test
-    public void bookTicketIfEventNotExistShouldReturnNull() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(eventRepository.existsById(anyLong())).thenReturn(false);
+    public void bookTicketIfTicketAlreadyBookedShouldReturnNull() {
+        BookingSnapshot snapshot = createSnapshot(BigDecimal.TEN, BigDecimal.ONE, true);
+        when(ticketRepository.findBookingSnapshot(anyLong(), anyLong(), anyCollection()))
+                .thenReturn(Optional.of(snapshot));
 
         Ticket ticket = ticketService.bookTicket(1L, 1L, 1, Category.BAR);
 
         assertNull(ticket);
+        verify(userAccountRepository, never()).debit(anyLong(), any(BigDecimal.class));
     }
 
     @Test
-    public void bookTicketIfTicketAlreadyBookedShouldReturnNull() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(eventRepository.existsById(anyLong())).thenReturn(true);
-        when(ticketRepository.existsByEventIdAndPlaceAndCategory(anyLong(), anyInt(), any(Category.class)))
-                .thenReturn(true);
+    public void bookTicketIfUserNotHaveMoneyShouldReturnNull() {
+        BookingSnapshot snapshot = createSnapshot(BigDecimal.ONE, BigDecimal.TEN, false);
+        when(ticketRepository.findBookingSnapshot(anyLong(), anyLong(), anyCollection()))
+                .thenReturn(Optional.of(snapshot));
 
         Ticket ticket = ticketService.bookTicket(1L, 1L, 1, Category.BAR);
 
         assertNull(ticket);
+        verify(userAccountRepository, never()).debit(anyLong(), any(BigDecimal.class));
     }
 
     @Test
-    public void bookTicketIfUserNotHaveAccountShouldReturnNull() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(eventRepository.existsById(anyLong())).thenReturn(true);
-        when(ticketRepository.existsByEventIdAndPlaceAndCategory(anyLong(), anyInt(), any(Category.class)))
-                .thenReturn(false);
-        when(userAccountRepository.findById(anyLong())).thenReturn(Optional.empty());
+    public void bookTicketIfUserAccountDrainedConcurrentlyShouldReturnNull() {
+        BookingSnapshot snapshot = createSnapshot(BigDecimal.TEN, BigDecimal.ONE, false);
+        when(ticketRepository.findBookingSnapshot(anyLong(), anyLong(), anyCollection()))
+                .thenReturn(Optional.of(snapshot));
+        when(userAccountRepository.debit(anyLong(), any(BigDecimal.class))).thenReturn(0);
 
         Ticket ticket = ticketService.bookTicket(1L, 1L, 1, Category.BAR);
 
         assertNull(ticket);
+        verify(ticketRepository, never()).save(any(Ticket.class));
     }
 
     @Test
-    public void bookTicketIfUserNotHaveMoneyShouldReturnNull() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(eventRepository.existsById(anyLong())).thenReturn(true);
-        when(ticketRepository.existsByEventIdAndPlaceAndCategory(anyLong(), anyInt(), any(Category.class)))
-                .thenReturn(false);
-        when(userAccountRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new UserAccount(new User(), BigDecimal.ONE)));
-        when(eventRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new Event("Title", new Date(System.currentTimeMillis()), BigDecimal.TEN)));
+    public void bookTicketIfEverythingFineShouldReturnBookedTicket() {
+        BookingSnapshot snapshot = createSnapshot(BigDecimal.TEN, BigDecimal.ONE, false);
+        when(ticketRepository.findBookingSnapshot(anyLong(), anyLong(), anyCollection()))
+                .thenReturn(Optional.of(snapshot));
+        when(userAccountRepository.debit(anyLong(), any(BigDecimal.class))).thenReturn(1);
+        when(ticketRepository.save(any(Ticket.class)))
+                .thenReturn(new Ticket(7L, new User(), new Event(), 1, Category.BAR));
 
         Ticket ticket = ticketService.bookTicket(1L, 1L, 1, Category.BAR);
 
-        assertNull(ticket);
+        assertNotNull(ticket);
+        assertEquals(Long.valueOf(7L), ticket.getId());
+        assertEquals(Long.valueOf(1L), ticket.getUser().getId());
+        assertEquals(BigDecimal.ONE, ticket.getEvent().getTicketPrice());
+        verify(userAccountRepository).debit(1L, BigDecimal.ONE);
     }
 
     @Test
-    public void bookTicketIfEverythingFineShouldReturnBookedTicket() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(eventRepository.existsById(anyLong())).thenReturn(true);
-        when(ticketRepository.existsByEventIdAndPlaceAndCategory(anyLong(), anyInt(), any(Category.class)))
-                .thenReturn(false);
-        when(userAccountRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new UserAccount(new User(), BigDecimal.TEN)));
-        when(eventRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new Event("Title", new Date(System.currentTimeMillis()), BigDecimal.ONE)));
+    public void bookTicketWithPlaceOutOfRangeShouldReturnNullWithoutQuerying() {
+        assertNull(ticketService.bookTicket(1L, 1L, -1, Category.BAR));
+        assertNull(ticketService.bookTicket(1L, 1L, Integer.MAX_VALUE, Category.BAR));
 
-        Ticket ticket = ticketService.bookTicket(1L, 1L, 1, Category.BAR);
+        verify(ticketRepository, never()).findBookingSnapshot(anyLong(), anyLong(), anyCollection());
+    }
 
-        assertNull(ticket);
+    @Test
+    public void bookTicketsWithEmptySeatsShouldReturnEmptyList() {
+        List<Ticket> tickets = ticketService.bookTickets(1L, 1L, Collections.emptyList());
+
+        assertTrue(tickets.isEmpty());
+    }
+
+    @Test
+    public void bookTicketsWithDuplicatedPlaceShouldReturnEmptyList() {
+        List<Ticket> tickets = ticketService.bookTickets(1L, 1L,
+                Arrays.asList(new SeatRequest(1, Category.BAR), new SeatRequest(1, Category.PREMIUM)));
+
+        assertTrue(tickets.isEmpty());
+        verify(ticketRepository, never()).findBookingSnapshot(anyLong(), anyLong(), anyCollection());
+    }
+
+    @Test
+    public void bookBestAvailableWithWrongCountShouldReturnEmptyList() {
+        List<Ticket> tickets = ticketService.bookBestAvailable(1L, 1L, Category.BAR, 0);
+
+        assertTrue(tickets.isEmpty());
+        verify(ticketRepository, never()).findBookingSnapshot(anyLong(), anyLong(), anyCollection());
+    }
+
+    @Test
+    public void bookTicketsIfUserNotHaveMoneyForAllSeatsShouldReturnEmptyList() {
+        BookingSnapshot snapshot = createSnapshot(BigDecimal.TEN, BigDecimal.valueOf(6), false);
+        when(ticketRepository.findBookingSnapshot(anyLong(), anyLong(), anyCollection()))
+                .thenReturn(Optional.of(snapshot));
+
+        List<Ticket> tickets = ticketService.bookTickets(1L, 1L,
+                Arrays.asList(new SeatRequest(1, Category.BAR), new SeatRequest(2, Category.BAR)));
+
+        assertTrue(tickets.isEmpty());
+        verify(userAccountRepository, never()).debit(anyLong(), any(BigDecimal.class));
+    }
+
+    private BookingSnapshot createSnapshot(BigDecimal money, BigDecimal ticketPrice, boolean placeTaken) {
+        BookingSnapshot snapshot = mock(BookingSnapshot.class);
+        when(snapshot.getAccountId()).thenReturn(1L);
+        when(snapshot.getMoney()).thenReturn(money);
+        when(snapshot.getTicketPrice()).thenReturn(ticketPrice);
+        when(snapshot.getEventDate()).thenReturn(new Date(System.currentTimeMillis()));
+        when(snapshot.getPlaceTaken()).thenReturn(placeTaken);
+        return snapshot;
     }
 
     @Test
@@ -189,17 +242,53 @@ public class TicketServiceImplTest {
 
     @Test
     public void cancelTicketExistsTicketShouldReturnTrue() {
+        when(ticketJdbcRepository.cancel(6L)).thenReturn(Optional.of(createCancelledTicket(6L, 1L)));
+
         boolean actualIsDeleted = ticketService.cancelTicket(6L);
 
         assertTrue(actualIsDeleted);
     }
 
+    @Test
+    public void cancelTicketNotExistsTicketShouldReturnFalse() {
+        when(ticketJdbcRepository.cancel(anyLong())).thenReturn(Optional.empty());
+
+        boolean isRemoved = ticketService.cancelTicket(10L);
+
+        assertFalse(isRemoved);
+    }
+
     @Test
     public void cancelTicketWithExceptionShouldReturnFalse() {
-        doThrow(new RuntimeException()).when(ticketRepository).deleteById(anyLong());
+        doThrow(new RuntimeException()).when(ticketJdbcRepository).cancel(anyLong());
 
         boolean isRemoved = ticketService.cancelTicket(10L);
 
         assertFalse(isRemoved);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cancelTicketsByEventShouldReturnCancelledTickets() {
+        List<Ticket> cancelled = Arrays.asList(createCancelledTicket(1L, 1L), createCancelledTicket(2L, 1L));
+        when(ticketJdbcRepository.cancelAllByEventId(1L)).thenReturn(cancelled);
+
+        List<Ticket> tickets = ticketService.cancelTicketsByEvent(1L);
+
+        assertEquals(cancelled, tickets);
+    }
+
+    @Test
+    public void cancelTicketsByUserWithExceptionShouldReturnEmptyList() {
+        when(ticketJdbcRepository.cancelAllByUserId(anyLong())).thenThrow(RuntimeException.class);
+
+        List<Ticket> tickets = ticketService.cancelTicketsByUser(1L);
+
+        assertTrue(tickets.isEmpty());
+    }
+
+    private Ticket createCancelledTicket(long ticketId, long eventId) {
+        Event event = new Event();
+        event.setId(eventId);
+        return new Ticket(ticketId, new User(), event, (int) ticketId, Category.BAR);
+    }
+}
@@ -0,0 +1,88 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.dto.AccountRefill;
+import ua.epam.mishchenko.ticketbooking.dto.RefillResult;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = {"spring.config.location = classpath:application-test.yml"})
+@Sql(value = {"classpath:sql/clear-database.sql", "classpath:sql/insert-data.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"classpath:sql/clear-database.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class UserAccountServiceImplIntTest {
+
+    @Autowired
+    private UserAccountServiceImpl userAccountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void refillAccountsShouldRefillExistingAndCreateMissingAccounts() {
+        List<RefillResult> results = userAccountService.refillAccounts(Arrays.asList(
+                new AccountRefill(1L, BigDecimal.valueOf(500)),
+                new AccountRefill(3L, BigDecimal.valueOf(200)),
+                new AccountRefill(1L, BigDecimal.valueOf(100))));
+
+        assertEquals(3, results.size());
+        for (RefillResult result : results) {
+            assertTrue(result.isRefilled());
+            assertNull(result.getMessage());
+        }
+        assertAccountMoney(1L, 1600);
+        assertAccountMoney(3L, 200);
+    }
+
+    @Test
+    public void refillAccountsShouldReportRejectedRefillsInOrder() {
+        List<RefillResult> results = userAccountService.refillAccounts(Arrays.asList(
+                new AccountRefill(100L, BigDecimal.valueOf(500)),
+                new AccountRefill(2L, BigDecimal.valueOf(-10)),
+                new AccountRefill(2L, BigDecimal.valueOf(10))));
+
+        assertFalse(results.get(0).isRefilled());
+        assertEquals(100L, results.get(0).getUserId());
+        assertNotNull(results.get(0).getMessage());
+        assertFalse(results.get(1).isRefilled());
+        assertNotNull(results.get(1).getMessage());
+        assertTrue(results.get(2).isRefilled());
+        assertAccountMoney(2L, 1510);
+    }
+
+    @Test
+    public void refillAccountsIfBatchFailsShouldRefillOtherAccountsOneByOne() {
+        List<RefillResult> results = userAccountService.refillAccounts(Arrays.asList(
+                new AccountRefill(1L, BigDecimal.valueOf(500)),
+                new AccountRefill(2L, new BigDecimal("100000000000000000000"))));
+
+        assertTrue(results.get(0).isRefilled());
+        assertFalse(results.get(1).isRefilled());
+        assertNotNull(results.get(1).getMessage());
+        assertAccountMoney(1L, 1500);
+        assertAccountMoney(2L, 1500);
+    }
+
+    private void assertAccountMoney(long userId, int expected) {
+        BigDecimal money = jdbcTemplate.queryForObject(
+                "SELECT money FROM user_accounts WHERE user_id = ?", BigDecimal.class, userId);
+        assertEquals(0, BigDecimal.valueOf(expected).compareTo(money));
+    }
+}
@@ -7,18 +7,27 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.context.junit4.SpringRunner;
+import ua.epam.mishchenko.ticketbooking.dto.CursorPage;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.repository.BulkDeleteRepository;
 import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.UserView;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
@@ -31,6 +40,9 @@ public class UserServiceImplTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private BulkDeleteRepository bulkDeleteRepository;
+
     @Test
     public void getUserByIdWithExistsIdShouldBeOk() {
         User expectedUser = new User(3L, "Max", "max@gmail.com");
@@ -127,6 +139,40 @@ public class UserServiceImplTest {
         assertTrue(actualUsersByName.isEmpty());
     }
 
+    @Test
+    public void countUsersByNameShouldCountOnceAndReturnCachedTotal() {
+        when(userRepository.countByName("Counted")).thenReturn(3L, 4L);
+
+        assertEquals(Long.valueOf(3L), userService.countUsersByName("Counted"));
+        assertEquals(Long.valueOf(3L), userService.countUsersByName("Counted"));
+
+        verify(userRepository, times(1)).countByName("Counted");
+    }
+
+    @Test
+    public void getUsersByNameAfterCursorShouldReturnPageWithNextCursor() {
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        List<UserView> content = Arrays.asList(
+                projectionFactory.createProjection(UserView.class, new User(5L, "Max", "max@gmail.com")),
+                projectionFactory.createProjection(UserView.class, new User(7L, "Max", "max2@gmail.com")));
+        when(userRepository.findViewsByNameAfter(eq("Max"), eq(3L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(content, PageRequest.of(0, 2), true));
+
+        CursorPage<UserView> page = userService.getUsersByName("Max", 2, CursorPage.encode(3L));
+
+        assertEquals(2, page.getContent().size());
+        assertSame(content.get(1), page.getContent().get(1));
+        assertEquals(CursorPage.encode(7L), page.getNextCursor());
+    }
+
+    @Test
+    public void getUsersByNameWithMalformedCursorShouldReturnEmptyPage() {
+        CursorPage<UserView> page = userService.getUsersByName("Max", 2, "not a cursor");
+
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.hasNext());
+    }
+
     @Test
     public void createUserWithUserShouldBeOk() {
         User expectedUser = new User(1L, "Test User", "testuser@gmail.com");
@@ -169,6 +215,9 @@ public class UserServiceImplTest {
 
     @Test
     public void deleteUserExistsUserShouldReturnTrue() {
+        when(bulkDeleteRepository.deleteAccountsByUserId(2L)).thenReturn(Collections.singletonList(2L));
+        when(bulkDeleteRepository.deleteUser(2L)).thenReturn(true);
+
         boolean actualIsDeleted = userService.deleteUser(2);
 
         assertTrue(actualIsDeleted);
@@ -176,7 +225,7 @@ public class UserServiceImplTest {
 
     @Test
     public void deleteUserWhichNotExistsShouldReturnFalse() {
-        doThrow(new RuntimeException()).when(userRepository).deleteById(anyLong());
+        when(bulkDeleteRepository.deleteUser(anyLong())).thenReturn(false);
 
         boolean isRemoved = userService.deleteUser(10L);
 
@@ -0,0 +1,222 @@
+package ua.epam.mishchenko.ticketbooking.service.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ua.epam.mishchenko.ticketbooking.model.Category;
+import ua.epam.mishchenko.ticketbooking.model.Ticket;
+import ua.epam.mishchenko.ticketbooking.model.WaitlistEntry;
+import ua.epam.mishchenko.ticketbooking.repository.EventRepository;
+import ua.epam.mishchenko.ticketbooking.repository.TicketRepository;
+import ua.epam.mishchenko.ticketbooking.repository.UserRepository;
+import ua.epam.mishchenko.ticketbooking.repository.WaitlistEntryRepository;
+import ua.epam.mishchenko.ticketbooking.repository.projection.BookingSnapshot;
+import ua.epam.mishchenko.ticketbooking.service.SeatAvailabilityService;
+import ua.epam.mishchenko.ticketbooking.service.SeatHoldService;
+import ua.epam.mishchenko.ticketbooking.service.TicketService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WaitlistServiceImplTest {
+
+    private WaitlistServiceImpl waitlistService;
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private TicketService ticketService;
+
+    @Mock
+    private SeatAvailabilityService seatAvailabilityService;
+
+    @Mock
+    private SeatHoldService seatHoldService;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(eventRepository.existsById(anyLong())).thenReturn(true);
+        when(waitlistEntryRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            entry.setId(ids.incrementAndGet());
+            return entry;
+        });
+        waitlistService = new WaitlistServiceImpl(waitlistEntryRepository, userRepository, eventRepository,
+                ticketService, seatAvailabilityService, seatHoldService, ticketRepository, Runnable::run);
+    }
+
+    @Test
+    public void joinIfEverythingFineShouldReturnEntry() {
+        WaitlistEntry entry = waitlistService.join(1L, 1L, Category.BAR);
+
+        assertNotNull(entry);
+        assertEquals(Long.valueOf(1L), entry.getId());
+        verify(waitlistEntryRepository).save(any(WaitlistEntry.class));
+    }
+
+    @Test
+    public void joinIfUserAlreadyWaitingShouldReturnNull() {
+        waitlistService.join(1L, 1L, Category.BAR);
+
+        WaitlistEntry entry = waitlistService.join(1L, 1L, Category.BAR);
+
+        assertNull(entry);
+    }
+
+    @Test
+    public void joinIfEventNotExistShouldReturnNull() {
+        when(eventRepository.existsById(anyLong())).thenReturn(false);
+
+        WaitlistEntry entry = waitlistService.join(1L, 1L, Category.BAR);
+
+        assertNull(entry);
+        verify(waitlistEntryRepository, never()).save(any(WaitlistEntry.class));
+    }
+
+    @Test
+    public void offerShouldBookPlaceForFirstWaitingUser() {
+        waitlistService.join(1L, 1L, Category.BAR);
+        waitlistService.join(2L, 1L, Category.BAR);
+        when(ticketService.bookTicket(1L, 1L, 5, Category.BAR)).thenReturn(new Ticket());
+
+        waitlistService.offer(1L, 5, Category.BAR);
+
+        verify(ticketService).bookTicket(1L, 1L, 5, Category.BAR);
+        verify(ticketService, never()).bookTicket(eq(2L), anyLong(), anyInt(), any(Category.class));
+        verify(waitlistEntryRepository).deleteById(1L);
+    }
+
+    @Test
+    public void offerIfFirstUserCanNotPayShouldBookPlaceForNextUser() {
+        waitlistService.join(1L, 1L, Category.BAR);
+        waitlistService.join(2L, 1L, Category.BAR);
+        when(ticketService.bookTicket(2L, 1L, 5, Category.BAR)).thenReturn(new Ticket());
+
+        waitlistService.offer(1L, 5, Category.BAR);
+
+        InOrder order = inOrder(ticketService, waitlistEntryRepository);
+        order.verify(ticketService).bookTicket(1L, 1L, 5, Category.BAR);
+        order.verify(waitlistEntryRepository).deleteById(1L);
+        order.verify(ticketService).bookTicket(2L, 1L, 5, Category.BAR);
+        order.verify(waitlistEntryRepository).deleteById(2L);
+    }
+
+    @Test
+    public void offerIfPlaceAlreadyTakenShouldKeepWaitingUsers() {
+        waitlistService.join(1L, 1L, Category.BAR);
+        when(seatAvailabilityService.isTaken(1L, 5, Category.BAR)).thenReturn(true);
+
+        waitlistService.offer(1L, 5, Category.BAR);
+        when(seatAvailabilityService.isTaken(1L, 6, Category.BAR)).thenReturn(false);
+        when(ticketService.bookTicket(1L, 1L, 6, Category.BAR)).thenReturn(new Ticket());
+        waitlistService.offer(1L, 6, Category.BAR);
+
+        verify(ticketService, never()).bookTicket(anyLong(), anyLong(), eq(5), any(Category.class));
+        verify(ticketService).bookTicket(1L, 1L, 6, Category.BAR);
+    }
+
+    @Test
+    public void offerIfPlaceHeldByAnotherUserShouldKeepWaitingUsers() {
+        waitlistService.join(1L, 1L, Category.BAR);
+        waitlistService.join(2L, 1L, Category.BAR);
+        when(seatHoldService.isHeldByAnotherUser(1L, 5, 1L)).thenReturn(true);
+
+        waitlistService.offer(1L, 5, Category.BAR);
+
+        verify(ticketService, never()).bookTicket(anyLong(), anyLong(), anyInt(), any(Category.class));
+        verify(waitlistEntryRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    public void offerIfBookingFailsTransientlyShouldKeepFirstUserAtHead() {
+        waitlistService.join(1L, 1L, Category.BAR);
+        waitlistService.join(2L, 1L, Category.BAR);
+        BookingSnapshot snapshot = mock(BookingSnapshot.class);
+        when(snapshot.getMoney()).thenReturn(BigDecimal.valueOf(1000));
+        when(snapshot.getTicketPrice()).thenReturn(BigDecimal.valueOf(100));
+        when(ticketRepository.findBookingSnapshot(eq(1L), eq(1L), anyCollection())).thenReturn(Optional.of(snapshot));
+
+        waitlistService.offer(1L, 5, Category.BAR);
+        when(ticketService.bookTicket(1L, 1L, 6, Category.BAR)).thenReturn(new Ticket());
+        waitlistService.offer(1L, 6, Category.BAR);
+
+        verify(ticketService, never()).bookTicket(eq(2L), anyLong(), anyInt(), any(Category.class));
+        verify(ticketService).bookTicket(1L, 1L, 6, Category.BAR);
+        verify(waitlistEntryRepository).deleteById(1L);
+    }
+
+    @Test
+    public void offerShouldLoadWaitlistFromRepository() {
+        WaitlistEntry stored = new WaitlistEntry(3L, 1L, Category.PREMIUM, new Date());
+        stored.setId(42L);
+        when(waitlistEntryRepository.findAllByEventIdAndCategoryOrderByIdAsc(1L, Category.PREMIUM))
+                .thenReturn(new ArrayList<>(Collections.singletonList(stored)));
+        when(ticketService.bookTicket(3L, 1L, 5, Category.PREMIUM)).thenReturn(new Ticket());
+
+        waitlistService.offer(1L, 5, Category.PREMIUM);
+
+        verify(ticketService).bookTicket(3L, 1L, 5, Category.PREMIUM);
+        verify(waitlistEntryRepository).deleteById(42L);
+    }
+
+    @Test
+    public void leaveShouldRemoveUserFromWaitlist() {
+        WaitlistEntry first = waitlistService.join(1L, 1L, Category.BAR);
+        waitlistService.join(2L, 1L, Category.BAR);
+        when(waitlistEntryRepository.findById(first.getId())).thenReturn(Optional.of(first));
+        when(ticketService.bookTicket(2L, 1L, 5, Category.BAR)).thenReturn(new Ticket());
+
+        boolean isRemoved = waitlistService.leave(first.getId());
+        waitlistService.offer(1L, 5, Category.BAR);
+
+        assertTrue(isRemoved);
+        verify(waitlistEntryRepository).deleteById(first.getId());
+        verify(ticketService, never()).bookTicket(eq(1L), anyLong(), anyInt(), any(Category.class));
+    }
+
+    @Test
+    public void leaveIfEntryNotExistShouldReturnFalse() {
+        when(waitlistEntryRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        boolean isRemoved = waitlistService.leave(1L);
+
+        assertFalse(isRemoved);
+    }
+}
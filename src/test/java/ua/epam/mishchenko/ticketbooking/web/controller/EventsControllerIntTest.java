@@ -159,4 +159,21 @@ public class EventsControllerIntTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("The event with id 0 not deleted")));
     }
+
+    @Test
+    public void getSeatAvailabilityWithExistingEventIdShouldReturnBookedPlacesBitsets() throws Exception {
+        this.mockMvc.perform(get("/events/1/availability"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"BAR\":\"AAQ=\"")))
+                .andExpect(content().string(containsString("\"PREMIUM\":\"AAg=\"")))
+                .andExpect(content().string(containsString("\"bookedCount\":{\"PREMIUM\":1,\"BAR\":1}")));
+    }
+
+    @Test
+    public void getSeatAvailabilityWithNotExistingEventIdShouldReturnNotFound() throws Exception {
+        this.mockMvc.perform(get("/events/0/availability"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
 }
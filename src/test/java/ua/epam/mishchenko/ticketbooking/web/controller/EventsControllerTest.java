@@ -77,7 +77,7 @@ public class EventsControllerTest {
         when(bookingFacade.getEventsByTitle(anyString(), anyInt(), anyInt()))
                 .thenReturn(Collections.singletonList(event));
 
-        ModelAndView actualModelAndView = eventsController.showEventsByTitle("Test Title", 1, 1);
+        ModelAndView actualModelAndView = eventsController.showEventsByTitle("Test Title", 1, 1, null);
 
         verify(bookingFacade, times(1)).getEventsByTitle(anyString(), anyInt(), anyInt());
 
@@ -90,7 +90,7 @@ public class EventsControllerTest {
     public void showEventsByTitleWithNotExistingEventTitleShouldReturnModelAndViewWithMessage() {
         when(bookingFacade.getEventsByTitle(anyString(), anyInt(), anyInt())).thenReturn(new ArrayList<>());
 
-        ModelAndView actualModelAndView = eventsController.showEventsByTitle("Not Existing Title", 1, 1);
+        ModelAndView actualModelAndView = eventsController.showEventsByTitle("Not Existing Title", 1, 1, null);
 
         verify(bookingFacade, times(1)).getEventsByTitle(anyString(), anyInt(), anyInt());
 
@@ -102,13 +102,44 @@ public class EventsControllerTest {
         assertEquals("Can not to get events by title: Not Existing Title", actualModelMap.getAttribute("message"));
     }
 
+    @Test
+    public void searchEventsByTitleWithMatchingQueryShouldReturnModelAndViewWithListOfEvents() {
+        Event event = new Event(1L, "Test event", new Date(System.currentTimeMillis()), BigDecimal.ONE);
+
+        when(bookingFacade.searchEventsByTitle(anyString(), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(event));
+
+        ModelAndView actualModelAndView = eventsController.searchEventsByTitle("tes", 1, 1);
+
+        verify(bookingFacade, times(1)).searchEventsByTitle("tes", 1, 1);
+
+        ModelMap actualModelMap = actualModelAndView.getModelMap();
+
+        assertEquals("events", actualModelAndView.getViewName());
+        assertTrue(actualModelMap.containsAttribute("events"));
+        assertFalse(actualModelMap.containsAttribute("message"));
+    }
+
+    @Test
+    public void searchEventsByTitleWithoutMatchesShouldReturnModelAndViewWithMessage() {
+        when(bookingFacade.searchEventsByTitle(anyString(), anyInt(), anyInt())).thenReturn(new ArrayList<>());
+
+        ModelAndView actualModelAndView = eventsController.searchEventsByTitle("opera", 1, 1);
+
+        ModelMap actualModelMap = actualModelAndView.getModelMap();
+
+        assertEquals("events", actualModelAndView.getViewName());
+        assertFalse(actualModelMap.containsAttribute("events"));
+        assertEquals("Can not to find events by title: opera", actualModelMap.getAttribute("message"));
+    }
+
     @Test
     public void showEventsForDayWithCorrectDateFormatAndExistingDayShouldReturnModelAndViewWithListOfEvents() {
         Event event = new Event(1L, "Test event", new Date(System.currentTimeMillis()), BigDecimal.ONE);
 
         when(bookingFacade.getEventsForDay(any(), anyInt(), anyInt())).thenReturn(Collections.singletonList(event));
 
-        ModelAndView actualModelAndView = eventsController.showEventsForDay("18-05-2022 15:30", 1, 1);
+        ModelAndView actualModelAndView = eventsController.showEventsForDay("18-05-2022 15:30", 1, 1, null);
 
         verify(bookingFacade, times(1)).getEventsForDay(any(), anyInt(), anyInt());
 
@@ -123,7 +154,7 @@ public class EventsControllerTest {
     public void showEventsForDayWithCorrectDateFormatAndNotExistingDayShouldReturnModelAndViewWithMessage() {
         when(bookingFacade.getEventsForDay(any(), anyInt(), anyInt())).thenReturn(new ArrayList<>());
 
-        ModelAndView actualModelAndView = eventsController.showEventsForDay("18-05-2022 15:30", 1, 1);
+        ModelAndView actualModelAndView = eventsController.showEventsForDay("18-05-2022 15:30", 1, 1, null);
 
         verify(bookingFacade, times(1)).getEventsForDay(any(), anyInt(), anyInt());
 
@@ -137,7 +168,7 @@ public class EventsControllerTest {
 
     @Test
     public void showEventsForDayWithWrongDateFormatAndExistingDayShouldReturnModelAndViewWithMessage() {
-        ModelAndView actualModelAndView = eventsController.showEventsForDay("18.05.2022 15:30", 1, 1);
+        ModelAndView actualModelAndView = eventsController.showEventsForDay("18.05.2022 15:30", 1, 1, null);
 
         verify(bookingFacade, times(0)).getEventsForDay(any(), anyInt(), anyInt());
 
@@ -10,6 +10,7 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -54,6 +55,22 @@ public class TicketsControllerIntTest {
                 .andExpect(content().string(containsString("Can not to book a ticket")));
     }
 
+    @Test
+    public void bookTicketsWithFreePlacesShouldReturnPageWithTickets() throws Exception {
+        this.mockMvc.perform(post("/tickets/batch?userId=1&eventId=1&places=21,22&categories=BAR,STANDARD"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("STANDARD")));
+    }
+
+    @Test
+    public void bookTicketsWithOneBookedPlaceShouldReturnPageWithMessage() throws Exception {
+        this.mockMvc.perform(post("/tickets/batch?userId=1&eventId=1&places=10,23&categories=BAR,BAR"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Can not to book tickets")));
+    }
+
     @Test
     public void showTicketsByUserWithExistingUserIdShouldReturnPageWithListOfTickets() throws Exception {
         this.mockMvc.perform(get("/tickets/user/5?pageSize=1&pageNum=1"))
@@ -78,6 +95,24 @@ public class TicketsControllerIntTest {
                 .andExpect(content().string(containsString("Can not to find the tickets by user with id: 1")));
     }
 
+    @Test
+    public void showTicketsByUserWithoutPageNumShouldReturnFirstPageWithNextCursor() throws Exception {
+        this.mockMvc.perform(get("/tickets/user/1?pageSize=1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("BAR")))
+                .andExpect(content().string(containsString("after=MQ")));
+    }
+
+    @Test
+    public void showTicketsByUserWithCursorShouldReturnLastPageWithoutNextCursor() throws Exception {
+        this.mockMvc.perform(get("/tickets/user/1?pageSize=1&after=MQ"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("20")))
+                .andExpect(content().string(not(containsString("Next page"))));
+    }
+
     @Test
     public void showTicketsByEventWithExistingEventIdShouldReturnPageWithListOfTickets() throws Exception {
         this.mockMvc.perform(get("/tickets/event/3?pageSize=1&pageNum=1"))
@@ -4,8 +4,14 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.servlet.ModelAndView;
+import ua.epam.mishchenko.ticketbooking.booking.AdmissionRejectedException;
+import ua.epam.mishchenko.ticketbooking.booking.IdempotencyStore;
+import ua.epam.mishchenko.ticketbooking.dto.SeatHold;
+import ua.epam.mishchenko.ticketbooking.dto.SeatRequest;
 import ua.epam.mishchenko.ticketbooking.facade.impl.BookingFacadeImpl;
 import ua.epam.mishchenko.ticketbooking.model.Category;
 import ua.epam.mishchenko.ticketbooking.model.Event;
@@ -13,13 +19,16 @@ import ua.epam.mishchenko.ticketbooking.model.Ticket;
 import ua.epam.mishchenko.ticketbooking.model.User;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -32,11 +41,14 @@ public class TicketsControllerTest {
     @Mock
     private BookingFacadeImpl bookingFacade;
 
+    private MockHttpServletResponse response;
+
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        ticketsController = new TicketsController(bookingFacade);
+        ticketsController = new TicketsController(bookingFacade, new IdempotencyStore(100, 60_000));
+        response = new MockHttpServletResponse();
     }
 
     @Test
@@ -45,7 +57,7 @@ public class TicketsControllerTest {
 
         when(bookingFacade.bookTicket(anyLong(), anyLong(), anyInt(), any())).thenReturn(ticket);
 
-        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 1, Category.BAR);
+        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 1, Category.BAR, null, response);
 
         verify(bookingFacade, times(1)).bookTicket(anyLong(), anyLong(), anyInt(), any());
 
@@ -60,7 +72,7 @@ public class TicketsControllerTest {
     public void bookTicketWithCorrectParametersShouldReturnModelAndViewWithMessage() {
         when(bookingFacade.bookTicket(anyLong(), anyLong(), anyInt(), any())).thenReturn(null);
 
-        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 1, Category.BAR);
+        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 1, Category.BAR, null, response);
 
         verify(bookingFacade, times(1)).bookTicket(anyLong(), anyLong(), anyInt(), any());
 
@@ -72,11 +84,137 @@ public class TicketsControllerTest {
         assertEquals("Can not to book a ticket", actualModelMap.getAttribute("message"));
     }
 
+    @Test
+    public void bookTicketRetriedWithSameIdempotencyKeyShouldBookOnlyOnce() {
+        Ticket ticket = new Ticket();
+        when(bookingFacade.bookTicket(anyLong(), anyLong(), anyInt(), any())).thenReturn(ticket);
+
+        ticketsController.bookTicket(1L, 1L, 1, Category.BAR, "key", response);
+        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 1, Category.BAR, "key", response);
+
+        verify(bookingFacade, times(1)).bookTicket(anyLong(), anyLong(), anyInt(), any());
+        assertEquals(ticket, actualModelAndView.getModelMap().getAttribute("ticket"));
+    }
+
+    @Test
+    public void bookTicketWithIdempotencyKeyOfAnotherRequestShouldReturnModelAndViewWithMessage() {
+        when(bookingFacade.bookTicket(anyLong(), anyLong(), anyInt(), any())).thenReturn(new Ticket());
+
+        ticketsController.bookTicket(1L, 1L, 1, Category.BAR, "key", response);
+        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 2, Category.BAR, "key", response);
+
+        verify(bookingFacade, times(1)).bookTicket(anyLong(), anyLong(), anyInt(), any());
+        assertFalse(actualModelAndView.getModelMap().containsAttribute("ticket"));
+        assertTrue(actualModelAndView.getModelMap().containsAttribute("message"));
+    }
+
+    @Test
+    public void bookTicketIfNotAdmittedShouldReturnTooManyRequests() {
+        when(bookingFacade.bookTicket(anyLong(), anyLong(), anyInt(), any()))
+                .thenThrow(new AdmissionRejectedException("Too many bookings in flight, try again", 2));
+
+        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 1, Category.BAR, null, response);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, actualModelAndView.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertFalse(actualModelAndView.getModelMap().containsAttribute("ticket"));
+        assertEquals("Too many bookings in flight, try again",
+                actualModelAndView.getModelMap().getAttribute("message"));
+    }
+
+    @Test
+    public void bookTicketNotAdmittedWithIdempotencyKeyShouldBeBookedOnRetry() {
+        Ticket ticket = new Ticket();
+        when(bookingFacade.bookTicket(anyLong(), anyLong(), anyInt(), any()))
+                .thenThrow(new AdmissionRejectedException("Too many bookings in flight, try again", 1))
+                .thenReturn(ticket);
+
+        ticketsController.bookTicket(1L, 1L, 1, Category.BAR, "key", response);
+        ModelAndView actualModelAndView = ticketsController.bookTicket(1L, 1L, 1, Category.BAR, "key", response);
+
+        verify(bookingFacade, times(2)).bookTicket(anyLong(), anyLong(), anyInt(), any());
+        assertEquals(ticket, actualModelAndView.getModelMap().getAttribute("ticket"));
+    }
+
+    @Test
+    public void bookTicketsWithCorrectParametersShouldReturnModelAndViewWithBookedTickets() {
+        when(bookingFacade.bookTickets(anyLong(), anyLong(), anyList()))
+                .thenReturn(Arrays.asList(new Ticket(), new Ticket()));
+
+        ModelAndView actualModelAndView = ticketsController.bookTickets(1L, 1L,
+                Arrays.asList(1, 2), Arrays.asList(Category.BAR, Category.PREMIUM));
+
+        verify(bookingFacade, times(1)).bookTickets(anyLong(), anyLong(), anyList());
+
+        ModelMap actualModelMap = actualModelAndView.getModelMap();
+
+        assertEquals("tickets", actualModelAndView.getViewName());
+        assertTrue(actualModelMap.containsAttribute("tickets"));
+        assertFalse(actualModelMap.containsAttribute("message"));
+    }
+
+    @Test
+    public void bookTicketsWithDifferentNumberOfPlacesAndCategoriesShouldReturnModelAndViewWithMessage() {
+        ModelAndView actualModelAndView = ticketsController.bookTickets(1L, 1L,
+                Arrays.asList(1, 2), Collections.singletonList(Category.BAR));
+
+        verify(bookingFacade, times(0)).bookTickets(anyLong(), anyLong(), anyList());
+
+        ModelMap actualModelMap = actualModelAndView.getModelMap();
+
+        assertEquals("tickets", actualModelAndView.getViewName());
+        assertFalse(actualModelMap.containsAttribute("tickets"));
+        assertEquals("The number of places and categories must be the same", actualModelMap.getAttribute("message"));
+    }
+
+    @Test
+    public void bookTicketsWhenNothingBookedShouldReturnModelAndViewWithMessage() {
+        when(bookingFacade.bookTickets(anyLong(), anyLong(), anyList())).thenReturn(new ArrayList<>());
+
+        ModelAndView actualModelAndView = ticketsController.bookTickets(1L, 1L,
+                Collections.singletonList(1), Collections.singletonList(Category.BAR));
+
+        ModelMap actualModelMap = actualModelAndView.getModelMap();
+
+        assertEquals("tickets", actualModelAndView.getViewName());
+        assertFalse(actualModelMap.containsAttribute("tickets"));
+        assertEquals("Can not to book tickets", actualModelMap.getAttribute("message"));
+    }
+
+    @Test
+    public void holdSeatsWithCorrectParametersShouldReturnModelAndViewWithHold() {
+        SeatHold hold = new SeatHold(1L, 1L, 1L,
+                Collections.singletonList(new SeatRequest(1, Category.BAR)), new Date());
+        when(bookingFacade.holdSeats(anyLong(), anyLong(), anyList())).thenReturn(hold);
+
+        ModelAndView actualModelAndView = ticketsController.holdSeats(1L, 1L,
+                Collections.singletonList(1), Collections.singletonList(Category.BAR));
+
+        ModelMap actualModelMap = actualModelAndView.getModelMap();
+
+        assertEquals("hold", actualModelAndView.getViewName());
+        assertEquals(hold, actualModelMap.getAttribute("hold"));
+        assertFalse(actualModelMap.containsAttribute("message"));
+    }
+
+    @Test
+    public void confirmHoldWhenNothingBookedShouldReturnModelAndViewWithMessage() {
+        when(bookingFacade.confirmHold(anyLong(), anyLong())).thenReturn(new ArrayList<>());
+
+        ModelAndView actualModelAndView = ticketsController.confirmHold(1L, 1L);
+
+        ModelMap actualModelMap = actualModelAndView.getModelMap();
+
+        assertEquals("tickets", actualModelAndView.getViewName());
+        assertFalse(actualModelMap.containsAttribute("tickets"));
+        assertEquals("Can not to book held tickets", actualModelMap.getAttribute("message"));
+    }
+
     @Test
     public void showTicketsByUserWithNotExistingUserIdShouldReturnModelAndViewWithMessage() {
         when(bookingFacade.getUserById(anyLong())).thenReturn(null);
 
-        ModelAndView actualModelAndView = ticketsController.showTicketsByUser(1L, 1, 1);
+        ModelAndView actualModelAndView = ticketsController.showTicketsByUser(1L, 1, 1, null);
 
         verify(bookingFacade, times(1)).getUserById(anyLong());
         verify(bookingFacade, times(0)).getBookedTickets(any(User.class), anyInt(), anyInt());
@@ -94,7 +232,7 @@ public class TicketsControllerTest {
         when(bookingFacade.getUserById(anyLong())).thenReturn(new User());
         when(bookingFacade.getBookedTickets(any(User.class), anyInt(), anyInt())).thenReturn(new ArrayList<>());
 
-        ModelAndView actualModelAndView = ticketsController.showTicketsByUser(1L, 1, 1);
+        ModelAndView actualModelAndView = ticketsController.showTicketsByUser(1L, 1, 1, null);
 
         verify(bookingFacade, times(1)).getUserById(anyLong());
         verify(bookingFacade, times(1)).getBookedTickets(any(User.class), anyInt(), anyInt());
@@ -113,7 +251,7 @@ public class TicketsControllerTest {
         when(bookingFacade.getBookedTickets(any(User.class), anyInt(), anyInt()))
                 .thenReturn(Collections.singletonList(new Ticket()));
 
-        ModelAndView actualModelAndView = ticketsController.showTicketsByUser(1L, 1, 1);
+        ModelAndView actualModelAndView = ticketsController.showTicketsByUser(1L, 1, 1, null);
 
         verify(bookingFacade, times(1)).getUserById(anyLong());
         verify(bookingFacade, times(1)).getBookedTickets(any(User.class), anyInt(), anyInt());
@@ -129,7 +267,7 @@ public class TicketsControllerTest {
     public void showTicketsByEventWithNotExistingEventIdShouldReturnModelAndViewWithMessage() {
         when(bookingFacade.getEventById(anyLong())).thenReturn(null);
 
-        ModelAndView actualModelAndView = ticketsController.showTicketsByEvent(1L, 1, 1);
+        ModelAndView actualModelAndView = ticketsController.showTicketsByEvent(1L, 1, 1, null);
 
         verify(bookingFacade, times(1)).getEventById(anyLong());
         verify(bookingFacade, times(0)).getBookedTickets(any(Event.class), anyInt(), anyInt());
@@ -147,7 +285,7 @@ public class TicketsControllerTest {
         when(bookingFacade.getEventById(anyLong())).thenReturn(new Event());
         when(bookingFacade.getBookedTickets(any(Event.class), anyInt(), anyInt())).thenReturn(new ArrayList<>());
 
-        ModelAndView actualModelAndView = ticketsController.showTicketsByEvent(1L, 1, 1);
+        ModelAndView actualModelAndView = ticketsController.showTicketsByEvent(1L, 1, 1, null);
 
         verify(bookingFacade, times(1)).getEventById(anyLong());
         verify(bookingFacade, times(1)).getBookedTickets(any(Event.class), anyInt(), anyInt());
@@ -166,7 +304,7 @@ public class TicketsControllerTest {
         when(bookingFacade.getBookedTickets(any(Event.class), anyInt(), anyInt()))
                 .thenReturn(Collections.singletonList(new Ticket()));
 
-        ModelAndView actualModelAndView = ticketsController.showTicketsByEvent(1L, 1, 1);
+        ModelAndView actualModelAndView = ticketsController.showTicketsByEvent(1L, 1, 1, null);
 
         verify(bookingFacade, times(1)).getEventById(anyLong());
         verify(bookingFacade, times(1)).getBookedTickets(any(Event.class), anyInt(), anyInt());
@@ -6,9 +6,12 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.servlet.ModelAndView;
+import ua.epam.mishchenko.ticketbooking.booking.IdempotencyStore;
 import ua.epam.mishchenko.ticketbooking.facade.impl.BookingFacadeImpl;
 import ua.epam.mishchenko.ticketbooking.model.User;
+import ua.epam.mishchenko.ticketbooking.model.UserAccount;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 
@@ -34,7 +37,7 @@ public class UsersControllerTest {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        usersController = new UsersController(bookingFacade);
+        usersController = new UsersController(bookingFacade, new IdempotencyStore(100, 60_000));
     }
 
     @Test
@@ -71,7 +74,7 @@ public class UsersControllerTest {
         when(bookingFacade.getUsersByName(anyString(), anyInt(), anyInt()))
                 .thenReturn(Collections.singletonList(new User()));
 
-        ModelAndView actualModelAndView = usersController.showUsersByName("Not Existing Name", 1, 1);
+        ModelAndView actualModelAndView = usersController.showUsersByName("Not Existing Name", 1, 1, null);
 
         verify(bookingFacade, times(1)).getUsersByName(anyString(), anyInt(), anyInt());
 
@@ -86,7 +89,7 @@ public class UsersControllerTest {
     public void showUsersByNameWithNotExistingUsersNameShouldReturnModelAndViewWithMessage() {
         when(bookingFacade.getUsersByName(anyString(), anyInt(), anyInt())).thenReturn(new ArrayList<>());
 
-        ModelAndView actualModelAndView = usersController.showUsersByName("Not Existing Name", 1, 1);
+        ModelAndView actualModelAndView = usersController.showUsersByName("Not Existing Name", 1, 1, null);
 
         verify(bookingFacade, times(1)).getUsersByName(anyString(), anyInt(), anyInt());
 
@@ -220,4 +223,29 @@ public class UsersControllerTest {
         assertTrue(actualModelMap.containsAttribute("message"));
         assertEquals("The user with id: 1 not removed", actualModelMap.getAttribute("message"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void refillUserAccountRetriedWithSameIdempotencyKeyShouldRefillOnlyOnce() {
+        when(bookingFacade.refillUserAccount(anyLong(), any()))
+                .thenReturn(new UserAccount(new User(), BigDecimal.valueOf(100)));
+
+        usersController.refillUserAccount(1L, BigDecimal.valueOf(100), "key");
+        ModelAndView actualModelAndView = usersController.refillUserAccount(1L, BigDecimal.valueOf(100), "key");
+
+        verify(bookingFacade, times(1)).refillUserAccount(anyLong(), any());
+        assertEquals("user", actualModelAndView.getViewName());
+        assertEquals("The user account of the user with id: 1 successfully refilled, the balance is 100",
+                actualModelAndView.getModelMap().getAttribute("message"));
+    }
+
+    @Test
+    public void refillUserAccountWithoutIdempotencyKeyShouldRefillEveryTime() {
+        when(bookingFacade.refillUserAccount(anyLong(), any()))
+                .thenReturn(new UserAccount(new User(), BigDecimal.valueOf(100)));
+
+        usersController.refillUserAccount(1L, BigDecimal.valueOf(100), null);
+        usersController.refillUserAccount(1L, BigDecimal.valueOf(100), null);
+
+        verify(bookingFacade, times(2)).refillUserAccount(anyLong(), any());
+    }
+}
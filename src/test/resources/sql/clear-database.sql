@@ -1,3 +1,12 @@
+delete
+from waitlist_entries;
+
+delete
+from account_ledger_entries;
+
+delete
+from outbox_events;
+
 delete
 from tickets;
 
@@ -14,3 +23,6 @@ TRUNCATE TABLE users RESTART IDENTITY CASCADE;
 TRUNCATE TABLE events RESTART IDENTITY CASCADE;
 TRUNCATE TABLE tickets RESTART IDENTITY;
 TRUNCATE TABLE user_accounts RESTART IDENTITY;
+TRUNCATE TABLE waitlist_entries RESTART IDENTITY;
+TRUNCATE TABLE account_ledger_entries RESTART IDENTITY;
+TRUNCATE TABLE outbox_events RESTART IDENTITY;